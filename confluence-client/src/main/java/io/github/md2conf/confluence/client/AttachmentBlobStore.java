@@ -0,0 +1,89 @@
+package io.github.md2conf.confluence.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+import static org.apache.commons.codec.digest.DigestUtils.sha256Hex;
+
+/**
+ * Content-addressed store of dumped attachments.
+ * <p>
+ * Every attachment is downloaded and saved to the blob directory under the SHA-256 of its content, so attachments
+ * are shared only if their content is identical. Attachment files of pages are hard links to the blob (or copies, if
+ * the file system does not support hard links).
+ */
+public class AttachmentBlobStore {
+
+    public static final String BLOB_DIRECTORY = ".blobs";
+
+    private final Path blobDir;
+
+    public AttachmentBlobStore(Path outputDir) {
+        this.blobDir = outputDir.resolve(BLOB_DIRECTORY);
+    }
+
+    /**
+     * @return path of a new temporary file in the blob directory to download an attachment to
+     */
+    public Path newDownloadPath() {
+        try {
+            Files.createDirectories(blobDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create blob directory " + blobDir, e);
+        }
+        return blobDir.resolve(".download-" + UUID.randomUUID());
+    }
+
+    /**
+     * Move downloaded file to the store.
+     *
+     * @return path of the blob, if a blob with the same content already exists the downloaded file is deleted
+     */
+    public Path store(Path downloadedFile) {
+        try {
+            String hash;
+            try (InputStream inputStream = Files.newInputStream(downloadedFile)) {
+                hash = sha256Hex(inputStream);
+            }
+            Path blob = blobDir.resolve(hash);
+            if (Files.exists(blob)) {
+                Files.delete(downloadedFile);
+                return blob;
+            }
+            try {
+                Files.move(downloadedFile, blob, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(downloadedFile, blob);
+            } catch (FileAlreadyExistsException e) {
+                Files.delete(downloadedFile);
+            }
+            return blob;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store attachment " + downloadedFile, e);
+        }
+    }
+
+    /**
+     * Make the blob available at the target path of the page attachment.
+     */
+    public void link(Path blob, Path target) {
+        try {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Files.deleteIfExists(target);
+            try {
+                Files.createLink(target, blob);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(blob, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot link attachment " + target, e);
+        }
+    }
+}
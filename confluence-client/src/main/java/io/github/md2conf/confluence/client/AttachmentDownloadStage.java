@@ -0,0 +1,126 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
+import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
+import io.github.md2conf.confluence.client.http.HttpValidatorCache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Download stage of dump, fed by page tree traversal.
+ * <p>
+ * Traversal only lists attachments of a page and enqueues downloads, downloads are executed by a bounded number of
+ * threads. With concurrency of 1 or less downloads are executed immediately in the calling thread.
+ * <p>
+ * With {@link AttachmentBlobStore} every attachment is downloaded to the store and linked to the blob with the same
+ * content.
+ * <p>
+ * With {@link HttpValidatorCache} attachments are downloaded conditionally and files not modified on the server are
+ * kept. Blob store downloads every attachment to a new file, so the cache is not used together with it.
+ */
+public class AttachmentDownloadStage implements AutoCloseable {
+
+    private final ApiInternalClient apiInternalClient;
+    private final ExecutorService executor;
+    private final AttachmentBlobStore blobStore;
+    private final HttpValidatorCache validatorCache;
+    private final Queue<CompletableFuture<Void>> pending = new ConcurrentLinkedQueue<>();
+
+    public AttachmentDownloadStage(ApiInternalClient apiInternalClient, int concurrency) {
+        this(apiInternalClient, concurrency, null);
+    }
+
+    public AttachmentDownloadStage(ApiInternalClient apiInternalClient, int concurrency, AttachmentBlobStore blobStore) {
+        this(apiInternalClient, concurrency, blobStore, null);
+    }
+
+    public AttachmentDownloadStage(ApiInternalClient apiInternalClient, int concurrency, AttachmentBlobStore blobStore,
+                                   HttpValidatorCache validatorCache) {
+        this.apiInternalClient = apiInternalClient;
+        this.executor = concurrency > 1 ? Executors.newFixedThreadPool(concurrency, new DownloadThreadFactory()) : null;
+        this.blobStore = blobStore;
+        this.validatorCache = validatorCache;
+    }
+
+    /**
+     * @return future completed once the attachment is saved to the output path
+     */
+    public CompletableFuture<Void> enqueue(ConfluenceAttachment attachment, Path outputPath) {
+        if (blobStore == null && validatorCache != null) {
+            return execute(() -> apiInternalClient.saveUrlToFile(attachment.getRelativeDownloadLink(), outputPath.toFile(), validatorCache));
+        }
+        if (blobStore == null) {
+            return execute(() -> apiInternalClient.saveUrlToFile(attachment.getRelativeDownloadLink(), outputPath.toFile()));
+        }
+        return execute(() -> {
+            Path downloadPath = blobStore.newDownloadPath();
+            apiInternalClient.saveUrlToFile(attachment.getRelativeDownloadLink(), downloadPath.toFile());
+            blobStore.link(blobStore.store(downloadPath), outputPath);
+        });
+    }
+
+    /**
+     * Run the action once all the futures are completed successfully. Failure of the action is rethrown by
+     * {@link #awaitCompletion()}.
+     */
+    public void whenCompleted(List<CompletableFuture<Void>> futures, Runnable action) {
+        pending.add(CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenRun(action));
+    }
+
+    private CompletableFuture<Void> execute(Runnable download) {
+        if (executor == null) {
+            download.run();
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> future = CompletableFuture.runAsync(download, executor);
+        pending.add(future);
+        return future;
+    }
+
+    /**
+     * Wait until all enqueued downloads are completed. Rethrows failure of the first failed download.
+     */
+    public void awaitCompletion() {
+        RuntimeException failure = null;
+        CompletableFuture<Void> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class DownloadThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "md2conf-dump-download-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
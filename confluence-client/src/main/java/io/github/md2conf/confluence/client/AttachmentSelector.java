@@ -0,0 +1,23 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
+
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+/**
+ * Select attachments of a dumped page to download. Attachments not selected are listed in the model as
+ * {@link io.github.md2conf.model.ConfluencePage#getRemoteAttachments() remote attachments} and may be downloaded
+ * later by {@link DumpConfluenceClient#fetchRemoteAttachment(io.github.md2conf.model.ConfluencePage, String)}.
+ */
+@FunctionalInterface
+public interface AttachmentSelector {
+
+    AttachmentSelector ALL = contentFile -> attachment -> true;
+
+    /**
+     * @param contentFile file the page content is saved to
+     * @return predicate selecting attachments of the page
+     */
+    Predicate<ConfluenceAttachment> forPage(Path contentFile);
+}
@@ -14,6 +14,11 @@ public class ConfluenceClientConfigurationProperties { //todo rename or delete?
     private boolean skipSslVerification = false;
     private Double maxRequestsPerSecond;
     private Integer connectionTTL;
+    private Integer maxConnections;
+    private Integer publishConcurrency;
+    private Integer largeAttachmentConcurrency;
+    private Long largeAttachmentThreshold;
+    private Double attachmentBytesPerSecond;
 
     public String getConfluenceUrl() {
         return confluenceUrl;
@@ -111,6 +116,46 @@ public class ConfluenceClientConfigurationProperties { //todo rename or delete?
         this.connectionTTL = connectionTTL;
     }
 
+    public Integer getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(Integer maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public Integer getPublishConcurrency() {
+        return publishConcurrency;
+    }
+
+    public void setPublishConcurrency(Integer publishConcurrency) {
+        this.publishConcurrency = publishConcurrency;
+    }
+
+    public Integer getLargeAttachmentConcurrency() {
+        return largeAttachmentConcurrency;
+    }
+
+    public void setLargeAttachmentConcurrency(Integer largeAttachmentConcurrency) {
+        this.largeAttachmentConcurrency = largeAttachmentConcurrency;
+    }
+
+    public Long getLargeAttachmentThreshold() {
+        return largeAttachmentThreshold;
+    }
+
+    public void setLargeAttachmentThreshold(Long largeAttachmentThreshold) {
+        this.largeAttachmentThreshold = largeAttachmentThreshold;
+    }
+
+    public Double getAttachmentBytesPerSecond() {
+        return attachmentBytesPerSecond;
+    }
+
+    public void setAttachmentBytesPerSecond(Double attachmentBytesPerSecond) {
+        this.attachmentBytesPerSecond = attachmentBytesPerSecond;
+    }
+
     public static final class ConfluenceClientConfigurationPropertiesBuilder {
         private String confluenceUrl;
         private String username;
@@ -124,6 +169,11 @@ public class ConfluenceClientConfigurationProperties { //todo rename or delete?
         private boolean skipSslVerification = false;
         private Double maxRequestsPerSecond;
         private Integer connectionTTL;
+        private Integer maxConnections;
+        private Integer publishConcurrency;
+        private Integer largeAttachmentConcurrency;
+        private Long largeAttachmentThreshold;
+        private Double attachmentBytesPerSecond;
 
         private ConfluenceClientConfigurationPropertiesBuilder() {
         }
@@ -192,6 +242,31 @@ public class ConfluenceClientConfigurationProperties { //todo rename or delete?
             return this;
         }
 
+        public ConfluenceClientConfigurationPropertiesBuilder withMaxConnections(Integer maxConnections) {
+            this.maxConnections = maxConnections;
+            return this;
+        }
+
+        public ConfluenceClientConfigurationPropertiesBuilder withPublishConcurrency(Integer publishConcurrency) {
+            this.publishConcurrency = publishConcurrency;
+            return this;
+        }
+
+        public ConfluenceClientConfigurationPropertiesBuilder withLargeAttachmentConcurrency(Integer largeAttachmentConcurrency) {
+            this.largeAttachmentConcurrency = largeAttachmentConcurrency;
+            return this;
+        }
+
+        public ConfluenceClientConfigurationPropertiesBuilder withLargeAttachmentThreshold(Long largeAttachmentThreshold) {
+            this.largeAttachmentThreshold = largeAttachmentThreshold;
+            return this;
+        }
+
+        public ConfluenceClientConfigurationPropertiesBuilder withAttachmentBytesPerSecond(Double attachmentBytesPerSecond) {
+            this.attachmentBytesPerSecond = attachmentBytesPerSecond;
+            return this;
+        }
+
         public ConfluenceClientConfigurationProperties build() {
             ConfluenceClientConfigurationProperties confluenceClientConfigurationProperties = new ConfluenceClientConfigurationProperties();
             confluenceClientConfigurationProperties.setConfluenceUrl(confluenceUrl);
@@ -206,6 +281,11 @@ public class ConfluenceClientConfigurationProperties { //todo rename or delete?
             confluenceClientConfigurationProperties.setSkipSslVerification(skipSslVerification);
             confluenceClientConfigurationProperties.setMaxRequestsPerSecond(maxRequestsPerSecond);
             confluenceClientConfigurationProperties.setConnectionTTL(connectionTTL);
+            confluenceClientConfigurationProperties.setMaxConnections(maxConnections);
+            confluenceClientConfigurationProperties.setPublishConcurrency(publishConcurrency);
+            confluenceClientConfigurationProperties.setLargeAttachmentConcurrency(largeAttachmentConcurrency);
+            confluenceClientConfigurationProperties.setLargeAttachmentThreshold(largeAttachmentThreshold);
+            confluenceClientConfigurationProperties.setAttachmentBytesPerSecond(attachmentBytesPerSecond);
             return confluenceClientConfigurationProperties;
         }
     }
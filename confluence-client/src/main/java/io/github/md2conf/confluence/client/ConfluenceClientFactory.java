@@ -1,36 +1,110 @@
 package io.github.md2conf.confluence.client;
 
+import io.github.md2conf.confluence.client.PublishScheduler.PublishSchedulerBuilder;
 import io.github.md2conf.confluence.client.http.ApiInternalClient;
 import io.github.md2conf.confluence.client.http.RestApiInternalClient;
 import io.github.md2conf.confluence.client.utils.AssertUtils;
 import io.github.md2conf.model.ConfluenceContentModel;
 
 import static io.github.md2conf.confluence.client.PublishConfluenceClientBuilder.aConfluenceClient;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.LARGE_ATTACHMENT;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.METADATA;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.PAGE_WRITE;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.SMALL_ATTACHMENT;
+import static io.github.md2conf.confluence.client.PublishScheduler.PublishSchedulerBuilder.aPublishScheduler;
 
 public class ConfluenceClientFactory {
 
     public static PublishConfluenceClient publishConfluenceClient(ConfluenceClientConfigurationProperties properties,
                                                                   ConfluenceContentModel confluenceContentModel,
                                                                   PublishConfluenceClientListener publishConfluenceClientListener) {
+        return publishConfluenceClient(properties, confluenceContentModel, publishConfluenceClientListener, createApiInternalClient(properties));
+    }
+
+    /**
+     * Create publish client on top of already existing {@link ApiInternalClient}.
+     * Used when several models are published in a single run and share the same HTTP connection pool and rate limit.
+     */
+    public static PublishConfluenceClient publishConfluenceClient(ConfluenceClientConfigurationProperties properties,
+                                                                  ConfluenceContentModel confluenceContentModel,
+                                                                  PublishConfluenceClientListener publishConfluenceClientListener,
+                                                                  ApiInternalClient apiInternalClient) {
+        return publishConfluenceClient(properties, confluenceContentModel, publishConfluenceClientListener, apiInternalClient, createPublishScheduler(properties));
+    }
+
+    /**
+     * Create publish client with the scheduler owned by the caller, the caller closes the scheduler once publishing is
+     * completed.
+     */
+    public static PublishConfluenceClient publishConfluenceClient(ConfluenceClientConfigurationProperties properties,
+                                                                  ConfluenceContentModel confluenceContentModel,
+                                                                  PublishConfluenceClientListener publishConfluenceClientListener,
+                                                                  ApiInternalClient apiInternalClient,
+                                                                  PublishScheduler publishScheduler) {
         AssertUtils.assertMandatoryParameter(!confluenceContentModel.getPages().isEmpty(), "Confluence Content Pages");
-        ApiInternalClient apiInternalClient = createApiInternalClient(properties);
         PublishConfluenceClientBuilder builder = aConfluenceClient()
                 .withConfluenceClientListener(publishConfluenceClientListener)
                 .withInternalApiClient(apiInternalClient)
                 .withNotifyWatchers(properties.isNotifyWatchers())
                 .withOrphanRemovalStrategy(properties.getOrphanRemovalStrategy())
                 .withPublishingStrategy(PublishingStrategy.APPEND_TO_ANCESTOR)
-                .withVersionMessage(properties.getVersionMessage());
+                .withVersionMessage(properties.getVersionMessage())
+                .withPublishScheduler(publishScheduler);
 
         return builder.build();
     }
 
+    /**
+     * Create scheduler with concurrent lanes if publish concurrency is configured, otherwise pages are published serially.
+     */
+    public static PublishScheduler createPublishScheduler(ConfluenceClientConfigurationProperties properties) {
+        Integer concurrency = properties.getPublishConcurrency();
+        if (concurrency == null || concurrency <= 1) {
+            return PublishScheduler.inline();
+        }
+        int largeAttachmentConcurrency = largeAttachmentConcurrency(properties);
+        PublishSchedulerBuilder builder = aPublishScheduler()
+                .withConcurrency(PAGE_WRITE, concurrency)
+                .withConcurrency(METADATA, concurrency)
+                .withConcurrency(SMALL_ATTACHMENT, concurrency)
+                .withConcurrency(LARGE_ATTACHMENT, largeAttachmentConcurrency)
+                .withAttachmentBandwidth(properties.getAttachmentBytesPerSecond());
+        if (properties.getLargeAttachmentThreshold() != null) {
+            builder.withLargeAttachmentThreshold(properties.getLargeAttachmentThreshold());
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return number of threads of the scheduler created by {@link #createPublishScheduler}, every one needs own HTTP
+     * connection, so calls of one lane don't wait for connections held by uploads of another lane
+     */
+    public static int publishThreads(ConfluenceClientConfigurationProperties properties) {
+        Integer concurrency = properties.getPublishConcurrency();
+        if (concurrency == null || concurrency <= 1) {
+            return 1;
+        }
+        return 3 * concurrency + largeAttachmentConcurrency(properties);
+    }
+
+    private static int largeAttachmentConcurrency(ConfluenceClientConfigurationProperties properties) {
+        return properties.getLargeAttachmentConcurrency() != null ? properties.getLargeAttachmentConcurrency() : 1;
+    }
+
+    /**
+     * Create client with connection pool sized to publish threads if max connections are not configured
+     */
     public static ApiInternalClient createApiInternalClient(ConfluenceClientConfigurationProperties properties) {
+        Integer maxConnections = properties.getMaxConnections();
+        if (maxConnections == null && publishThreads(properties) > 1) {
+            maxConnections = publishThreads(properties);
+        }
         return new RestApiInternalClient(properties.getConfluenceUrl(),
                 properties.isSkipSslVerification(),
                 true,
                 properties.getMaxRequestsPerSecond(),
                 properties.getConnectionTTL(),
+                maxConnections,
                 properties.getUsername(),
                 properties.getPasswordOrPersonalAccessToken());
     }
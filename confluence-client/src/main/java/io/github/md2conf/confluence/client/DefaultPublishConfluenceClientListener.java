@@ -61,6 +61,13 @@ public class DefaultPublishConfluenceClientListener implements PublishConfluence
         logger.info("Not modified attachment '" + attachmentFileName + "' (page id " + contentId + ")");
     }
 
+    @Override
+    public void attachmentTransferProgress(String attachmentFileName, String contentId, long bytesTransferred, long totalBytes) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Uploading attachment '" + attachmentFileName + "' (page id " + contentId + "): " + bytesTransferred + " of " + totalBytes + " bytes");
+        }
+    }
+
     @Override
     public synchronized void attachmentDeleted(String attachmentFileName, String contentId) {
         attachmentDeletedCnt++;
@@ -3,86 +3,427 @@ package io.github.md2conf.confluence.client;
 import io.github.md2conf.confluence.client.http.ApiInternalClient;
 import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
 import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
+import io.github.md2conf.confluence.client.http.HttpValidatorCache;
 import io.github.md2conf.model.ConfluenceContentModel;
 import io.github.md2conf.model.ConfluencePage;
-import org.apache.commons.io.FileUtils;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * Dump page tree from Confluence instance.
+ * <p>
+ * With parallelism greater than 1 the tree is traversed in a work-stealing pool: every child page becomes a task as soon
+ * as its parent is listed. Children are joined in the order returned by Confluence, so the resulting
+ * {@link ConfluenceContentModel} is the same as with serial traversal. All tasks share the same {@link ApiInternalClient}
+ * and therefore its rate limit and connection pool.
+ * <p>
+ * Attachments are downloaded by {@link AttachmentDownloadStage}. Dump completes once both traversal and download queue
+ * are drained.
+ * <p>
+ * Pages are listed as lightweight descriptors (id, title, version) and the body of every page is streamed straight to
+ * its file, so heap usage does not depend on size of the space or width of a section.
+ * <p>
+ * With {@link DumpStrategy#CQL_DESCENDANTS} the whole tree is listed with a few paginated search requests before
+ * traversal, instead of listing children of every page.
+ * <p>
+ * With attachment deduplication attachments with identical content are stored once in {@link AttachmentBlobStore}
+ * and linked to the pages they are attached to.
+ * <p>
+ * Page bodies are saved in {@link DumpContentFormat#VIEW} by default, {@link DumpContentFormat#STORAGE} saves the
+ * server from rendering pages.
+ * <p>
+ * With conditional attachment download {@link HttpValidatorCache} is saved to the output directory, and attachment
+ * files of the previous dump are only downloaded again if they were modified on the server or locally.
+ * <p>
+ * {@link DumpFilter} limits dumped pages. Pages are selected by CQL search where possible, pages not selected are not
+ * fetched, and their selected descendants are dumped as children of the nearest dumped ancestor.
+ * <p>
+ * {@link AttachmentSelector} selects attachments to download once page content is saved. Attachments not selected are
+ * listed as remote attachments of the page and can be fetched later by {@link #fetchRemoteAttachment(ConfluencePage, String)}.
+ * <p>
+ * {@link DumpListener} is notified about every page once its content and attachments are saved.
+ * <p>
+ * Every dump saves {@link DumpManifest} to the output directory. In incremental mode only pages and attachments with a
+ * version different from the previous manifest are downloaded.
+ */
 public class DumpConfluenceClient {
 
+    /**
+     * Order of children in Confluence: manually ordered pages by position, then other pages by title
+     */
+    private static final Comparator<ConfluenceApiPage> SIBLING_ORDER = Comparator
+            .comparing(ConfluenceApiPage::getPosition, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(ConfluenceApiPage::getTitle, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(ConfluenceApiPage::getContentId, DumpConfluenceClient::compareContentIds);
+
     private final ApiInternalClient apiInternalClient;
     private final Path outputDir;
+    private final int parallelism;
+    private final int attachmentDownloadConcurrency;
+    private final boolean incremental;
+    private final DumpStrategy dumpStrategy;
+    private final boolean deduplicateAttachments;
+    private final DumpContentFormat contentFormat;
+    private final DumpListener dumpListener;
+    private final boolean conditionalAttachmentDownload;
+    private final DumpFilter filter;
+    private final AttachmentSelector attachmentSelector;
 
     public DumpConfluenceClient(ApiInternalClient apiInternalClient, Path outputDir) {
+        this(apiInternalClient, outputDir, 1, 1, false, DumpStrategy.CHILD_PAGES, false, DumpContentFormat.VIEW, DumpListener.NONE, false, DumpFilter.NONE, AttachmentSelector.ALL);
+    }
+
+    public DumpConfluenceClient(ApiInternalClient apiInternalClient, Path outputDir, int parallelism, int attachmentDownloadConcurrency,
+                                boolean incremental, DumpStrategy dumpStrategy, boolean deduplicateAttachments,
+                                DumpContentFormat contentFormat, DumpListener dumpListener, boolean conditionalAttachmentDownload,
+                                DumpFilter filter, AttachmentSelector attachmentSelector) {
+        if (deduplicateAttachments && conditionalAttachmentDownload) {
+            // blob store downloads every attachment to a new file
+            throw new IllegalArgumentException("Attachment deduplication cannot be used with conditional attachment download");
+        }
         this.apiInternalClient = apiInternalClient;
         this.outputDir = outputDir;
+        this.parallelism = Math.max(1, parallelism);
+        this.attachmentDownloadConcurrency = attachmentDownloadConcurrency;
+        this.incremental = incremental;
+        this.dumpStrategy = dumpStrategy != null ? dumpStrategy : DumpStrategy.CHILD_PAGES;
+        this.deduplicateAttachments = deduplicateAttachments;
+        this.contentFormat = contentFormat != null ? contentFormat : DumpContentFormat.VIEW;
+        this.dumpListener = dumpListener != null ? dumpListener : DumpListener.NONE;
+        this.conditionalAttachmentDownload = conditionalAttachmentDownload;
+        this.filter = filter != null ? filter : DumpFilter.NONE;
+        this.attachmentSelector = attachmentSelector != null ? attachmentSelector : AttachmentSelector.ALL;
     }
 
     public ConfluenceContentModel dump(String spaceKey, String title) throws IOException {
         String contentId = apiInternalClient.getPageByTitle(spaceKey, title);
-        ConfluenceApiPage apiPage = apiInternalClient.getPageWithViewContent(contentId);
+        ConfluenceApiPage apiPage = apiInternalClient.getPage(contentId);
+        DumpManifest previousManifest = incremental ? DumpManifest.readManifest(outputDir) : new DumpManifest();
+        if (previousManifest.getContentFormat() != contentFormat) {
+            // page files of previous dump are in other format
+            previousManifest = new DumpManifest();
+        }
+        DumpManifest manifest = new DumpManifest();
+        manifest.setContentFormat(contentFormat);
+        Function<String, List<ConfluenceApiPage>> childrenLister = childrenLister(contentId);
         //process top-level page
         //todo add option to process only children of top-level page
-        ConfluencePage topLevelPage = processAndSave(apiPage, outputDir);
+        ConfluencePage topLevelPage;
+        AttachmentBlobStore blobStore = deduplicateAttachments ? new AttachmentBlobStore(outputDir) : null;
+        HttpValidatorCache validatorCache = conditionalAttachmentDownload ? HttpValidatorCache.load(outputDir) : null;
+        try (AttachmentDownloadStage downloadStage = new AttachmentDownloadStage(apiInternalClient, attachmentDownloadConcurrency, blobStore, validatorCache)) {
+            DumpSession session = new DumpSession(childrenLister, downloadStage, previousManifest, manifest);
+            topLevelPage = parallelism > 1 ? processAndSaveInParallel(apiPage, session) : processAndSave(apiPage, outputDir, List.of(), session);
+            downloadStage.awaitCompletion();
+        }
+        if (validatorCache != null) {
+            validatorCache.save();
+        }
+        manifest.writeManifest(outputDir);
         ConfluenceContentModel res = new ConfluenceContentModel();
         res.setPages(List.of(topLevelPage));
         return res;
 
     }
 
-    private ConfluencePage processAndSave(ConfluenceApiPage apiPage,  Path outputDir) throws IOException {
-        var confluencePage = new ConfluencePage();
-        confluencePage.setTitle(apiPage.getTitle());
-        confluencePage.setType(ConfluenceContentModel.Type.VIEW);
-        confluencePage.setContentFilePath(saveContent(apiPage, outputDir));
-        List<ConfluenceAttachment> list = apiInternalClient.getAttachments(apiPage.getContentId());
-        Map<String, String> attachments = saveAttachments(list, outputDir);
-        confluencePage.setAttachments(attachments);
-        List<ConfluenceApiPage> childrenPages = apiInternalClient.getChildPagesWithViewContent(apiPage.getContentId());
+    private Function<String, List<ConfluenceApiPage>> childrenLister(String contentId) {
+        if (dumpStrategy == DumpStrategy.CQL_DESCENDANTS) {
+            return filter.isSelective() ? selectedDescendantTree(contentId) : descendantTree(contentId);
+        }
+        if (!filter.isSelective()) {
+            return apiInternalClient::getChildPages;
+        }
+        if (!filter.hasCqlCondition()) {
+            return new SelectedChildrenLister(apiInternalClient::getChildPages, contentId, filter, null, null);
+        }
+        Set<String> selectedIds = new HashSet<>();
+        Set<String> relevantIds = new HashSet<>();
+        for (ConfluenceApiPage page : apiInternalClient.getDescendantPages(contentId, filter.cqlCondition())) {
+            selectedIds.add(page.getContentId());
+            relevantIds.add(page.getContentId());
+            relevantIds.addAll(page.getAncestorIds());
+        }
+        return new SelectedChildrenLister(apiInternalClient::getChildPages, contentId, filter, selectedIds, relevantIds);
+    }
+
+    /**
+     * List descendants of the page selected by the filter and group them by the nearest selected ancestor
+     */
+    private Function<String, List<ConfluenceApiPage>> selectedDescendantTree(String contentId) {
+        List<ConfluenceApiPage> descendants = filter.hasCqlCondition()
+                ? apiInternalClient.getDescendantPages(contentId, filter.cqlCondition())
+                : apiInternalClient.getDescendantPages(contentId);
+        Set<String> selectedIds = descendants.stream()
+                .filter(page -> filter.matchesTitle(page) && filter.isDepthAllowed(depth(page, contentId)))
+                .map(ConfluenceApiPage::getContentId)
+                .collect(Collectors.toSet());
+        Map<String, List<ConfluenceApiPage>> childrenByParentId = descendants.stream()
+                .filter(page -> selectedIds.contains(page.getContentId()))
+                .sorted(SIBLING_ORDER)
+                .collect(Collectors.groupingBy(page -> nearestSelectedAncestor(page, contentId, selectedIds)));
+        return parentId -> childrenByParentId.getOrDefault(parentId, List.of());
+    }
+
+    private static int depth(ConfluenceApiPage page, String rootId) {
+        List<String> ancestorIds = page.getAncestorIds();
+        int rootIndex = ancestorIds.indexOf(rootId);
+        return rootIndex < 0 ? ancestorIds.size() : ancestorIds.size() - rootIndex;
+    }
+
+    private static String nearestSelectedAncestor(ConfluenceApiPage page, String rootId, Set<String> selectedIds) {
+        List<String> ancestorIds = page.getAncestorIds();
+        for (int i = ancestorIds.size() - 1; i >= 0; i--) {
+            String ancestorId = ancestorIds.get(i);
+            if (ancestorId.equals(rootId) || selectedIds.contains(ancestorId)) {
+                return ancestorId;
+            }
+        }
+        return rootId;
+    }
+
+    /**
+     * List all descendants of the page at once and group them by parent
+     */
+    private Function<String, List<ConfluenceApiPage>> descendantTree(String contentId) {
+        Map<String, List<ConfluenceApiPage>> childrenByParentId = apiInternalClient.getDescendantPages(contentId).stream()
+                .filter(page -> page.getParentId() != null)
+                .sorted(SIBLING_ORDER)
+                .collect(Collectors.groupingBy(ConfluenceApiPage::getParentId));
+        return parentId -> childrenByParentId.getOrDefault(parentId, List.of());
+    }
+
+    private static int compareContentIds(String left, String right) {
+        return left.length() != right.length() ? Integer.compare(left.length(), right.length()) : left.compareTo(right);
+    }
+
+    private ConfluencePage processAndSaveInParallel(ConfluenceApiPage apiPage, DumpSession session) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.invoke(new DumpPageTask(apiPage, outputDir, List.of(), session));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ConfluencePage processAndSave(ConfluenceApiPage apiPage,  Path outputDir, List<String> ancestorTitles, DumpSession session) {
+        var confluencePage = saveNode(apiPage, outputDir, ancestorTitles, session);
+        List<ConfluenceApiPage> childrenPages = session.childrenLister.apply(apiPage.getContentId());
+        List<String> childAncestorTitles = withTitle(ancestorTitles, apiPage.getTitle());
         List<ConfluencePage> confluencePages = new ArrayList<>();
         for (ConfluenceApiPage child: childrenPages){
-            ConfluencePage childConfluencePage = processAndSave(child, outputDir.resolve(apiPage.getContentId()));
+            ConfluencePage childConfluencePage = processAndSave(child, outputDir.resolve(apiPage.getContentId()), childAncestorTitles, session);
             confluencePages.add(childConfluencePage);
         }
         confluencePage.setChildren(confluencePages);
         return confluencePage;
     }
 
-    private  Map<String, String> saveAttachments(List<ConfluenceAttachment> list, Path outputDir) {
+    private static List<String> withTitle(List<String> ancestorTitles, String title) {
+        List<String> res = new ArrayList<>(ancestorTitles);
+        res.add(title);
+        return res;
+    }
+
+    /**
+     * save content of the page and enqueue download of its attachments, children are not processed. Dump listener
+     * is notified once attachments are downloaded.
+     */
+    private ConfluencePage saveNode(ConfluenceApiPage apiPage, Path outputDir, List<String> ancestorTitles, DumpSession session) {
+        var confluencePage = new ConfluencePage();
+        confluencePage.setTitle(apiPage.getTitle());
+        confluencePage.setType(contentFormat.getType());
+        DumpManifest.PageEntry previousEntry = session.previousManifest.getPage(apiPage.getContentId());
+        Path contentPath = outputDir.resolve(apiPage.getContentId() + ".xhtml");
+        if (previousEntry == null || previousEntry.getVersion() != apiPage.getVersion() || !carryOver(previousEntry.getContentFilePath(), contentPath)) {
+            savePageContent(apiPage.getContentId(), contentPath);
+        }
+        confluencePage.setContentFilePath(contentPath.toString());
+        DumpManifest.PageEntry pageEntry = new DumpManifest.PageEntry(apiPage.getVersion(), relativePath(contentPath));
+        List<ConfluenceAttachment> list = apiInternalClient.getAttachments(apiPage.getContentId());
+        List<ConfluenceAttachment> selected = new ArrayList<>();
+        Predicate<ConfluenceAttachment> selector = attachmentSelector.forPage(contentPath);
+        for (ConfluenceAttachment attachment : list) {
+            if (selector.test(attachment)) {
+                selected.add(attachment);
+            } else {
+                confluencePage.putRemoteAttachment(attachment.getTitle(), attachment.getRelativeDownloadLink());
+            }
+        }
+        List<CompletableFuture<Void>> downloads = new ArrayList<>();
+        Map<String, String> attachments = saveAttachments(selected, outputDir, session, previousEntry, pageEntry, downloads);
+        confluencePage.setAttachments(attachments);
+        session.manifest.putPage(apiPage.getContentId(), pageEntry);
+        if (dumpListener != DumpListener.NONE) {
+            // listener gets own copy, children are set to the page later
+            ConfluencePage dumpedPage = copyWithoutChildren(confluencePage);
+            session.downloadStage.whenCompleted(downloads, () -> dumpListener.pageDumped(ancestorTitles, dumpedPage));
+        }
+        return confluencePage;
+    }
+
+    private void savePageContent(String contentId, Path contentPath) {
+        if (contentFormat == DumpContentFormat.STORAGE) {
+            apiInternalClient.savePageWithStorageContent(contentId, contentPath);
+        } else {
+            apiInternalClient.savePageWithViewContent(contentId, contentPath);
+        }
+    }
+
+    private static ConfluencePage copyWithoutChildren(ConfluencePage page) {
+        ConfluencePage copy = new ConfluencePage();
+        copy.setTitle(page.getTitle());
+        copy.setType(page.getType());
+        copy.setContentFilePath(page.getContentFilePath());
+        copy.setAttachments(new HashMap<>(page.getAttachments()));
+        copy.setRemoteAttachments(new HashMap<>(page.getRemoteAttachments()));
+        return copy;
+    }
+
+    /**
+     * Download attachment of dumped page which was not selected by {@link AttachmentSelector}. The attachment is saved
+     * next to the page content file and moved from remote attachments to attachments of the page.
+     *
+     * @return path to saved file
+     */
+    public Path fetchRemoteAttachment(ConfluencePage page, String attachmentName) {
+        String relativeDownloadLink = page.getRemoteAttachments().get(attachmentName);
+        if (relativeDownloadLink == null) {
+            throw new IllegalArgumentException("Page '" + page.getTitle() + "' has no remote attachment " + attachmentName);
+        }
+        Path outputPath = Path.of(page.getContentFilePath()).resolveSibling(attachmentName);
+        apiInternalClient.saveUrlToFile(relativeDownloadLink, outputPath.toFile());
+        page.getRemoteAttachments().remove(attachmentName);
+        page.putAttachment(attachmentName, outputPath.toString());
+        return outputPath;
+    }
+
+    private  Map<String, String> saveAttachments(List<ConfluenceAttachment> list, Path outputDir, DumpSession session,
+                                                 DumpManifest.PageEntry previousEntry, DumpManifest.PageEntry pageEntry,
+                                                 List<CompletableFuture<Void>> downloads) {
         Map<String,String> res = new HashMap<>();
         for (ConfluenceAttachment attachment: list){
-            Path outputPath =  saveAttachment(attachment, outputDir);
-             res.put(attachment.getTitle(), outputPath.toString());
+            DumpManifest.AttachmentEntry previousAttachment = previousEntry != null ? previousEntry.getAttachments().get(attachment.getId()) : null;
+            Path outputPath =  saveAttachment(attachment, outputDir, session.downloadStage, previousAttachment, downloads);
+            res.put(attachment.getTitle(), outputPath.toString());
+            pageEntry.getAttachments().put(attachment.getId(), new DumpManifest.AttachmentEntry(attachment.getTitle(), attachment.getVersion(), relativePath(outputPath)));
          }
         return res;
     }
 
     /**
-     * save attachment and return path to savedFile
+     * enqueue attachment download, unless the same version is saved by previous dump, and return path to file it is
+     * saved to
      * @param attachment
      * @param outputDir
+     * @param downloadStage
+     * @param previousAttachment attachment recorded in previous dump manifest or null
+     * @param downloads futures of enqueued downloads
      * @return path to savedFile
      */
-    private Path saveAttachment(ConfluenceAttachment attachment, Path outputDir) {
+    private Path saveAttachment(ConfluenceAttachment attachment, Path outputDir, AttachmentDownloadStage downloadStage,
+                                DumpManifest.AttachmentEntry previousAttachment, List<CompletableFuture<Void>> downloads) {
         Path outputFilePath = outputDir.resolve(attachment.getTitle());
+        if (previousAttachment != null && previousAttachment.getVersion() == attachment.getVersion()
+                && carryOver(previousAttachment.getFilePath(), outputFilePath)) {
+            return outputFilePath;
+        }
         //todo if file exists - warn
-        apiInternalClient.saveUrlToFile(attachment.getRelativeDownloadLink(), outputFilePath.toFile());
+        downloads.add(downloadStage.enqueue(attachment, outputFilePath));
         return outputFilePath;
     }
 
-    private static String saveContent(ConfluenceApiPage apiPage, Path outputDir) throws IOException {
-        File file = outputDir.resolve(apiPage.getContentId() + ".xhtml").toFile();
-        FileUtils.writeStringToFile(file, apiPage.getContent(), StandardCharsets.UTF_8);
-        return file.toPath().toString();
+    /**
+     * Reuse file saved by previous dump. The file is moved if the page was moved in the tree since previous dump.
+     *
+     * @return false if the file does not exist anymore
+     */
+    private boolean carryOver(String previousRelativePath, Path targetPath) {
+        if (previousRelativePath == null) {
+            return false;
+        }
+        Path previousPath = outputDir.resolve(previousRelativePath);
+        if (!Files.isRegularFile(previousPath)) {
+            return false;
+        }
+        if (previousPath.normalize().equals(targetPath.normalize())) {
+            return true;
+        }
+        try {
+            Files.createDirectories(targetPath.toAbsolutePath().getParent());
+            Files.move(previousPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private String relativePath(Path path) {
+        return outputDir.relativize(path).toString();
     }
 
+    /**
+     * State of a single {@link #dump(String, String)} run shared by all traversal tasks
+     */
+    private static class DumpSession {
+        private final Function<String, List<ConfluenceApiPage>> childrenLister;
+        private final AttachmentDownloadStage downloadStage;
+        private final DumpManifest previousManifest;
+        private final DumpManifest manifest;
+
+        private DumpSession(Function<String, List<ConfluenceApiPage>> childrenLister, AttachmentDownloadStage downloadStage,
+                            DumpManifest previousManifest, DumpManifest manifest) {
+            this.childrenLister = childrenLister;
+            this.downloadStage = downloadStage;
+            this.previousManifest = previousManifest;
+            this.manifest = manifest;
+        }
+    }
 
+    private class DumpPageTask extends RecursiveTask<ConfluencePage> {
+        private final ConfluenceApiPage apiPage;
+        private final Path outputDir;
+        private final List<String> ancestorTitles;
+        private final DumpSession session;
+
+        private DumpPageTask(ConfluenceApiPage apiPage, Path outputDir, List<String> ancestorTitles, DumpSession session) {
+            this.apiPage = apiPage;
+            this.outputDir = outputDir;
+            this.ancestorTitles = ancestorTitles;
+            this.session = session;
+        }
+
+        @Override
+        protected ConfluencePage compute() {
+            List<DumpPageTask> childTasks = new ArrayList<>();
+            List<String> childAncestorTitles = withTitle(ancestorTitles, apiPage.getTitle());
+            for (ConfluenceApiPage child : session.childrenLister.apply(apiPage.getContentId())) {
+                DumpPageTask childTask = new DumpPageTask(child, outputDir.resolve(apiPage.getContentId()), childAncestorTitles, session);
+                childTask.fork();
+                childTasks.add(childTask);
+            }
+            ConfluencePage confluencePage = saveNode(apiPage, outputDir, ancestorTitles, session);
+            List<ConfluencePage> confluencePages = new ArrayList<>();
+            for (DumpPageTask childTask : childTasks) {
+                confluencePages.add(childTask.join());
+            }
+            confluencePage.setChildren(confluencePages);
+            return confluencePage;
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
+
+import java.nio.file.Path;
+
+public final class DumpConfluenceClientBuilder {
+    private ApiInternalClient apiInternalClient;
+    private Path outputDir;
+    private int parallelism = 1;
+    private int attachmentDownloadConcurrency = 1;
+    private boolean incremental;
+    private DumpStrategy dumpStrategy = DumpStrategy.CHILD_PAGES;
+    private boolean deduplicateAttachments;
+    private DumpContentFormat contentFormat = DumpContentFormat.VIEW;
+    private DumpListener dumpListener = DumpListener.NONE;
+    private boolean conditionalAttachmentDownload;
+    private DumpFilter filter = DumpFilter.NONE;
+    private AttachmentSelector attachmentSelector = AttachmentSelector.ALL;
+
+    private DumpConfluenceClientBuilder() {
+    }
+
+    public static DumpConfluenceClientBuilder aDumpConfluenceClient() {
+        return new DumpConfluenceClientBuilder();
+    }
+
+    public DumpConfluenceClientBuilder withInternalApiClient(ApiInternalClient apiInternalClient) {
+        this.apiInternalClient = apiInternalClient;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withOutputDir(Path outputDir) {
+        this.outputDir = outputDir;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withParallelism(int parallelism) {
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withAttachmentDownloadConcurrency(int attachmentDownloadConcurrency) {
+        this.attachmentDownloadConcurrency = attachmentDownloadConcurrency;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withDumpStrategy(DumpStrategy dumpStrategy) {
+        this.dumpStrategy = dumpStrategy;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withDeduplicateAttachments(boolean deduplicateAttachments) {
+        this.deduplicateAttachments = deduplicateAttachments;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withContentFormat(DumpContentFormat contentFormat) {
+        this.contentFormat = contentFormat;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withDumpListener(DumpListener dumpListener) {
+        this.dumpListener = dumpListener;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withConditionalAttachmentDownload(boolean conditionalAttachmentDownload) {
+        this.conditionalAttachmentDownload = conditionalAttachmentDownload;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withFilter(DumpFilter filter) {
+        this.filter = filter;
+        return this;
+    }
+
+    public DumpConfluenceClientBuilder withAttachmentSelector(AttachmentSelector attachmentSelector) {
+        this.attachmentSelector = attachmentSelector;
+        return this;
+    }
+
+    public DumpConfluenceClient build() {
+        return new DumpConfluenceClient(apiInternalClient, outputDir, parallelism, attachmentDownloadConcurrency, incremental, dumpStrategy,
+                deduplicateAttachments, contentFormat, dumpListener, conditionalAttachmentDownload, filter, attachmentSelector);
+    }
+}
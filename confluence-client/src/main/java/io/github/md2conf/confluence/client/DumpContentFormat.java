@@ -0,0 +1,29 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.model.ConfluenceContentModel;
+
+/**
+ * Representation of page bodies requested by dump.
+ */
+public enum DumpContentFormat {
+
+    /**
+     * HTML rendered by Confluence, including rendered macros
+     */
+    VIEW(ConfluenceContentModel.Type.VIEW),
+    /**
+     * Storage XHTML as saved by Confluence. Cheaper for the server, since nothing is rendered, macros are kept as
+     * structured elements.
+     */
+    STORAGE(ConfluenceContentModel.Type.STORAGE);
+
+    private final ConfluenceContentModel.Type type;
+
+    DumpContentFormat(ConfluenceContentModel.Type type) {
+        this.type = type;
+    }
+
+    public ConfluenceContentModel.Type getType() {
+        return type;
+    }
+}
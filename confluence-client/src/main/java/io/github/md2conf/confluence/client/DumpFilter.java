@@ -0,0 +1,98 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Selection of pages to dump under the top-level page.
+ * <p>
+ * Pages deeper than max depth are not listed at all. Other conditions select single pages: a page not selected is not
+ * dumped, but its selected descendants are, as children of the nearest dumped ancestor. Top-level page is always
+ * dumped.
+ * <p>
+ * Label and last modification conditions are evaluated by Confluence as part of CQL search, see {@link #cqlCondition()},
+ * title pattern is matched locally.
+ */
+public class DumpFilter {
+
+    public static final DumpFilter NONE = new DumpFilter(-1, Set.of(), Set.of(), null, null);
+
+    private final int maxDepth;
+    private final Set<String> includeLabels;
+    private final Set<String> excludeLabels;
+    private final Pattern titlePattern;
+    private final LocalDate modifiedSince;
+
+    public DumpFilter(int maxDepth, Set<String> includeLabels, Set<String> excludeLabels, Pattern titlePattern, LocalDate modifiedSince) {
+        this.maxDepth = maxDepth;
+        this.includeLabels = includeLabels != null ? Set.copyOf(includeLabels) : Set.of();
+        this.excludeLabels = excludeLabels != null ? Set.copyOf(excludeLabels) : Set.of();
+        this.titlePattern = titlePattern;
+        this.modifiedSince = modifiedSince;
+    }
+
+    /**
+     * @return max depth of dumped pages, top-level page has depth 0. Negative value means no limit
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @return false if pages deeper than the top-level page are excluded
+     */
+    public boolean isDepthAllowed(int depth) {
+        return maxDepth < 0 || depth <= maxDepth;
+    }
+
+    /**
+     * @return true if pages are selected by conditions evaluated by Confluence
+     */
+    public boolean hasCqlCondition() {
+        return !includeLabels.isEmpty() || !excludeLabels.isEmpty() || modifiedSince != null;
+    }
+
+    /**
+     * @return CQL condition to join with "and", or null if pages are not selected by labels and modification date
+     */
+    public String cqlCondition() {
+        List<String> conditions = new ArrayList<>();
+        if (!includeLabels.isEmpty()) {
+            conditions.add("label in (" + quoted(includeLabels) + ")");
+        }
+        if (!excludeLabels.isEmpty()) {
+            conditions.add("label not in (" + quoted(excludeLabels) + ")");
+        }
+        if (modifiedSince != null) {
+            conditions.add("lastmodified >= \"" + modifiedSince + "\"");
+        }
+        return conditions.isEmpty() ? null : String.join(" and ", conditions);
+    }
+
+    /**
+     * @return true if the page is selected by conditions evaluated locally
+     */
+    public boolean matchesTitle(ConfluenceApiPage page) {
+        return titlePattern == null || titlePattern.matcher(page.getTitle()).matches();
+    }
+
+    /**
+     * @return true if any page can be excluded by the filter
+     */
+    public boolean isSelective() {
+        return maxDepth >= 0 || titlePattern != null || hasCqlCondition();
+    }
+
+    private static String quoted(Set<String> values) {
+        return values.stream()
+                .sorted()
+                .map(value -> "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+                .collect(Collectors.joining(","));
+    }
+}
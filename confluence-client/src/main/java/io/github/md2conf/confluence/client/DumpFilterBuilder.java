@@ -0,0 +1,49 @@
+package io.github.md2conf.confluence.client;
+
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class DumpFilterBuilder {
+    private int maxDepth = -1;
+    private Set<String> includeLabels = Set.of();
+    private Set<String> excludeLabels = Set.of();
+    private Pattern titlePattern;
+    private LocalDate modifiedSince;
+
+    private DumpFilterBuilder() {
+    }
+
+    public static DumpFilterBuilder aDumpFilter() {
+        return new DumpFilterBuilder();
+    }
+
+    public DumpFilterBuilder withMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public DumpFilterBuilder withIncludeLabels(Set<String> includeLabels) {
+        this.includeLabels = includeLabels;
+        return this;
+    }
+
+    public DumpFilterBuilder withExcludeLabels(Set<String> excludeLabels) {
+        this.excludeLabels = excludeLabels;
+        return this;
+    }
+
+    public DumpFilterBuilder withTitlePattern(Pattern titlePattern) {
+        this.titlePattern = titlePattern;
+        return this;
+    }
+
+    public DumpFilterBuilder withModifiedSince(LocalDate modifiedSince) {
+        this.modifiedSince = modifiedSince;
+        return this;
+    }
+
+    public DumpFilter build() {
+        return new DumpFilter(maxDepth, includeLabels, excludeLabels, titlePattern, modifiedSince);
+    }
+}
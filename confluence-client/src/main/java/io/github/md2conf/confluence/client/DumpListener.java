@@ -0,0 +1,24 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.model.ConfluencePage;
+
+import java.util.List;
+
+/**
+ * Receives pages from {@link DumpConfluenceClient} as soon as content and all attachments of a page are saved, so
+ * dumped pages can be processed while the rest of the tree is being dumped.
+ */
+@FunctionalInterface
+public interface DumpListener {
+
+    DumpListener NONE = (ancestorTitles, page) -> {
+    };
+
+    /**
+     * May be called concurrently from traversal and download threads, pages are passed in no particular order.
+     *
+     * @param ancestorTitles titles of ancestors of the page, from the top-level page of the dump
+     * @param page           dumped page, without children
+     */
+    void pageDumped(List<String> ancestorTitles, ConfluencePage page);
+}
@@ -0,0 +1,154 @@
+package io.github.md2conf.confluence.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versions of pages and attachments saved by a dump, per contentId.
+ * <p>
+ * Manifest is saved to the dump output directory. On re-dump in incremental mode, pages and attachments which version
+ * is the same as recorded in the manifest are carried over from the previous output instead of being downloaded again.
+ * File paths are stored relative to the output directory.
+ */
+public class DumpManifest {
+
+    public static final String DUMP_MANIFEST_FILENAME = "dump-manifest.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private DumpContentFormat contentFormat = DumpContentFormat.VIEW;
+    private Map<String, PageEntry> pages = new ConcurrentHashMap<>();
+
+    public DumpContentFormat getContentFormat() {
+        return contentFormat;
+    }
+
+    public void setContentFormat(DumpContentFormat contentFormat) {
+        this.contentFormat = contentFormat;
+    }
+
+    public Map<String, PageEntry> getPages() {
+        return pages;
+    }
+
+    public void setPages(Map<String, PageEntry> pages) {
+        this.pages = new ConcurrentHashMap<>(pages);
+    }
+
+    public PageEntry getPage(String contentId) {
+        return pages.get(contentId);
+    }
+
+    public void putPage(String contentId, PageEntry pageEntry) {
+        pages.put(contentId, pageEntry);
+    }
+
+    /**
+     * Read manifest from the output directory of previous dump.
+     *
+     * @return empty manifest if the directory has no manifest
+     */
+    public static DumpManifest readManifest(Path outputDir) {
+        Path manifestPath = outputDir.resolve(DUMP_MANIFEST_FILENAME);
+        if (!Files.isRegularFile(manifestPath)) {
+            return new DumpManifest();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(manifestPath.toFile(), DumpManifest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read dump manifest " + manifestPath, e);
+        }
+    }
+
+    public void writeManifest(Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        OBJECT_MAPPER.writeValue(outputDir.resolve(DUMP_MANIFEST_FILENAME).toFile(), this);
+    }
+
+    public static class PageEntry {
+        private int version;
+        private String contentFilePath;
+        private Map<String, AttachmentEntry> attachments = new HashMap<>();
+
+        public PageEntry() {
+        }
+
+        public PageEntry(int version, String contentFilePath) {
+            this.version = version;
+            this.contentFilePath = contentFilePath;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public String getContentFilePath() {
+            return contentFilePath;
+        }
+
+        public void setContentFilePath(String contentFilePath) {
+            this.contentFilePath = contentFilePath;
+        }
+
+        public Map<String, AttachmentEntry> getAttachments() {
+            return attachments;
+        }
+
+        public void setAttachments(Map<String, AttachmentEntry> attachments) {
+            this.attachments = attachments;
+        }
+    }
+
+    public static class AttachmentEntry {
+        private String title;
+        private int version;
+        private String filePath;
+
+        public AttachmentEntry() {
+        }
+
+        public AttachmentEntry(String title, int version, String filePath) {
+            this.title = title;
+            this.version = version;
+            this.filePath = filePath;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public void setVersion(int version) {
+            this.version = version;
+        }
+
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public void setFilePath(String filePath) {
+            this.filePath = filePath;
+        }
+    }
+}
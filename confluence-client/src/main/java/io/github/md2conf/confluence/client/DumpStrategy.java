@@ -0,0 +1,18 @@
+package io.github.md2conf.confluence.client;
+
+/**
+ * How dump discovers pages of the tree.
+ */
+public enum DumpStrategy {
+
+    /**
+     * List children of every page, one or more requests per page
+     */
+    CHILD_PAGES,
+    /**
+     * List all descendants of the top-level page with paginated CQL search and rebuild the tree from ancestors.
+     * Siblings are ordered like Confluence orders children: by position of manually ordered pages, then by title.
+     */
+    CQL_DESCENDANTS
+
+}
@@ -20,6 +20,8 @@ import io.github.md2conf.confluence.client.http.ApiInternalClient;
 import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
 import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
 import io.github.md2conf.confluence.client.http.NotFoundException;
+import io.github.md2conf.confluence.client.http.TransferProgressListener;
+import io.github.md2conf.model.AttachmentMetadata;
 import io.github.md2conf.model.ConfluenceContentModel;
 import io.github.md2conf.model.ConfluencePage;
 
@@ -27,12 +29,15 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
 
 import static io.github.md2conf.confluence.client.OrphanRemovalStrategy.REMOVE_ORPHANS;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.METADATA;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.PAGE_WRITE;
 import static io.github.md2conf.confluence.client.utils.AssertUtils.assertMandatoryParameter;
 import static io.github.md2conf.confluence.client.utils.InputStreamUtils.fileContent;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -58,16 +63,24 @@ public class PublishConfluenceClient {
     private final PublishConfluenceClientListener publishConfluenceClientListener;
     private final String versionMessage;
     private final boolean notifyWatchers;
+    private final PublishScheduler publishScheduler;
 
     public PublishConfluenceClient( PublishingStrategy publishingStrategy, OrphanRemovalStrategy orphanRemovalStrategy,
                                    ApiInternalClient apiInternalClient, PublishConfluenceClientListener publishConfluenceClientListener,
                                    String versionMessage, boolean notifyWatchers) {
+        this(publishingStrategy, orphanRemovalStrategy, apiInternalClient, publishConfluenceClientListener, versionMessage, notifyWatchers, null);
+    }
+
+    public PublishConfluenceClient( PublishingStrategy publishingStrategy, OrphanRemovalStrategy orphanRemovalStrategy,
+                                   ApiInternalClient apiInternalClient, PublishConfluenceClientListener publishConfluenceClientListener,
+                                   String versionMessage, boolean notifyWatchers, PublishScheduler publishScheduler) {
         this.publishingStrategy = publishingStrategy;
         this.orphanRemovalStrategy = orphanRemovalStrategy;
         this.apiInternalClient = apiInternalClient;
         this.publishConfluenceClientListener = publishConfluenceClientListener != null ? publishConfluenceClientListener : new DefaultPublishConfluenceClientListener();
         this.versionMessage = versionMessage;
         this.notifyWatchers = notifyWatchers;
+        this.publishScheduler = publishScheduler != null ? publishScheduler : PublishScheduler.inline();
     }
 
     public void publish(ConfluenceContentModel model, String spaceKey, String parentTitle) {
@@ -85,6 +98,7 @@ public class PublishConfluenceClient {
             default:
                 throw new IllegalArgumentException("Invalid publishing strategy '" + this.publishingStrategy + "'");
         }
+        this.publishScheduler.awaitCompletion();
         this.publishConfluenceClientListener.publishCompleted();
     }
 
@@ -124,14 +138,10 @@ public class PublishConfluenceClient {
 
     private void startPublishingReplacingAncestorId(ConfluencePage rootPage, String spaceKey, String ancestorId) {
         if (rootPage != null) {
-            updatePage(ancestorId, null, rootPage);
-
-            addOrUpdateLabels(ancestorId, rootPage.getLabels());
-
-            deleteConfluenceAttachmentsNotPresentUnderPage(ancestorId, rootPage.getAttachments());
-            addAttachments(ancestorId, rootPage.getAttachments());
-
-            startPublishingUnderAncestorId(rootPage.getChildren(), spaceKey, ancestorId);
+            this.publishScheduler.submit(PAGE_WRITE, () -> {
+                updatePage(ancestorId, null, rootPage);
+                return ancestorId;
+            }, contentId -> publishPageDependents(spaceKey, contentId, rootPage));
         }
     }
 
@@ -139,16 +149,26 @@ public class PublishConfluenceClient {
         if (this.orphanRemovalStrategy == REMOVE_ORPHANS) {
             deleteConfluencePagesNotPresentUnderAncestor(pages, ancestorId);
         }
-        pages.forEach(page -> {
-            String contentId = addOrUpdatePageUnderAncestor(spaceKey, ancestorId, page);
-
-            addOrUpdateLabels(contentId, page.getLabels());
-
-            deleteConfluenceAttachmentsNotPresentUnderPage(contentId, page.getAttachments());
-            addAttachments(contentId, page.getAttachments());
+        pages.forEach(page -> this.publishScheduler.submit(PAGE_WRITE,
+                () -> addOrUpdatePageUnderAncestor(spaceKey, ancestorId, page),
+                contentId -> publishPageDependents(spaceKey, contentId, page)));
+    }
 
-            startPublishingUnderAncestorId(page.getChildren(), spaceKey, contentId);
+    /**
+     * Schedule work that depends only on contentId of already written page: labels, attachments and children pages.
+     */
+    private void publishPageDependents(String spaceKey, String contentId, ConfluencePage page) {
+        this.publishScheduler.submit(METADATA, () -> addOrUpdateLabels(contentId, page.getLabels()));
+        this.publishScheduler.submit(METADATA, () -> deleteConfluenceAttachmentsNotPresentUnderPage(contentId, page.getAttachments()));
+        page.getAttachments().forEach((attachmentFileName, attachmentPath) -> {
+            // metadata collected by indexer spares reading attachment files
+            AttachmentMetadata metadata = page.getAttachmentMetadata().get(attachmentFileName);
+            long attachmentSize = metadata != null ? metadata.getSize() : attachmentSize(attachmentPath);
+            String attachmentHash = metadata != null ? metadata.getSha256() : null;
+            this.publishScheduler.submit(this.publishScheduler.attachmentLane(attachmentSize),
+                    () -> addOrUpdateAttachment(contentId, attachmentPath, attachmentFileName, attachmentHash));
         });
+        this.publishScheduler.submit(PAGE_WRITE, () -> startPublishingUnderAncestorId(page.getChildren(), spaceKey, contentId));
     }
 
     private void deleteConfluencePagesNotPresentUnderAncestor(List<ConfluencePage> pagesToKeep, String ancestorId) {
@@ -215,13 +235,12 @@ public class PublishConfluenceClient {
         }
     }
 
-    private void addAttachments(String contentId, Map<String, String> attachments) {
-        attachments.forEach((attachmentFileName, attachmentPath) -> addOrUpdateAttachment(contentId, attachmentPath, attachmentFileName));
-    }
-
-    private void addOrUpdateAttachment(String contentId, String attachmentPath, String attachmentFileName) {
+    /**
+     * @param attachmentHash hash of the attachment file if already known, or null to compute it
+     */
+    private void addOrUpdateAttachment(String contentId, String attachmentPath, String attachmentFileName, String attachmentHash) {
         Path absoluteAttachmentPath = absoluteAttachmentPath(attachmentPath);
-        String newAttachmentHash = hash(fileInputStream(absoluteAttachmentPath));
+        String newAttachmentHash = attachmentHash != null ? attachmentHash : hash(fileInputStream(absoluteAttachmentPath));
 
         try {
             ConfluenceAttachment existingAttachment = this.apiInternalClient.getAttachmentByFileName(contentId, attachmentFileName);
@@ -232,7 +251,7 @@ public class PublishConfluenceClient {
                 if (existingAttachmentHash != null) {
                     this.apiInternalClient.deletePropertyByKey(contentId, getAttachmentHashKey(attachmentFileName));
                 }
-                this.apiInternalClient.updateAttachmentContent(contentId, attachmentId, fileInputStream(absoluteAttachmentPath), this.notifyWatchers);
+                this.apiInternalClient.updateAttachmentContent(contentId, attachmentId, absoluteAttachmentPath, this.notifyWatchers, transferProgressListener(attachmentFileName, contentId));
                 this.apiInternalClient.setPropertyByKey(contentId, getAttachmentHashKey(attachmentFileName), newAttachmentHash);
                 this.publishConfluenceClientListener.attachmentUpdated(attachmentFileName, contentId);
             }
@@ -242,12 +261,17 @@ public class PublishConfluenceClient {
 
         } catch (NotFoundException e) {
             this.apiInternalClient.deletePropertyByKey(contentId, getAttachmentHashKey(attachmentFileName));
-            this.apiInternalClient.addAttachment(contentId, attachmentFileName, fileInputStream(absoluteAttachmentPath));
+            this.apiInternalClient.addAttachment(contentId, attachmentFileName, absoluteAttachmentPath, transferProgressListener(attachmentFileName, contentId));
             this.apiInternalClient.setPropertyByKey(contentId, getAttachmentHashKey(attachmentFileName), newAttachmentHash);
             this.publishConfluenceClientListener.attachmentAdded(attachmentFileName, contentId);
         }
     }
 
+    private TransferProgressListener transferProgressListener(String attachmentFileName, String contentId) {
+        return this.publishScheduler.throttle((bytesTransferred, totalBytes) ->
+                this.publishConfluenceClientListener.attachmentTransferProgress(attachmentFileName, contentId, bytesTransferred, totalBytes));
+    }
+
     private static String getAttachmentHashKey(String attachmentFileName) {
         return hash(attachmentFileName) + ATTACHMENT_HASH_SUFFIX;
     }
@@ -256,6 +280,14 @@ public class PublishConfluenceClient {
         return Paths.get(attachmentPath);
     }
 
+    private long attachmentSize(String attachmentPath) {
+        try {
+            return Files.size(absoluteAttachmentPath(attachmentPath));
+        } catch (IOException e) {
+            return 0; // missing file is reported by the upload itself
+        }
+    }
+
     private void addOrUpdateLabels(String contentId, List<String> labels) {
         List<String> existingLabels = this.apiInternalClient.getLabels(contentId);
 
@@ -9,6 +9,7 @@ public final class PublishConfluenceClientBuilder {
     private PublishConfluenceClientListener publishConfluenceClientListener;
     private String versionMessage;
     private boolean notifyWatchers;
+    private PublishScheduler publishScheduler;
 
     private PublishConfluenceClientBuilder() {
     }
@@ -48,7 +49,12 @@ public final class PublishConfluenceClientBuilder {
         return this;
     }
 
+    public PublishConfluenceClientBuilder withPublishScheduler(PublishScheduler publishScheduler) {
+        this.publishScheduler = publishScheduler;
+        return this;
+    }
+
     public PublishConfluenceClient build() {
-        return new PublishConfluenceClient(publishingStrategy, orphanRemovalStrategy, apiInternalClient, publishConfluenceClientListener, versionMessage, notifyWatchers);
+        return new PublishConfluenceClient(publishingStrategy, orphanRemovalStrategy, apiInternalClient, publishConfluenceClientListener, versionMessage, notifyWatchers, publishScheduler);
     }
 }
@@ -23,6 +23,12 @@ public interface PublishConfluenceClientListener {
 
     void attachmentDeleted(String attachmentFileName, String contentId);
 
+    /**
+     * Called from the uploading thread while attachment content is sent.
+     */
+    default void attachmentTransferProgress(String attachmentFileName, String contentId, long bytesTransferred, long totalBytes) {
+    }
+
     void publishCompleted();
 
     void pageSkippedUpdate(ConfluenceApiPage existingPage);
@@ -0,0 +1,211 @@
+package io.github.md2conf.confluence.client;
+
+import com.google.common.util.concurrent.RateLimiter;
+import io.github.md2conf.confluence.client.http.TransferProgressListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Schedules publish work items to lanes by their type and size.
+ * <p>
+ * Every lane has own concurrency, so label and property calls are not queued behind bulk attachment transfers and a big
+ * upload does not delay page writes. Optional bandwidth cap (bytes per second) is shared by both attachment lanes and
+ * is acquired chunk by chunk while an upload is in progress, see {@link #throttle(TransferProgressListener)}.
+ * Work items submitted with a continuation let dependent work (labels, attachments, children pages) start as soon as
+ * the contentId of the page is known.
+ * <p>
+ * Work items of a lane without configured concurrency are executed immediately in the calling thread. Scheduler created
+ * by {@link #inline()} has no configured lanes, which gives serial publishing in tree order.
+ * <p>
+ * Threads of the lanes are stopped by {@link #close()}.
+ */
+public class PublishScheduler implements AutoCloseable {
+
+    public enum Lane {
+        PAGE_WRITE,
+        METADATA,
+        SMALL_ATTACHMENT,
+        LARGE_ATTACHMENT
+    }
+
+    private final Map<Lane, ExecutorService> executors;
+    private final RateLimiter attachmentBandwidthLimiter;
+    private final long largeAttachmentThreshold;
+    private final Queue<CompletableFuture<?>> pending = new ConcurrentLinkedQueue<>();
+
+    private PublishScheduler(Map<Lane, ExecutorService> executors, RateLimiter attachmentBandwidthLimiter, long largeAttachmentThreshold) {
+        this.executors = executors;
+        this.attachmentBandwidthLimiter = attachmentBandwidthLimiter;
+        this.largeAttachmentThreshold = largeAttachmentThreshold;
+    }
+
+    public static PublishScheduler inline() {
+        return new PublishScheduler(new EnumMap<>(Lane.class), null, Long.MAX_VALUE);
+    }
+
+    public Lane attachmentLane(long attachmentSize) {
+        return attachmentSize >= largeAttachmentThreshold ? Lane.LARGE_ATTACHMENT : Lane.SMALL_ATTACHMENT;
+    }
+
+    public void submit(Lane lane, Runnable task) {
+        submit(lane, () -> {
+            task.run();
+            return null;
+        }, ignored -> {
+        });
+    }
+
+    /**
+     * Submit work item to the lane. The continuation is invoked with result of the task only if the task succeeded.
+     */
+    public <T> void submit(Lane lane, Supplier<T> task, Consumer<T> continuation) {
+        ExecutorService executor = executors.get(lane);
+        if (executor == null) {
+            continuation.accept(task.get());
+            return;
+        }
+        // track the dependent future: it completes only after continuation has submitted all follow-up work
+        pending.add(CompletableFuture.supplyAsync(task, executor).thenAccept(continuation));
+    }
+
+    /**
+     * Wrap progress listener of an attachment upload, so the upload thread acquires bandwidth for every transferred
+     * chunk and all concurrent uploads together do not exceed the attachment bandwidth cap.
+     *
+     * @return listener acquiring bandwidth, or the same listener if bandwidth is not capped
+     */
+    public TransferProgressListener throttle(TransferProgressListener progressListener) {
+        if (attachmentBandwidthLimiter == null) {
+            return progressListener;
+        }
+        return new BandwidthAcquiringListener(attachmentBandwidthLimiter, progressListener);
+    }
+
+    /**
+     * Wait until all submitted work items, including ones submitted by continuations, are completed.
+     * Rethrows failure of the first failed work item.
+     */
+    public void awaitCompletion() {
+        RuntimeException failure = null;
+        CompletableFuture<?> future;
+        while ((future = pending.poll()) != null) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public void close() {
+        executors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    public static final class PublishSchedulerBuilder {
+        private final Map<Lane, Integer> concurrency = new EnumMap<>(Lane.class);
+        private Double attachmentBytesPerSecond;
+        private long largeAttachmentThreshold = 10 * 1024 * 1024;
+
+        private PublishSchedulerBuilder() {
+        }
+
+        public static PublishSchedulerBuilder aPublishScheduler() {
+            return new PublishSchedulerBuilder();
+        }
+
+        public PublishSchedulerBuilder withConcurrency(Lane lane, int threads) {
+            this.concurrency.put(lane, threads);
+            return this;
+        }
+
+        /**
+         * @param bytesPerSecond bandwidth cap shared by all attachment uploads, or null for no cap
+         */
+        public PublishSchedulerBuilder withAttachmentBandwidth(Double bytesPerSecond) {
+            this.attachmentBytesPerSecond = bytesPerSecond;
+            return this;
+        }
+
+        public PublishSchedulerBuilder withLargeAttachmentThreshold(long largeAttachmentThreshold) {
+            this.largeAttachmentThreshold = largeAttachmentThreshold;
+            return this;
+        }
+
+        public PublishScheduler build() {
+            Map<Lane, ExecutorService> executors = new EnumMap<>(Lane.class);
+            concurrency.forEach((lane, threads) -> executors.put(lane, laneExecutor(lane, threads)));
+            RateLimiter attachmentBandwidthLimiter = attachmentBytesPerSecond != null ? RateLimiter.create(attachmentBytesPerSecond) : null;
+            return new PublishScheduler(executors, attachmentBandwidthLimiter, largeAttachmentThreshold);
+        }
+
+        private static ExecutorService laneExecutor(Lane lane, int threads) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new LaneThreadFactory(lane));
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    /**
+     * Acquires bandwidth for bytes transferred since the previous progress report, i.e. for every chunk of the upload.
+     */
+    private static class BandwidthAcquiringListener implements TransferProgressListener {
+        private final RateLimiter rateLimiter;
+        private final TransferProgressListener delegate;
+        private long acquiredBytes;
+
+        private BandwidthAcquiringListener(RateLimiter rateLimiter, TransferProgressListener delegate) {
+            this.rateLimiter = rateLimiter;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void bytesTransferred(long bytesTransferred, long totalBytes) {
+            if (bytesTransferred < acquiredBytes) {
+                // the request is sent again from the beginning
+                acquiredBytes = 0;
+            }
+            long chunk = bytesTransferred - acquiredBytes;
+            if (chunk > 0) {
+                rateLimiter.acquire((int) Math.min(chunk, Integer.MAX_VALUE));
+                acquiredBytes = bytesTransferred;
+            }
+            delegate.bytesTransferred(bytesTransferred, totalBytes);
+        }
+    }
+
+    private static class LaneThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private LaneThreadFactory(Lane lane) {
+            this.prefix = "md2conf-publish-" + lane.name().toLowerCase() + "-";
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Children lister of {@link DumpStrategy#CHILD_PAGES} traversal which applies {@link DumpFilter}.
+ * <p>
+ * Children not selected by the filter are replaced with their selected descendants. If pages are selected by CQL
+ * search, only subtrees containing selected pages are listed. May be called concurrently.
+ */
+class SelectedChildrenLister implements Function<String, List<ConfluenceApiPage>> {
+
+    private final Function<String, List<ConfluenceApiPage>> childrenLister;
+    private final DumpFilter filter;
+    private final Set<String> selectedIds;
+    private final Set<String> relevantIds;
+    private final Map<String, Integer> depthById = new ConcurrentHashMap<>();
+
+    /**
+     * @param selectedIds pages selected by CQL search, null if all pages are selected
+     * @param relevantIds selected pages and their ancestors, null if all pages are selected
+     */
+    SelectedChildrenLister(Function<String, List<ConfluenceApiPage>> childrenLister, String rootId, DumpFilter filter,
+                           Set<String> selectedIds, Set<String> relevantIds) {
+        this.childrenLister = childrenLister;
+        this.filter = filter;
+        this.selectedIds = selectedIds;
+        this.relevantIds = relevantIds;
+        depthById.put(rootId, 0);
+    }
+
+    @Override
+    public List<ConfluenceApiPage> apply(String parentId) {
+        return selectedChildren(parentId, depthById.getOrDefault(parentId, 0) + 1);
+    }
+
+    private List<ConfluenceApiPage> selectedChildren(String parentId, int depth) {
+        if (!filter.isDepthAllowed(depth)) {
+            return List.of();
+        }
+        List<ConfluenceApiPage> res = new ArrayList<>();
+        for (ConfluenceApiPage child : childrenLister.apply(parentId)) {
+            if ((selectedIds == null || selectedIds.contains(child.getContentId())) && filter.matchesTitle(child)) {
+                depthById.put(child.getContentId(), depth);
+                res.add(child);
+            } else if (relevantIds == null || relevantIds.contains(child.getContentId())) {
+                res.addAll(selectedChildren(child.getContentId(), depth + 1));
+            }
+        }
+        return res;
+    }
+}
@@ -19,7 +19,7 @@ package io.github.md2conf.confluence.client.http;
 import io.github.md2conf.model.ConfluenceContentModel;
 
 import java.io.File;
-import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 /**
@@ -37,19 +37,59 @@ public interface ApiInternalClient {
 
     void saveUrlToFile(String downloadUrl, File outputFile);
 
-    void addAttachment(String contentId, String attachmentFileName, InputStream attachmentContent);
+    /**
+     * Download conditionally, with validators of the previous download of the URL to the output file.
+     *
+     * @return false if the server responded with 304 Not Modified and the output file is kept as is
+     */
+    boolean saveUrlToFile(String downloadUrl, File outputFile, HttpValidatorCache validatorCache);
 
-    void updateAttachmentContent(String contentId, String attachmentId, InputStream attachmentContent, boolean notifyWatchers);
+    void addAttachment(String contentId, String attachmentFileName, Path attachmentPath, TransferProgressListener progressListener);
+
+    void updateAttachmentContent(String contentId, String attachmentId, Path attachmentPath, boolean notifyWatchers, TransferProgressListener progressListener);
 
     void deleteAttachment(String attachmentId);
 
     ConfluenceAttachment getAttachmentByFileName(String contentId, String attachmentFileName) throws NotFoundException, MultipleResultsException;
 
+    ConfluenceApiPage getPage(String contentId);
+
     ConfluenceApiPage getPageWithViewContent(String contentId);
+
+    /**
+     * Stream view content of the page to the output file without holding the response in memory.
+     *
+     * @return page without content
+     */
+    ConfluenceApiPage savePageWithViewContent(String contentId, Path outputFile);
+
+    /**
+     * Stream storage content of the page to the output file without holding the response in memory.
+     *
+     * @return page without content
+     */
+    ConfluenceApiPage savePageWithStorageContent(String contentId, Path outputFile);
+
     List<ConfluenceApiPage>  getChildPagesWithViewContent(String contentId);
 
     List<ConfluenceApiPage> getChildPages(String contentId);
 
+    /**
+     * List all descendant pages of the page with paginated content search.
+     *
+     * @return pages without content, with parent id, in no particular order
+     */
+    List<ConfluenceApiPage> getDescendantPages(String contentId);
+
+    /**
+     * List descendant pages of the page which match the condition. The condition is joined to the search query with
+     * "and", so pages are selected by Confluence.
+     *
+     * @param cqlCondition CQL condition or null to list all descendants
+     * @return pages without content, with ancestor ids, in no particular order
+     */
+    List<ConfluenceApiPage> getDescendantPages(String contentId, String cqlCondition);
+
     List<ConfluenceAttachment> getAttachments(String contentId);
 
     void setPropertyByKey(String contentId, String key, String value);
@@ -16,6 +16,8 @@
 
 package io.github.md2conf.confluence.client.http;
 
+import java.util.List;
+
 /**
  * @author Alain Sahli
  */
@@ -25,16 +27,51 @@ public class ConfluenceApiPage {
     private final String title;
     private final String content;
     private final int version;
+    private final String parentId;
+    private final List<String> ancestorIds;
+    private final Integer position;
 
     public ConfluenceApiPage(String contentId, String title, int version) {
         this(contentId, title, null, version);
     }
 
+    public ConfluenceApiPage(String contentId, String title, int version, String parentId) {
+        this(contentId, title, null, version, parentId);
+    }
+
     public ConfluenceApiPage(String contentId, String title, String content, int version) {
+        this(contentId, title, content, version, null);
+    }
+
+    public ConfluenceApiPage(String contentId, String title, String content, int version, String parentId) {
         this.contentId = contentId;
         this.title = title;
         this.content = content;
         this.version = version;
+        this.parentId = parentId;
+        this.ancestorIds = parentId != null ? List.of(parentId) : List.of();
+        this.position = null;
+    }
+
+    /**
+     * @param ancestorIds ids of all ancestors, from the space root to the direct parent
+     */
+    public ConfluenceApiPage(String contentId, String title, int version, List<String> ancestorIds) {
+        this(contentId, title, version, ancestorIds, null);
+    }
+
+    /**
+     * @param ancestorIds ids of all ancestors, from the space root to the direct parent
+     * @param position    position among siblings or null if siblings were not ordered manually
+     */
+    public ConfluenceApiPage(String contentId, String title, int version, List<String> ancestorIds, Integer position) {
+        this.contentId = contentId;
+        this.title = title;
+        this.content = null;
+        this.version = version;
+        this.ancestorIds = List.copyOf(ancestorIds);
+        this.parentId = ancestorIds.isEmpty() ? null : ancestorIds.get(ancestorIds.size() - 1);
+        this.position = position;
     }
 
     public String getContentId() {
@@ -53,6 +90,28 @@ public class ConfluenceApiPage {
         return this.version;
     }
 
+    /**
+     * @return id of the direct parent page if requested with ancestors, otherwise null
+     */
+    public String getParentId() {
+        return this.parentId;
+    }
+
+    /**
+     * @return ids of ancestors from the space root to the direct parent if requested with ancestors, otherwise only
+     * parent id if known
+     */
+    public List<String> getAncestorIds() {
+        return this.ancestorIds;
+    }
+
+    /**
+     * @return position among siblings if the page was ordered manually and requested with ancestors, otherwise null
+     */
+    public Integer getPosition() {
+        return this.position;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -64,6 +123,7 @@ public class ConfluenceApiPage {
         if (!this.contentId.equals(that.contentId)) return false;
         //noinspection SimplifiableIfStatement
         if (!this.title.equals(that.title)) return false;
+        if (this.parentId != null ? !this.parentId.equals(that.parentId) : that.parentId != null) return false;
         return this.content != null ? this.content.equals(that.content) : that.content == null;
 
     }
@@ -74,6 +134,7 @@ public class ConfluenceApiPage {
         result = 31 * result + this.title.hashCode();
         result = 31 * result + (this.content != null ? this.content.hashCode() : 0);
         result = 31 * result + this.version;
+        result = 31 * result + (this.parentId != null ? this.parentId.hashCode() : 0);
         return result;
     }
 
@@ -84,6 +145,7 @@ public class ConfluenceApiPage {
                 ", title='" + this.title + '\'' +
                 ", content='" + this.content + '\'' +
                 ", version=" + this.version +
+                ", parentId='" + this.parentId + '\'' +
                 '}';
     }
 
@@ -25,12 +25,20 @@ public class ConfluenceAttachment {
     private final String title;
     private final String relativeDownloadLink;
     private final int version;
+    private final long fileSize;
+    private final String mediaType;
 
     public ConfluenceAttachment(String id, String title, String relativeDownloadLink, int version) {
+        this(id, title, relativeDownloadLink, version, -1, null);
+    }
+
+    public ConfluenceAttachment(String id, String title, String relativeDownloadLink, int version, long fileSize, String mediaType) {
         this.id = id;
         this.title = title;
         this.relativeDownloadLink = relativeDownloadLink;
         this.version = version;
+        this.fileSize = fileSize;
+        this.mediaType = mediaType;
     }
 
     public String getId() {
@@ -49,6 +57,20 @@ public class ConfluenceAttachment {
         return this.version;
     }
 
+    /**
+     * @return file size reported by the server or -1 if unknown
+     */
+    public long getFileSize() {
+        return this.fileSize;
+    }
+
+    /**
+     * @return media type reported by the server or null if unknown
+     */
+    public String getMediaType() {
+        return this.mediaType;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -57,6 +79,8 @@ public class ConfluenceAttachment {
         ConfluenceAttachment that = (ConfluenceAttachment) o;
 
         if (this.version != that.version) return false;
+        if (this.fileSize != that.fileSize) return false;
+        if (this.mediaType != null ? !this.mediaType.equals(that.mediaType) : that.mediaType != null) return false;
         if (!this.id.equals(that.id)) return false;
         //noinspection SimplifiableIfStatement
         if (!this.title.equals(that.title)) return false;
@@ -70,6 +94,8 @@ public class ConfluenceAttachment {
         result = 31 * result + this.title.hashCode();
         result = 31 * result + this.relativeDownloadLink.hashCode();
         result = 31 * result + this.version;
+        result = 31 * result + Long.hashCode(this.fileSize);
+        result = 31 * result + (this.mediaType != null ? this.mediaType.hashCode() : 0);
         return result;
     }
 
@@ -80,6 +106,8 @@ public class ConfluenceAttachment {
                 ", title='" + this.title + '\'' +
                 ", relativeDownloadLink='" + this.relativeDownloadLink + '\'' +
                 ", version=" + this.version +
+                ", fileSize=" + this.fileSize +
+                ", mediaType='" + this.mediaType + '\'' +
                 '}';
     }
 
@@ -0,0 +1,77 @@
+package io.github.md2conf.confluence.client.http;
+
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.mime.MIME;
+import org.apache.http.entity.mime.content.AbstractContentBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Multipart body backed by a file.
+ * <p>
+ * Unlike {@link org.apache.http.entity.mime.content.InputStreamBody} it has known content length and opens the file on
+ * every {@link #writeTo(OutputStream)}, so the enclosing entity is repeatable and is not sent chunked. File content is
+ * copied with {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ */
+class FileChannelBody extends AbstractContentBody {
+
+    static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private final Path file;
+    private final String filename;
+    private final TransferProgressListener progressListener;
+
+    FileChannelBody(Path file, ContentType contentType, String filename, TransferProgressListener progressListener) {
+        super(contentType);
+        this.file = file;
+        this.filename = filename;
+        this.progressListener = progressListener != null ? progressListener : TransferProgressListener.NONE;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getTransferEncoding() {
+        return MIME.ENC_BINARY;
+    }
+
+    @Override
+    public long getContentLength() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read size of attachment " + file, e);
+        }
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long size = fileChannel.size();
+            long position = 0;
+            progressListener.bytesTransferred(0, size);
+            while (position < size) {
+                long transferred = fileChannel.transferTo(position, Math.min(TRANSFER_CHUNK_SIZE, size - position), target);
+                // content length is already sent, so a truncated or extended file cannot be uploaded
+                if (transferred <= 0 || fileChannel.size() != size) {
+                    throw new IOException("Attachment " + file + " changed during upload, " + position + " of " + size + " bytes transferred");
+                }
+                position += transferred;
+                progressListener.bytesTransferred(position, size);
+            }
+        }
+        out.flush();
+    }
+}
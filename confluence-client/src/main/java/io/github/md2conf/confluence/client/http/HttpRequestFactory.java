@@ -40,15 +40,14 @@ import org.apache.http.entity.BasicHttpEntity;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.mime.HttpMultipartMode;
 import org.apache.http.entity.mime.MultipartEntityBuilder;
-import org.apache.http.entity.mime.content.InputStreamBody;
 import org.apache.http.entity.mime.content.StringBody;
 import org.apache.http.message.BasicHeader;
 
 import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
+import java.nio.file.Path;
 import java.util.List;
 
 import static io.github.md2conf.confluence.client.http.HttpRequestFactory.PagePayloadBuilder.pagePayloadBuilder;
@@ -123,29 +122,29 @@ class HttpRequestFactory {
         return new HttpDelete(this.confluenceRestApiEndpoint + "/content/" + contentId);
     }
 
-    HttpPost addAttachmentRequest(String contentId, String attachmentFileName, InputStream attachmentContent) {
+    HttpPost addAttachmentRequest(String contentId, String attachmentFileName, Path attachmentPath, TransferProgressListener progressListener) {
         assertMandatoryParameter(isNotBlank(contentId), "contentId");
         assertMandatoryParameter(isNotBlank(attachmentFileName), "attachmentFileName");
-        assertMandatoryParameter(attachmentContent != null, "attachmentContent");
+        assertMandatoryParameter(attachmentPath != null, "attachmentPath");
 
         HttpPost attachmentPostRequest = new HttpPost(this.confluenceRestApiEndpoint + "/content/" + contentId + "/child/attachment");
         attachmentPostRequest.addHeader(new BasicHeader("X-Atlassian-Token", "no-check"));
 
-        HttpEntity multipartEntity = multipartEntity(attachmentFileName, attachmentContent, false);
+        HttpEntity multipartEntity = multipartEntity(attachmentFileName, attachmentPath, false, progressListener);
         attachmentPostRequest.setEntity(multipartEntity);
 
         return attachmentPostRequest;
     }
 
-    HttpPost updateAttachmentContentRequest(String contentId, String attachmentId, InputStream attachmentContent, boolean notifyWatchers) {
+    HttpPost updateAttachmentContentRequest(String contentId, String attachmentId, Path attachmentPath, boolean notifyWatchers, TransferProgressListener progressListener) {
         assertMandatoryParameter(isNotBlank(contentId), "contentId");
         assertMandatoryParameter(isNotBlank(attachmentId), "attachmentId");
-        assertMandatoryParameter(attachmentContent != null, "attachmentContent");
+        assertMandatoryParameter(attachmentPath != null, "attachmentPath");
 
         HttpPost attachmentPostRequest = new HttpPost(this.confluenceRestApiEndpoint + "/content/" + contentId + "/child/attachment/" + attachmentId + "/data");
         attachmentPostRequest.addHeader(new BasicHeader("X-Atlassian-Token", "no-check"));
 
-        HttpEntity multipartEntity = multipartEntity(null, attachmentContent, notifyWatchers);
+        HttpEntity multipartEntity = multipartEntity(null, attachmentPath, notifyWatchers, progressListener);
         attachmentPostRequest.setEntity(multipartEntity);
 
         return attachmentPostRequest;
@@ -237,6 +236,31 @@ class HttpRequestFactory {
         return getChildPagesByIdRequest;
     }
 
+    HttpGet searchContentRequest(String cql, Integer limit, Integer start, String expandOptions) {
+        assertMandatoryParameter(isNotBlank(cql), "cql");
+        URIBuilder uriBuilder = createUriBuilder(this.confluenceRestApiEndpoint + "/content/search");
+        uriBuilder.addParameter("cql", cql);
+
+        if (limit != null) {
+            uriBuilder.addParameter("limit", limit.toString());
+        }
+        if (start != null) {
+            uriBuilder.addParameter("start", start.toString());
+        }
+        if (isNotBlank(expandOptions)) {
+            uriBuilder.addParameter("expand", expandOptions);
+        }
+
+        HttpGet searchContentRequest;
+        try {
+            searchContentRequest = new HttpGet(uriBuilder.build().toString());
+        } catch (URISyntaxException e) {
+            throw new RuntimeException("Invalid URL", e);
+        }
+
+        return searchContentRequest;
+    }
+
     public HttpGet getAttachmentsRequest(String contentId, Integer limit, Integer start, String expandOptions) {
         assertMandatoryParameter(isNotBlank(contentId), "contentId");
         URIBuilder uriBuilder = createUriBuilder(this.confluenceRestApiEndpoint + "/content/" + contentId + "/child/attachment");
@@ -350,19 +374,13 @@ class HttpRequestFactory {
         }
     }
 
-    private static HttpEntity multipartEntity(String attachmentFileName, InputStream attachmentContent, boolean notifyWatchers) {
+    private static HttpEntity multipartEntity(String attachmentFileName, Path attachmentPath, boolean notifyWatchers, TransferProgressListener progressListener) {
         MultipartEntityBuilder multipartEntityBuilder = MultipartEntityBuilder.create();
         multipartEntityBuilder.setMode(HttpMultipartMode.BROWSER_COMPATIBLE);
         multipartEntityBuilder.setCharset(UTF_8);
 
-        InputStreamBody inputStreamBody;
-        if (isNotBlank(attachmentFileName)) {
-            inputStreamBody = new InputStreamBody(attachmentContent, APPLICATION_OCTET_STREAM, attachmentFileName);
-        } else {
-            inputStreamBody = new InputStreamBody(attachmentContent, APPLICATION_OCTET_STREAM);
-        }
-
-        multipartEntityBuilder.addPart("file", inputStreamBody);
+        String fileName = isNotBlank(attachmentFileName) ? attachmentFileName : null;
+        multipartEntityBuilder.addPart("file", new FileChannelBody(attachmentPath, APPLICATION_OCTET_STREAM, fileName, progressListener));
 
         if (!notifyWatchers) {
             multipartEntityBuilder.addPart("minorEdit", new StringBody("true", ContentType.DEFAULT_TEXT));
@@ -0,0 +1,158 @@
+package io.github.md2conf.confluence.client.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * HTTP validators (ETag and Last-Modified) of downloaded files, per download URL, persisted to a file.
+ * <p>
+ * Validators are sent with the next download of the same URL to the same file, and the local file is kept when the
+ * server responds with 304 Not Modified. Size and modification time of the local file are recorded too, so a file
+ * changed or removed locally since the download is downloaded again unconditionally.
+ */
+public class HttpValidatorCache {
+
+    public static final String HTTP_VALIDATOR_CACHE_FILENAME = ".http-validators.json";
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+    private final Path cacheFile;
+    private final Map<String, Validators> validatorsByUrl = new ConcurrentHashMap<>();
+
+    private HttpValidatorCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Read cache saved in the directory.
+     *
+     * @return empty cache if the directory has no cache
+     */
+    public static HttpValidatorCache load(Path directory) {
+        HttpValidatorCache cache = new HttpValidatorCache(directory.resolve(HTTP_VALIDATOR_CACHE_FILENAME));
+        if (Files.isRegularFile(cache.cacheFile)) {
+            try {
+                Map<String, Validators> saved = OBJECT_MAPPER.readValue(cache.cacheFile.toFile(),
+                        OBJECT_MAPPER.getTypeFactory().constructMapType(Map.class, String.class, Validators.class));
+                cache.validatorsByUrl.putAll(saved);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read HTTP validator cache " + cache.cacheFile, e);
+            }
+        }
+        return cache;
+    }
+
+    public void save() throws IOException {
+        Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+        OBJECT_MAPPER.writeValue(cacheFile.toFile(), validatorsByUrl);
+    }
+
+    /**
+     * @return validators of previous download of the URL to the output file, or null if the file was downloaded
+     * from other URL, has no validators or was changed since
+     */
+    public Validators validatorsFor(String downloadUrl, Path outputFile) {
+        Validators validators = validatorsByUrl.get(downloadUrl);
+        if (validators == null || !validators.getFilePath().equals(relativePath(outputFile)) || !Files.isRegularFile(outputFile)) {
+            return null;
+        }
+        try {
+            if (Files.size(outputFile) != validators.getSize()
+                    || Files.getLastModifiedTime(outputFile).toMillis() != validators.getFileLastModified()) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return validators;
+    }
+
+    /**
+     * Record validators of the response the output file is downloaded from. Validators are removed if the response
+     * has none.
+     */
+    public void update(String downloadUrl, Path outputFile, String etag, String lastModified) throws IOException {
+        if (etag == null && lastModified == null) {
+            validatorsByUrl.remove(downloadUrl);
+            return;
+        }
+        Validators validators = new Validators();
+        validators.setEtag(etag);
+        validators.setLastModified(lastModified);
+        validators.setFilePath(relativePath(outputFile));
+        validators.setSize(Files.size(outputFile));
+        validators.setFileLastModified(Files.getLastModifiedTime(outputFile).toMillis());
+        validatorsByUrl.put(downloadUrl, validators);
+    }
+
+    private String relativePath(Path file) {
+        Path directory = cacheFile.toAbsolutePath().getParent();
+        return directory.relativize(file.toAbsolutePath()).normalize().toString();
+    }
+
+    public static class Validators {
+        private String etag;
+        private String lastModified;
+        private String filePath;
+        private long size;
+        private long fileLastModified;
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public void setEtag(String etag) {
+            this.etag = etag;
+        }
+
+        /**
+         * @return Last-Modified header value as received from the server
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(String lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return path of the downloaded file relative to the cache directory
+         */
+        public String getFilePath() {
+            return filePath;
+        }
+
+        public void setFilePath(String filePath) {
+            this.filePath = filePath;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        /**
+         * @return modification time of the downloaded file in milliseconds
+         */
+        public long getFileLastModified() {
+            return fileLastModified;
+        }
+
+        public void setFileLastModified(long fileLastModified) {
+            this.fileLastModified = fileLastModified;
+        }
+    }
+}
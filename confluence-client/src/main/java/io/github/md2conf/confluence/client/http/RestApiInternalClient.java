@@ -17,12 +17,14 @@
 package io.github.md2conf.confluence.client.http;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.util.concurrent.RateLimiter;
 import io.github.md2conf.confluence.client.utils.AssertUtils;
 import io.github.md2conf.model.ConfluenceContentModel;
-import org.apache.commons.io.FileUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
@@ -45,6 +47,11 @@ import javax.net.ssl.SSLContext;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
@@ -54,7 +61,12 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static org.apache.http.HttpHeaders.AUTHORIZATION;
+import static org.apache.http.HttpHeaders.ETAG;
+import static org.apache.http.HttpHeaders.IF_MODIFIED_SINCE;
+import static org.apache.http.HttpHeaders.IF_NONE_MATCH;
+import static org.apache.http.HttpHeaders.LAST_MODIFIED;
 import static org.apache.http.HttpHeaders.PROXY_AUTHORIZATION;
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
 import static org.apache.http.client.config.CookieSpecs.STANDARD;
 
 /**
@@ -74,8 +86,16 @@ public class RestApiInternalClient implements ApiInternalClient {
         this(rootConfluenceUrl, null, disableSslVerification, enableHttpClientSystemProperties, maxRequestsPerSecond, connectionTTL, username, passwordOrPersonalAccessToken);
     }
 
+    public RestApiInternalClient(String rootConfluenceUrl, boolean disableSslVerification, boolean enableHttpClientSystemProperties, Double maxRequestsPerSecond, Integer connectionTTL, Integer maxConnections, String username, String passwordOrPersonalAccessToken) {
+        this(rootConfluenceUrl, null, disableSslVerification, enableHttpClientSystemProperties, maxRequestsPerSecond, connectionTTL, maxConnections, username, passwordOrPersonalAccessToken);
+    }
+
     public RestApiInternalClient(String rootConfluenceUrl, ProxyConfiguration proxyConfiguration, boolean disableSslVerification, boolean enableHttpClientSystemProperties, Double maxRequestsPerSecond, Integer connectionTTL, String username, String passwordOrPersonalAccessToken) {
-        this(rootConfluenceUrl, defaultHttpClient(proxyConfiguration, disableSslVerification, enableHttpClientSystemProperties, connectionTTL), maxRequestsPerSecond, username,
+        this(rootConfluenceUrl, proxyConfiguration, disableSslVerification, enableHttpClientSystemProperties, maxRequestsPerSecond, connectionTTL, null, username, passwordOrPersonalAccessToken);
+    }
+
+    public RestApiInternalClient(String rootConfluenceUrl, ProxyConfiguration proxyConfiguration, boolean disableSslVerification, boolean enableHttpClientSystemProperties, Double maxRequestsPerSecond, Integer connectionTTL, Integer maxConnections, String username, String passwordOrPersonalAccessToken) {
+        this(rootConfluenceUrl, defaultHttpClient(proxyConfiguration, disableSslVerification, enableHttpClientSystemProperties, connectionTTL, maxConnections), maxRequestsPerSecond, username,
             passwordOrPersonalAccessToken);
     }
 
@@ -144,9 +164,8 @@ public class RestApiInternalClient implements ApiInternalClient {
     public void saveUrlToFile(String downloadUrl, File outputFile) {
         HttpGet getByDownloadUrl = this.httpRequestFactory.getByDownloadUrl(downloadUrl);
         sendRequestAndFailIfNot20x(getByDownloadUrl, (response) -> {
-            HttpEntity httpEntity = response.getEntity();
-            try (InputStream inputStream= httpEntity.getContent()){
-                FileUtils.copyToFile(inputStream, outputFile);
+            try {
+                saveEntityToFile(response.getEntity(), outputFile.toPath());
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -155,23 +174,77 @@ public class RestApiInternalClient implements ApiInternalClient {
     }
 
     @Override
-    public void addAttachment(String contentId, String attachmentFileName, InputStream attachmentContent) {
-        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest(contentId, attachmentFileName, attachmentContent);
-        sendRequestAndFailIfNot20x(addAttachmentRequest, (response) -> {
-            closeInputStream(attachmentContent);
-
-            return null;
+    public boolean saveUrlToFile(String downloadUrl, File outputFile, HttpValidatorCache validatorCache) {
+        HttpGet getByDownloadUrl = this.httpRequestFactory.getByDownloadUrl(downloadUrl);
+        HttpValidatorCache.Validators validators = validatorCache.validatorsFor(downloadUrl, outputFile.toPath());
+        if (validators != null) {
+            if (validators.getEtag() != null) {
+                getByDownloadUrl.addHeader(IF_NONE_MATCH, validators.getEtag());
+            }
+            if (validators.getLastModified() != null) {
+                getByDownloadUrl.addHeader(IF_MODIFIED_SINCE, validators.getLastModified());
+            }
+        }
+        return sendRequest(getByDownloadUrl, (response) -> {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == SC_NOT_MODIFIED && validators != null) {
+                return false;
+            }
+            if (statusCode < 200 || statusCode > 206) {
+                throw new RequestFailedException(getByDownloadUrl, response, null);
+            }
+            try {
+                saveEntityToFile(response.getEntity(), outputFile.toPath());
+                validatorCache.update(downloadUrl, outputFile.toPath(), headerValue(response, ETAG), headerValue(response, LAST_MODIFIED));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return true;
         });
     }
 
+    private static String headerValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    /**
+     * Download to temporary file in the target directory, verify its size against Content-Length and move it to the
+     * target path atomically, so an interrupted or truncated download never leaves a partial file under the final name.
+     */
+    private static void saveEntityToFile(HttpEntity httpEntity, Path outputPath) throws IOException {
+        Path parent = outputPath.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tempFile = Files.createTempFile(parent, "." + outputPath.getFileName(), ".part");
+        try {
+            try (InputStream inputStream = httpEntity.getContent()) {
+                Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long expectedLength = httpEntity.getContentLength();
+            long actualLength = Files.size(tempFile);
+            if (expectedLength >= 0 && expectedLength != actualLength) {
+                throw new IOException("Incomplete download of " + outputPath + ": expected " + expectedLength + " bytes, received " + actualLength);
+            }
+            try {
+                Files.move(tempFile, outputPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, outputPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
     @Override
-    public void updateAttachmentContent(String contentId, String attachmentId, InputStream attachmentContent, boolean notifyWatchers) {
-        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentContent, notifyWatchers);
-        sendRequestAndFailIfNot20x(updateAttachmentContentRequest, (response) -> {
-            closeInputStream(attachmentContent);
+    public void addAttachment(String contentId, String attachmentFileName, Path attachmentPath, TransferProgressListener progressListener) {
+        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest(contentId, attachmentFileName, attachmentPath, progressListener);
+        sendRequestAndFailIfNot20x(addAttachmentRequest);
+    }
 
-            return null;
-        });
+    @Override
+    public void updateAttachmentContent(String contentId, String attachmentId, Path attachmentPath, boolean notifyWatchers, TransferProgressListener progressListener) {
+        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentPath, notifyWatchers, progressListener);
+        sendRequestAndFailIfNot20x(updateAttachmentContentRequest);
     }
 
     @Override
@@ -210,6 +283,35 @@ public class RestApiInternalClient implements ApiInternalClient {
     }
 
 
+    @Override
+    public ConfluenceApiPage getPage(String contentId) {
+        HttpGet pageByIdRequest = this.httpRequestFactory.getPageByIdRequest(contentId, "version");
+        return sendRequestAndFailIfNot20x(pageByIdRequest, (response) ->
+                extractConfluencePageWithoutContent(parseJsonResponse(response)));
+    }
+
+    @Override
+    public ConfluenceApiPage savePageWithViewContent(String contentId, Path outputFile) {
+        return savePageWithContent(contentId, "view", outputFile);
+    }
+
+    @Override
+    public ConfluenceApiPage savePageWithStorageContent(String contentId, Path outputFile) {
+        return savePageWithContent(contentId, "storage", outputFile);
+    }
+
+    private ConfluenceApiPage savePageWithContent(String contentId, String representation, Path outputFile) {
+        HttpGet pageByIdRequest = this.httpRequestFactory.getPageByIdRequest(contentId, "body." + representation + ",version");
+        return sendRequestAndFailIfNot20x(pageByIdRequest, (response) -> {
+            try (InputStream inputStream = response.getEntity().getContent();
+                 JsonParser parser = this.objectMapper.getFactory().createParser(inputStream)) {
+                return streamConfluencePageWithContent(parser, representation, outputFile);
+            } catch (IOException e) {
+                throw new RuntimeException("Could not save content of page " + contentId + " to " + outputFile, e);
+            }
+        });
+    }
+
     @Override
     public List<ConfluenceApiPage> getChildPagesWithViewContent(String contentId) {
         int start = 0;
@@ -283,6 +385,33 @@ public class RestApiInternalClient implements ApiInternalClient {
         return childPages;
     }
 
+    @Override
+    public List<ConfluenceApiPage> getDescendantPages(String contentId) {
+        return getDescendantPages(contentId, null);
+    }
+
+    @Override
+    public List<ConfluenceApiPage> getDescendantPages(String contentId, String cqlCondition) {
+        String cql = "ancestor = " + contentId + " and type = page" + (cqlCondition != null ? " and " + cqlCondition : "");
+        int start = 0;
+        int limit = 100;
+
+        ArrayList<ConfluenceApiPage> descendants = new ArrayList<>();
+        boolean fetchMore = true;
+        while (fetchMore) {
+            HttpGet searchRequest = this.httpRequestFactory.searchContentRequest(cql, limit, start, "ancestors,version");
+            JsonNode jsonNode = sendRequestAndFailIfNot20x(searchRequest, this::parseJsonResponse);
+            JsonNode results = jsonNode.withArray("results");
+            results.forEach(page -> descendants.add(extractConfluencePageWithParent(page)));
+
+            // server may cap the limit, so continue from the number of actually returned results
+            start += results.size();
+            fetchMore = results.size() > 0 && (jsonNode.path("_links").has("next") || results.size() == limit);
+        }
+
+        return descendants;
+    }
+
     @Override
     public List<ConfluenceAttachment> getAttachments(String contentId) {
         int start = 0;
@@ -397,6 +526,71 @@ public class RestApiInternalClient implements ApiInternalClient {
         return new ConfluenceApiPage(id, title, content, version);
     }
 
+    /**
+     * Read page fields from the parser and copy "body.&lt;representation&gt;.value" straight to the output file, so only
+     * one token of the response is held at once.
+     */
+    private static ConfluenceApiPage streamConfluencePageWithContent(JsonParser parser, String representation, Path outputFile) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Page JSON object expected");
+        }
+        String id = null;
+        String title = null;
+        int version = 0;
+        boolean contentSaved = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.getCurrentName();
+            parser.nextToken();
+            if ("id".equals(fieldName)) {
+                id = parser.getText();
+            } else if ("title".equals(fieldName)) {
+                title = parser.getText();
+            } else if ("version".equals(fieldName)) {
+                version = streamFieldsOf(parser, "number", JsonParser::getIntValue, 0);
+            } else if ("body".equals(fieldName)) {
+                contentSaved = streamFieldsOf(parser, representation, body -> streamFieldsOf(body, "value", value -> {
+                    Files.createDirectories(outputFile.toAbsolutePath().getParent());
+                    try (Writer writer = Files.newBufferedWriter(outputFile, UTF_8)) {
+                        value.getText(writer);
+                    }
+                    return true;
+                }, false), false);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!contentSaved) {
+            throw new IOException("Page " + id + " has no " + representation + " content");
+        }
+        return new ConfluenceApiPage(id, title, version);
+    }
+
+    /**
+     * Apply the reader to value of the field of current object and skip all other fields.
+     */
+    private static <T> T streamFieldsOf(JsonParser parser, String fieldName, JsonValueReader<T> reader, T defaultValue) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return defaultValue;
+        }
+        T result = defaultValue;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String currentFieldName = parser.getCurrentName();
+            parser.nextToken();
+            if (fieldName.equals(currentFieldName)) {
+                result = reader.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface JsonValueReader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
     private static ConfluenceApiPage extractConfluencePageWithoutContent(JsonNode jsonNode) {
         String id = extractIdFromJsonNode(jsonNode);
         String title = extractTitleFromJsonNode(jsonNode);
@@ -405,13 +599,29 @@ public class RestApiInternalClient implements ApiInternalClient {
         return new ConfluenceApiPage(id, title, version);
     }
 
+    private static ConfluenceApiPage extractConfluencePageWithParent(JsonNode jsonNode) {
+        String id = extractIdFromJsonNode(jsonNode);
+        String title = extractTitleFromJsonNode(jsonNode);
+        int version = extractVersionFromJsonNode(jsonNode);
+        List<String> ancestorIds = new ArrayList<>();
+        jsonNode.path("ancestors").forEach(ancestor -> ancestorIds.add(extractIdFromJsonNode(ancestor)));
+        // position is "none" unless siblings were ordered manually
+        JsonNode position = jsonNode.path("extensions").path("position");
+        Integer pagePosition = position.canConvertToInt() ? Integer.valueOf(position.asInt()) : null;
+
+        return new ConfluenceApiPage(id, title, version, ancestorIds, pagePosition);
+    }
+
     private static ConfluenceAttachment extractConfluenceAttachment(JsonNode jsonNode) {
         String id = extractIdFromJsonNode(jsonNode);
         String title = extractTitleFromJsonNode(jsonNode);
         int version = extractVersionFromJsonNode(jsonNode);
         String relativeDownloadLink = jsonNode.path("_links").get("download").asText();
+        JsonNode extensions = jsonNode.path("extensions");
+        long fileSize = extensions.path("fileSize").asLong(-1);
+        String mediaType = extensions.hasNonNull("mediaType") ? extensions.get("mediaType").asText() : null;
 
-        return new ConfluenceAttachment(id, title, relativeDownloadLink, version);
+        return new ConfluenceAttachment(id, title, relativeDownloadLink, version, fileSize, mediaType);
     }
 
     private static String extractIdFromJsonNode(JsonNode jsonNode) {
@@ -430,14 +640,7 @@ public class RestApiInternalClient implements ApiInternalClient {
         return jsonNode.path("value").asText();
     }
 
-    private static void closeInputStream(InputStream inputStream) {
-        try {
-            inputStream.close();
-        } catch (IOException ignored) {
-        }
-    }
-
-    private static CloseableHttpClient defaultHttpClient(ProxyConfiguration proxyConfiguration, boolean disableSslVerification, boolean enableHttpClientSystemProperties, Integer connectionTTL) {
+    private static CloseableHttpClient defaultHttpClient(ProxyConfiguration proxyConfiguration, boolean disableSslVerification, boolean enableHttpClientSystemProperties, Integer connectionTTL, Integer maxConnections) {
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectionRequestTimeout(20 * 1000)
                 .setConnectTimeout(20 * 1000)
@@ -472,6 +675,12 @@ public class RestApiInternalClient implements ApiInternalClient {
             builder.setConnectionTimeToLive(connectionTTL, MILLISECONDS);
         }
 
+        if (maxConnections != null) {
+            // all requests go to the same Confluence host, so the per-route limit is the effective pool size
+            builder.setMaxConnTotal(maxConnections);
+            builder.setMaxConnPerRoute(maxConnections);
+        }
+
         if (disableSslVerification) {
             builder.setSSLContext(trustAllSslContext());
             builder.setSSLHostnameVerifier(new NoopHostnameVerifier());
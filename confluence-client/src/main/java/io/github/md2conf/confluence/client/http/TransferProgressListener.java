@@ -0,0 +1,13 @@
+package io.github.md2conf.confluence.client.http;
+
+/**
+ * Receives byte-level progress of a file transfer.
+ */
+@FunctionalInterface
+public interface TransferProgressListener {
+
+    TransferProgressListener NONE = (bytesTransferred, totalBytes) -> {
+    };
+
+    void bytesTransferred(long bytesTransferred, long totalBytes);
+}
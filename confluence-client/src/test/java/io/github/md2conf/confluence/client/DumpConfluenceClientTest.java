@@ -0,0 +1,379 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
+import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
+import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
+import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static io.github.md2conf.confluence.client.DumpConfluenceClientBuilder.aDumpConfluenceClient;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DumpConfluenceClientTest {
+
+    @TempDir
+    private Path tmpDir;
+
+    private final Map<String, String> changedPageContents = new ConcurrentHashMap<>();
+
+    @Test
+    void parallel_dump_builds_same_tree_as_serial_dump() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(3, 4);
+
+        ConfluenceContentModel serial = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("serial"))
+                .build()
+                .dump("SPACE", "Root");
+        ConfluenceContentModel parallel = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("parallel"))
+                .withParallelism(4)
+                .withAttachmentDownloadConcurrency(3)
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(titles(parallel.getPages())).isEqualTo(titles(serial.getPages())).hasSize(1 + 4 + 16 + 64);
+        ConfluencePage firstChild = parallel.getPages().get(0).getChildren().get(0);
+        assertThat(firstChild.getTitle()).isEqualTo("Page 0-0");
+        assertThat(Path.of(firstChild.getContentFilePath())).hasParent(tmpDir.resolve("parallel").resolve("0")).isNotEmptyFile();
+        assertThat(firstChild.getAttachments()).containsKey("0-0.png");
+        verify(apiInternalClient, times(2 * 85)).saveUrlToFile(anyString(), any(File.class));
+    }
+
+    @Test
+    void dump_fails_when_attachment_download_fails() {
+        ApiInternalClient apiInternalClient = recordTree(1, 2);
+        doThrow(new IllegalStateException("download failed")).when(apiInternalClient).saveUrlToFile(eq("/download/0-1"), any(File.class));
+        DumpConfluenceClient dumpConfluenceClient = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withAttachmentDownloadConcurrency(2)
+                .build();
+
+        assertThatThrownBy(() -> dumpConfluenceClient.dump("SPACE", "Root")).isInstanceOf(IllegalStateException.class).hasMessage("download failed");
+    }
+
+    @Test
+    void incremental_dump_downloads_only_changed_pages_and_attachments() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(1, 2);
+        DumpConfluenceClient dumpConfluenceClient = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withIncremental(true)
+                .build();
+        dumpConfluenceClient.dump("SPACE", "Root");
+        assertThat(tmpDir.resolve(DumpManifest.DUMP_MANIFEST_FILENAME)).isRegularFile();
+        // attachments are not really downloaded by the mock
+        Files.writeString(tmpDir.resolve("0.png"), "root");
+        Files.writeString(tmpDir.resolve("0").resolve("0-0.png"), "first");
+        Files.writeString(tmpDir.resolve("0").resolve("0-1.png"), "second");
+        clearInvocations(apiInternalClient);
+
+        when(apiInternalClient.getChildPages("0")).thenReturn(List.of(
+                new ConfluenceApiPage("0-0", "Page 0-0", 1),
+                new ConfluenceApiPage("0-1", "Page 0-1", 2)));
+        changedPageContents.put("0-1", "<p>changed</p>");
+        when(apiInternalClient.getAttachments("0-0")).thenReturn(singletonList(new ConfluenceAttachment("att0-0", "0-0.png", "/download/0-0", 2)));
+        ConfluenceContentModel model = dumpConfluenceClient.dump("SPACE", "Root");
+
+        verify(apiInternalClient, never()).savePageWithViewContent(eq("0-0"), any(Path.class));
+        verify(apiInternalClient).savePageWithViewContent(eq("0-1"), any(Path.class));
+        verify(apiInternalClient).saveUrlToFile(eq("/download/0-0"), any(File.class));
+        verify(apiInternalClient, never()).saveUrlToFile(eq("/download/0-1"), any(File.class));
+        verify(apiInternalClient, never()).saveUrlToFile(eq("/download/0"), any(File.class));
+        List<ConfluencePage> children = model.getPages().get(0).getChildren();
+        assertThat(Path.of(children.get(0).getContentFilePath())).hasContent("<p>0-0</p>");
+        assertThat(Path.of(children.get(1).getContentFilePath())).hasContent("<p>changed</p>");
+        assertThat(DumpManifest.readManifest(tmpDir).getPage("0-1").getVersion()).isEqualTo(2);
+        assertThat(DumpManifest.readManifest(tmpDir).getPage("0-0").getAttachments().get("att0-0").getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void dump_streams_page_bodies_and_never_lists_children_with_bodies() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(2, 3);
+
+        ConfluenceContentModel model = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(Path.of(model.getPages().get(0).getContentFilePath())).hasContent("<p>0</p>");
+        verify(apiInternalClient, times(1 + 3 + 9)).savePageWithViewContent(anyString(), any(Path.class));
+        verify(apiInternalClient, never()).getChildPagesWithViewContent(anyString());
+        verify(apiInternalClient, never()).getPageWithViewContent(anyString());
+    }
+
+    @Test
+    void storage_format_dump_saves_storage_content() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(1, 2);
+        when(apiInternalClient.savePageWithStorageContent(anyString(), any(Path.class))).thenAnswer(invocation -> {
+            Path outputFile = invocation.getArgument(1);
+            Files.createDirectories(outputFile.getParent());
+            Files.writeString(outputFile, "<ac:structured-macro ac:name=\"toc\" />");
+            return null;
+        });
+
+        ConfluenceContentModel model = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withContentFormat(DumpContentFormat.STORAGE)
+                .build()
+                .dump("SPACE", "Root");
+
+        ConfluencePage root = model.getPages().get(0);
+        assertThat(root.getType()).isEqualTo(ConfluenceContentModel.Type.STORAGE);
+        assertThat(Path.of(root.getContentFilePath())).hasContent("<ac:structured-macro ac:name=\"toc\" />");
+        verify(apiInternalClient, times(3)).savePageWithStorageContent(anyString(), any(Path.class));
+        verify(apiInternalClient, never()).savePageWithViewContent(anyString(), any(Path.class));
+        assertThat(DumpManifest.readManifest(tmpDir).getContentFormat()).isEqualTo(DumpContentFormat.STORAGE);
+    }
+
+    @Test
+    void dump_listener_receives_every_page_after_its_attachments_are_saved() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(2, 2);
+        doAnswer(invocation -> {
+            File file = invocation.getArgument(1);
+            Files.createDirectories(file.toPath().getParent());
+            Files.writeString(file.toPath(), "attachment");
+            return null;
+        }).when(apiInternalClient).saveUrlToFile(anyString(), any(File.class));
+        Map<String, List<String>> ancestorsByTitle = new ConcurrentHashMap<>();
+
+        aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withParallelism(2)
+                .withAttachmentDownloadConcurrency(2)
+                .withDumpListener((ancestorTitles, page) -> {
+                    assertThat(Path.of(page.getContentFilePath())).isRegularFile();
+                    page.getAttachments().values().forEach(attachment -> assertThat(Path.of(attachment)).hasContent("attachment"));
+                    ancestorsByTitle.put(page.getTitle(), ancestorTitles);
+                })
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(ancestorsByTitle).hasSize(1 + 2 + 4);
+        assertThat(ancestorsByTitle.get("Root")).isEmpty();
+        assertThat(ancestorsByTitle.get("Page 0-1-0")).containsExactly("Root", "Page 0-1");
+    }
+
+    @Test
+    void cql_descendants_strategy_builds_same_tree_without_listing_children() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(2, 3);
+        ConfluenceContentModel childPages = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("child-pages"))
+                .build()
+                .dump("SPACE", "Root");
+        clearInvocations(apiInternalClient);
+
+        ConfluenceContentModel cqlDescendants = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("cql"))
+                .withDumpStrategy(DumpStrategy.CQL_DESCENDANTS)
+                .withParallelism(2)
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(titles(cqlDescendants.getPages())).isEqualTo(titles(childPages.getPages()));
+        verify(apiInternalClient).getDescendantPages("0");
+        verify(apiInternalClient, never()).getChildPages(anyString());
+    }
+
+    @Test
+    void cql_descendants_strategy_orders_siblings_by_position_then_by_title() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(0, 0);
+        when(apiInternalClient.getDescendantPages("0")).thenReturn(List.of(
+                new ConfluenceApiPage("10", "Beta", 1, List.of("0"), null),
+                new ConfluenceApiPage("11", "alpha", 1, List.of("0"), null),
+                new ConfluenceApiPage("12", "Zeta", 1, List.of("0"), 0),
+                new ConfluenceApiPage("13", "Gamma", 1, List.of("0"), 1)));
+
+        ConfluenceContentModel model = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withDumpStrategy(DumpStrategy.CQL_DESCENDANTS)
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(titles(model.getPages())).containsExactly("Root", "Zeta", "Gamma", "alpha", "Beta");
+    }
+
+    @Test
+    void deduplicated_dump_stores_attachments_with_identical_content_once() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(3, 1);
+        when(apiInternalClient.getAttachments(anyString())).thenAnswer(invocation -> singletonList(
+                new ConfluenceAttachment("att-" + invocation.getArgument(0), "logo.png", "/download/" + invocation.getArgument(0) + "/logo.png", 1, 4, "image/png")));
+        doAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            File file = invocation.getArgument(1);
+            // the same title, size and media type, but different content on page 0-0-0
+            Files.writeString(file.toPath(), url.contains("/0-0-0/") ? "LOGO" : "logo");
+            return null;
+        }).when(apiInternalClient).saveUrlToFile(anyString(), any(File.class));
+
+        ConfluenceContentModel model = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withAttachmentDownloadConcurrency(2)
+                .withDeduplicateAttachments(true)
+                .build()
+                .dump("SPACE", "Root");
+
+        ConfluencePage child = model.getPages().get(0).getChildren().get(0);
+        ConfluencePage grandChild = child.getChildren().get(0);
+        assertThat(Path.of(child.getAttachments().get("logo.png"))).hasContent("logo");
+        assertThat(Path.of(grandChild.getAttachments().get("logo.png"))).hasContent("LOGO");
+        assertThat(Path.of(grandChild.getChildren().get(0).getAttachments().get("logo.png"))).hasContent("logo");
+        try (Stream<Path> blobs = Files.list(tmpDir.resolve(AttachmentBlobStore.BLOB_DIRECTORY))) {
+            assertThat(blobs).hasSize(2);
+        }
+    }
+
+    @Test
+    void filtered_dump_skips_pages_not_selected_and_reparents_their_selected_descendants() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(3, 2);
+        when(apiInternalClient.getDescendantPages("0", "label in (\"sync\")")).thenReturn(List.of(
+                new ConfluenceApiPage("0-0-0", "Page 0-0-0", 1, List.of("0", "0-0")),
+                new ConfluenceApiPage("0-1", "Page 0-1", 1, List.of("0")),
+                new ConfluenceApiPage("0-0-0-1", "Page 0-0-0-1", 1, List.of("0", "0-0", "0-0-0"))));
+        DumpFilter filter = DumpFilterBuilder.aDumpFilter()
+                .withIncludeLabels(Set.of("sync"))
+                .withMaxDepth(2)
+                .build();
+
+        ConfluenceContentModel childPages = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("child"))
+                .withFilter(filter)
+                .build()
+                .dump("SPACE", "Root");
+        ConfluenceContentModel cqlDescendants = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir.resolve("cql"))
+                .withDumpStrategy(DumpStrategy.CQL_DESCENDANTS)
+                .withFilter(filter)
+                .build()
+                .dump("SPACE", "Root");
+
+        assertThat(titles(childPages.getPages())).containsExactly("Root", "Page 0-0-0", "Page 0-1");
+        assertThat(titles(cqlDescendants.getPages())).containsExactlyInAnyOrder("Root", "Page 0-0-0", "Page 0-1");
+        verify(apiInternalClient, never()).savePageWithViewContent(eq("0-0"), any(Path.class));
+        verify(apiInternalClient, never()).getAttachments("0-0");
+        verify(apiInternalClient, never()).getChildPages("0-1-0");
+        verify(apiInternalClient, never()).getDescendantPages("0");
+    }
+
+    @Test
+    void attachments_not_selected_are_listed_as_remote_and_fetched_on_demand() throws IOException {
+        ApiInternalClient apiInternalClient = recordTree(0, 0);
+        when(apiInternalClient.getAttachments("0")).thenReturn(List.of(
+                new ConfluenceAttachment("att1", "used.png", "/download/attachments/0/used.png", 1),
+                new ConfluenceAttachment("att2", "unused.png", "/download/attachments/0/unused.png", 1)));
+        doAnswer(invocation -> {
+            File file = invocation.getArgument(1);
+            Files.createDirectories(file.toPath().getParent());
+            Files.writeString(file.toPath(), "attachment");
+            return null;
+        }).when(apiInternalClient).saveUrlToFile(anyString(), any(File.class));
+        DumpConfluenceClient dumpConfluenceClient = aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(tmpDir)
+                .withAttachmentSelector(contentFile -> {
+                    assertThat(contentFile).hasContent("<p>0</p>");
+                    return attachment -> attachment.getTitle().equals("used.png");
+                })
+                .build();
+
+        ConfluencePage root = dumpConfluenceClient.dump("SPACE", "Root").getPages().get(0);
+
+        assertThat(root.getAttachments()).containsOnlyKeys("used.png");
+        assertThat(root.getRemoteAttachments()).containsExactly(Map.entry("unused.png", "/download/attachments/0/unused.png"));
+        verify(apiInternalClient, never()).saveUrlToFile(eq("/download/attachments/0/unused.png"), any(File.class));
+        assertThat(DumpManifest.readManifest(tmpDir).getPage("0").getAttachments()).containsOnlyKeys("att1");
+
+        Path fetched = dumpConfluenceClient.fetchRemoteAttachment(root, "unused.png");
+
+        assertThat(fetched).isEqualTo(tmpDir.resolve("unused.png")).hasContent("attachment");
+        assertThat(root.getRemoteAttachments()).isEmpty();
+        assertThat(root.getAttachments()).containsEntry("unused.png", fetched.toString());
+        assertThatThrownBy(() -> dumpConfluenceClient.fetchRemoteAttachment(root, "unused.png"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private ApiInternalClient recordTree(int depth, int width) {
+        ApiInternalClient apiInternalClient = mock(ApiInternalClient.class);
+        when(apiInternalClient.getPageByTitle("SPACE", "Root")).thenReturn("0");
+        when(apiInternalClient.getPage("0")).thenReturn(new ConfluenceApiPage("0", "Root", 1));
+        when(apiInternalClient.getChildPages(anyString())).thenReturn(emptyList());
+        when(apiInternalClient.savePageWithViewContent(anyString(), any(Path.class))).thenAnswer(invocation -> {
+            String contentId = invocation.getArgument(0);
+            Path outputFile = invocation.getArgument(1);
+            Files.createDirectories(outputFile.getParent());
+            Files.writeString(outputFile, changedPageContents.getOrDefault(contentId, "<p>" + contentId + "</p>"));
+            return null;
+        });
+        when(apiInternalClient.getAttachments(anyString())).thenAnswer(invocation -> {
+            String contentId = invocation.getArgument(0);
+            return singletonList(new ConfluenceAttachment("att" + contentId, contentId + ".png", "/download/" + contentId, 1));
+        });
+        List<ConfluenceApiPage> descendants = new ArrayList<>();
+        recordChildren(apiInternalClient, "0", depth, width, descendants);
+        Collections.reverse(descendants);
+        when(apiInternalClient.getDescendantPages("0")).thenReturn(descendants);
+        return apiInternalClient;
+    }
+
+    private static void recordChildren(ApiInternalClient apiInternalClient, String parentId, int depth, int width, List<ConfluenceApiPage> descendants) {
+        if (depth == 0) {
+            return;
+        }
+        List<ConfluenceApiPage> children = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            String childId = parentId + "-" + i;
+            children.add(new ConfluenceApiPage(childId, "Page " + childId, 1));
+            descendants.add(new ConfluenceApiPage(childId, "Page " + childId, 1, parentId));
+            recordChildren(apiInternalClient, childId, depth - 1, width, descendants);
+        }
+        when(apiInternalClient.getChildPages(parentId)).thenReturn(children);
+    }
+
+    private static List<String> titles(List<ConfluencePage> pages) {
+        List<String> res = new ArrayList<>();
+        for (ConfluencePage page : pages) {
+            res.add(page.getTitle());
+            res.addAll(titles(page.getChildren()));
+        }
+        return res;
+    }
+}
@@ -20,6 +20,7 @@ import io.github.md2conf.confluence.client.http.ConfluenceApiPage;
 import io.github.md2conf.confluence.client.http.ConfluenceAttachment;
 import io.github.md2conf.confluence.client.http.NotFoundException;
 import io.github.md2conf.confluence.client.http.RestApiInternalClient;
+import io.github.md2conf.model.AttachmentMetadata;
 import io.github.md2conf.model.ConfluenceContentModel;
 import io.github.md2conf.model.ConfluenceContentModel.Type;
 import io.github.md2conf.model.ConfluencePage;
@@ -29,15 +30,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Map;
 
 import static io.github.md2conf.confluence.client.OrphanRemovalStrategy.KEEP_ORPHANS;
 import static io.github.md2conf.confluence.client.OrphanRemovalStrategy.REMOVE_ORPHANS;
-import static io.github.md2conf.confluence.client.utils.InputStreamUtils.inputStreamAsString;
+import static io.github.md2conf.confluence.client.utils.InputStreamUtils.fileContent;
 import static io.github.md2conf.model.ConfluenceContentModel.Type.STORAGE;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
@@ -280,7 +280,7 @@ public class PublishConfluenceClientTest {
 
         ArgumentCaptor<String> contentId = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> attachmentFileName = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<InputStream> attachmentContent = ArgumentCaptor.forClass(InputStream.class);
+        ArgumentCaptor<Path> attachmentContent = ArgumentCaptor.forClass(Path.class);
 
         PublishConfluenceClientListener publishConfluenceClientListenerMock = mock(PublishConfluenceClientListener.class);
 
@@ -292,10 +292,10 @@ public class PublishConfluenceClientTest {
 
         // assert
         verify(confluenceRestClientMock).addPageUnderAncestor("~personalSpace", PARENT_PAGE_ID, "Some Confluence Content", "<h1>Some Confluence Content</h1>", STORAGE, null);
-        verify(confluenceRestClientMock, times(2)).addAttachment(contentId.capture(), attachmentFileName.capture(), attachmentContent.capture());
+        verify(confluenceRestClientMock, times(2)).addAttachment(contentId.capture(), attachmentFileName.capture(), attachmentContent.capture(), any());
         assertThat(contentId.getAllValues(), contains("4321", "4321"));
-        assertThat(inputStreamAsString(attachmentContent.getAllValues().get(attachmentFileName.getAllValues().indexOf("attachmentOne.txt")), UTF_8), is("attachment1"));
-        assertThat(inputStreamAsString(attachmentContent.getAllValues().get(attachmentFileName.getAllValues().indexOf("attachmentTwo.txt")), UTF_8), is("attachment2"));
+        assertThat(fileContent(attachmentContent.getAllValues().get(attachmentFileName.getAllValues().indexOf("attachmentOne.txt")).toString(), UTF_8), is("attachment1"));
+        assertThat(fileContent(attachmentContent.getAllValues().get(attachmentFileName.getAllValues().indexOf("attachmentTwo.txt")).toString(), UTF_8), is("attachment2"));
         verify(confluenceRestClientMock).setPropertyByKey("4321", ATTACHMENT_ONE_SHA256_HASH, sha256Hex("attachment1"));
         verify(confluenceRestClientMock).setPropertyByKey("4321", ATTACHMENT_TWO_SHA256_HASH, sha256Hex("attachment2"));
 
@@ -434,8 +434,34 @@ public class PublishConfluenceClientTest {
         confluenceClient.publish(model,TEST_SPACE, PARENT_PAGE_TITLE);
 
         // assert
-        verify(confluenceRestClientMock, never()).addAttachment(any(), any(), any());
-        verify(confluenceRestClientMock, never()).updateAttachmentContent(any(), any(), any(), anyBoolean());
+        verify(confluenceRestClientMock, never()).addAttachment(any(), any(), any(), any());
+        verify(confluenceRestClientMock, never()).updateAttachmentContent(any(), any(), any(), anyBoolean(), any());
+    }
+
+    @Test
+    public void publish_whenAttachmentMetadataIsKnown_doesNotReadAttachmentFiles() {
+        // arrange
+        RestApiInternalClient confluenceRestClientMock = mock(RestApiInternalClient.class);
+        when(confluenceRestClientMock.getPageByTitle(TEST_SPACE, PARENT_PAGE_TITLE)).thenReturn("72189173");
+        when(confluenceRestClientMock.getPageWithViewContent("72189173")).thenReturn(new ConfluenceApiPage("72189173", "Existing Page (Old Title)", "<h1>Some Confluence Content</h1>", 1));
+        when(confluenceRestClientMock.getPropertyByKey("72189173", PublishConfluenceClient.CONTENT_HASH_PROPERTY_KEY)).thenReturn(SOME_CONFLUENCE_CONTENT_SHA256_HASH);
+
+        when(confluenceRestClientMock.getAttachmentByFileName("72189173", "attachmentOne.txt")).thenReturn(new ConfluenceAttachment("att1", "attachmentOne.txt", "/download/attachmentOne.txt", 1));
+        when(confluenceRestClientMock.getPropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH)).thenReturn(sha256Hex("attachment1"));
+
+        PublishConfluenceClient confluenceClient = confluencePublisher(PublishingStrategy.REPLACE_ANCESTOR, confluenceRestClientMock);
+        ConfluenceContentModel model = readFromFilePrefix("root-ancestor-id-page-with-attachments");
+        ConfluencePage page = model.getPages().get(0);
+        page.setAttachments(Map.of("attachmentOne.txt", TEST_RESOURCES + "/not-existing.txt"));
+        page.setAttachmentMetadata(Map.of("attachmentOne.txt", new AttachmentMetadata(11, sha256Hex("attachment1"))));
+
+        // act
+        confluenceClient.publish(model,TEST_SPACE, PARENT_PAGE_TITLE);
+
+        // assert
+        verify(confluenceRestClientMock, never()).addAttachment(any(), any(), any(), any());
+        verify(confluenceRestClientMock, never()).updateAttachmentContent(any(), any(), any(), anyBoolean(), any());
+        verify(confluenceRestClientMock, never()).setPropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH, sha256Hex("attachment1"));
     }
 
     @Test
@@ -462,14 +488,14 @@ public class PublishConfluenceClientTest {
 
         // assert
         verify(confluenceRestClientMock, never()).deletePropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH);
-        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att1"), any(FileInputStream.class), eq(true));
+        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att1"), any(Path.class), eq(true), any());
         verify(confluenceRestClientMock).setPropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH, sha256Hex("attachment1"));
 
         verify(confluenceRestClientMock, never()).deletePropertyByKey("72189173", ATTACHMENT_TWO_SHA256_HASH);
-        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att2"), any(FileInputStream.class), eq(true));
+        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att2"), any(Path.class), eq(true), any());
         verify(confluenceRestClientMock).setPropertyByKey("72189173", ATTACHMENT_TWO_SHA256_HASH, sha256Hex("attachment2"));
 
-        verify(confluenceRestClientMock, never()).addAttachment(anyString(), anyString(), any(InputStream.class));
+        verify(confluenceRestClientMock, never()).addAttachment(anyString(), anyString(), any(Path.class), any());
 
         verify(publishConfluenceClientListenerMock, times(1)).pageUpdated(eq(new ConfluenceApiPage("72189173", "Existing Page (Old Title)", "<h1>Some Confluence Content</h1>", 1)), eq(new ConfluenceApiPage("72189173", "Some Confluence Content", null, 2)));
         verify(publishConfluenceClientListenerMock, times(1)).attachmentUpdated(eq("attachmentOne.txt"), eq("72189173"));
@@ -486,7 +512,7 @@ public class PublishConfluenceClientTest {
         when(confluenceRestClientMock.getPageWithViewContent("72189173")).thenReturn(new ConfluenceApiPage("72189173", "Existing Page (Old Title)", "<h1>Some Confluence Content</h1>", 1));
         when(confluenceRestClientMock.getPropertyByKey("72189173", PublishConfluenceClient.CONTENT_HASH_PROPERTY_KEY)).thenReturn(SOME_CONFLUENCE_CONTENT_SHA256_HASH);
 
-        ArgumentCaptor<InputStream> content = ArgumentCaptor.forClass(InputStream.class);
+        ArgumentCaptor<Path> content = ArgumentCaptor.forClass(Path.class);
 
         when(confluenceRestClientMock.getAttachmentByFileName("72189173", "attachmentOne.txt")).thenReturn(new ConfluenceAttachment("att1", "attachmentOne.txt", "", 1));
         when(confluenceRestClientMock.getPropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH)).thenReturn("otherHash1");
@@ -503,16 +529,16 @@ public class PublishConfluenceClientTest {
         // assert
         InOrder inOrder = inOrder(confluenceRestClientMock);
         inOrder.verify(confluenceRestClientMock).deletePropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH);
-        inOrder.verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att1"), content.capture(), eq(true));
+        inOrder.verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att1"), content.capture(), eq(true), any());
         inOrder.verify(confluenceRestClientMock).setPropertyByKey("72189173", ATTACHMENT_ONE_SHA256_HASH, sha256Hex("attachment1"));
-        assertThat(inputStreamAsString(content.getValue(), UTF_8), is("attachment1"));
+        assertThat(fileContent(content.getValue().toString(), UTF_8), is("attachment1"));
 
         verify(confluenceRestClientMock).deletePropertyByKey("72189173", ATTACHMENT_TWO_SHA256_HASH);
-        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att2"), content.capture(), eq(true));
+        verify(confluenceRestClientMock).updateAttachmentContent(eq("72189173"), eq("att2"), content.capture(), eq(true), any());
         verify(confluenceRestClientMock).setPropertyByKey("72189173", ATTACHMENT_TWO_SHA256_HASH, sha256Hex("attachment2"));
-        assertThat(inputStreamAsString(content.getValue(), UTF_8), is("attachment2"));
+        assertThat(fileContent(content.getValue().toString(), UTF_8), is("attachment2"));
 
-        verify(confluenceRestClientMock, never()).addAttachment(anyString(), anyString(), any(InputStream.class));
+        verify(confluenceRestClientMock, never()).addAttachment(anyString(), anyString(), any(Path.class), any());
     }
 
     @Test
@@ -0,0 +1,136 @@
+package io.github.md2conf.confluence.client;
+
+import io.github.md2conf.confluence.client.http.TransferProgressListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.LARGE_ATTACHMENT;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.METADATA;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.PAGE_WRITE;
+import static io.github.md2conf.confluence.client.PublishScheduler.Lane.SMALL_ATTACHMENT;
+import static io.github.md2conf.confluence.client.PublishScheduler.PublishSchedulerBuilder.aPublishScheduler;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PublishSchedulerTest {
+
+    @Test
+    void inline_scheduler_executes_in_submission_order() {
+        PublishScheduler scheduler = PublishScheduler.inline();
+        List<String> events = new CopyOnWriteArrayList<>();
+        scheduler.submit(PAGE_WRITE, () -> "1", contentId -> {
+            events.add("page " + contentId);
+            scheduler.submit(METADATA, () -> events.add("labels " + contentId));
+        });
+        events.add("after submit");
+        assertThat(events).containsExactly("page 1", "labels 1", "after submit");
+    }
+
+    @Test
+    void inline_scheduler_rethrows_immediately() {
+        PublishScheduler scheduler = PublishScheduler.inline();
+        assertThatThrownBy(() -> scheduler.submit(PAGE_WRITE, () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void metadata_lane_is_not_blocked_by_large_attachment_lane() throws InterruptedException {
+        PublishScheduler scheduler = aPublishScheduler()
+                .withConcurrency(PAGE_WRITE, 2)
+                .withConcurrency(METADATA, 2)
+                .withConcurrency(LARGE_ATTACHMENT, 1)
+                .build();
+        CountDownLatch uploadStarted = new CountDownLatch(1);
+        CountDownLatch releaseUpload = new CountDownLatch(1);
+        CountDownLatch labelsDone = new CountDownLatch(1);
+        scheduler.submit(LARGE_ATTACHMENT, () -> {
+            uploadStarted.countDown();
+            await(releaseUpload);
+        });
+        await(uploadStarted);
+        scheduler.submit(METADATA, labelsDone::countDown);
+
+        assertThat(labelsDone.await(5, TimeUnit.SECONDS)).isTrue();
+        releaseUpload.countDown();
+        scheduler.awaitCompletion();
+    }
+
+    @Test
+    void await_completion_waits_for_work_submitted_by_continuations_and_rethrows_failure() {
+        PublishScheduler scheduler = aPublishScheduler()
+                .withConcurrency(PAGE_WRITE, 2)
+                .withConcurrency(SMALL_ATTACHMENT, 2)
+                .build();
+        List<String> events = new CopyOnWriteArrayList<>();
+        scheduler.submit(PAGE_WRITE, () -> "42", contentId -> {
+            scheduler.submit(SMALL_ATTACHMENT, () -> events.add("attachment " + contentId));
+            scheduler.submit(PAGE_WRITE, () -> {
+                throw new IllegalArgumentException("child failed");
+            });
+        });
+        assertThatThrownBy(scheduler::awaitCompletion).isInstanceOf(IllegalArgumentException.class).hasMessage("child failed");
+        assertThat(events).containsExactly("attachment 42");
+    }
+
+    @Test
+    void attachment_lane_by_size() {
+        PublishScheduler scheduler = aPublishScheduler().withLargeAttachmentThreshold(100).build();
+        assertThat(scheduler.attachmentLane(99)).isEqualTo(SMALL_ATTACHMENT);
+        assertThat(scheduler.attachmentLane(100)).isEqualTo(LARGE_ATTACHMENT);
+    }
+
+    @Test
+    void attachment_uploads_share_bandwidth_and_acquire_it_per_chunk() {
+        try (PublishScheduler scheduler = aPublishScheduler()
+                .withConcurrency(SMALL_ATTACHMENT, 1)
+                .withConcurrency(LARGE_ATTACHMENT, 1)
+                .withAttachmentBandwidth(1_000_000d)
+                .build()) {
+            List<Long> reported = new CopyOnWriteArrayList<>();
+            long start = System.nanoTime();
+            for (PublishScheduler.Lane lane : List.of(SMALL_ATTACHMENT, LARGE_ATTACHMENT)) {
+                TransferProgressListener listener = scheduler.throttle((bytesTransferred, totalBytes) -> reported.add(bytesTransferred));
+                scheduler.submit(lane, () -> {
+                    for (long position = 0; position <= 500_000; position += 250_000) {
+                        listener.bytesTransferred(position, 500_000);
+                    }
+                });
+            }
+            scheduler.awaitCompletion();
+
+            assertThat(reported).hasSize(6);
+            // 1 MB in 4 chunks of 250 KB at 1 MB/s: every chunk but the first one waits for the shared limiter
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(600);
+        }
+    }
+
+    @Test
+    void progress_listener_is_not_wrapped_without_bandwidth_cap() {
+        try (PublishScheduler scheduler = aPublishScheduler().withConcurrency(SMALL_ATTACHMENT, 1).build()) {
+            assertThat(scheduler.throttle(TransferProgressListener.NONE)).isSameAs(TransferProgressListener.NONE);
+        }
+    }
+
+    @Test
+    void connection_per_publish_thread() {
+        ConfluenceClientConfigurationProperties properties = new ConfluenceClientConfigurationProperties();
+        assertThat(ConfluenceClientFactory.publishThreads(properties)).isEqualTo(1);
+        properties.setPublishConcurrency(4);
+        assertThat(ConfluenceClientFactory.publishThreads(properties)).isEqualTo(13);
+        properties.setLargeAttachmentConcurrency(2);
+        assertThat(ConfluenceClientFactory.publishThreads(properties)).isEqualTo(14);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
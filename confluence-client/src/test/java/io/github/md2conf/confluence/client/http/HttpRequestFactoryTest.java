@@ -18,21 +18,29 @@ package io.github.md2conf.confluence.client.http;
 
 import io.github.md2conf.confluence.client.utils.InputStreamUtils;
 import io.github.md2conf.model.ConfluenceContentModel;
+import org.apache.http.HttpEntity;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.io.InputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
 
 import static io.github.md2conf.confluence.client.utils.SameJsonAsMatcher.isSameJsonAs;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
@@ -52,6 +60,9 @@ public class HttpRequestFactoryTest {
     private static final String ROOT_CONFLUENCE_URL = "http://confluence.com";
     private static final String CONFLUENCE_REST_API_ENDPOINT = ROOT_CONFLUENCE_URL + "/rest/api";
 
+    @TempDir
+    Path tempDir;
+
     private HttpRequestFactory httpRequestFactory;
 
     @BeforeEach
@@ -231,10 +242,10 @@ public class HttpRequestFactoryTest {
         // arrange
         String contentId = "1234";
         String attachmentFileName = "attachment.txt";
-        InputStream attachmentContent = new ByteArrayInputStream("Some text".getBytes());
+        Path attachmentPath = attachmentFile("Some text");
 
         // act
-        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest(contentId, attachmentFileName, attachmentContent);
+        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest(contentId, attachmentFileName, attachmentPath, TransferProgressListener.NONE);
 
         // assert
         assertThat(addAttachmentRequest.getMethod(), is("POST"));
@@ -248,12 +259,51 @@ public class HttpRequestFactoryTest {
         assertThat(multiPartPayload, containsString("Some text"));
     }
 
+    @Test
+    public void addAttachmentRequest_withValidParameters_returnsRepeatableEntityWithKnownLengthAndReportsProgress() throws Exception {
+        // arrange
+        Path attachmentPath = attachmentFile("Some text");
+        List<Long> transferred = new ArrayList<>();
+
+        // act
+        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest("1234", "attachment.txt", attachmentPath, (bytesTransferred, totalBytes) -> {
+            assertThat(totalBytes, is(9L));
+            transferred.add(bytesTransferred);
+        });
+
+        // assert
+        HttpEntity entity = addAttachmentRequest.getEntity();
+        assertTrue(entity.isRepeatable());
+        ByteArrayOutputStream firstWrite = new ByteArrayOutputStream();
+        entity.writeTo(firstWrite);
+        ByteArrayOutputStream secondWrite = new ByteArrayOutputStream();
+        entity.writeTo(secondWrite);
+        assertThat(entity.getContentLength(), is((long) firstWrite.size()));
+        assertThat(secondWrite.toString("UTF-8"), is(firstWrite.toString("UTF-8")));
+        assertThat(transferred, is(asList(0L, 9L, 0L, 9L)));
+    }
+
+    @Test
+    public void addAttachmentRequest_withFileTruncatedDuringUpload_throwsIOException() throws Exception {
+        // arrange
+        Path attachmentPath = Files.write(Files.createTempFile(tempDir, "attachment", ".bin"), new byte[(int) (2 * FileChannelBody.TRANSFER_CHUNK_SIZE + 1)]);
+        HttpPost addAttachmentRequest = this.httpRequestFactory.addAttachmentRequest("1234", "attachment.bin", attachmentPath, (bytesTransferred, totalBytes) -> {
+            if (bytesTransferred > 0) {
+                truncate(attachmentPath);
+            }
+        });
+
+        // act + assert
+        IOException exception = assertThrows(IOException.class, () -> addAttachmentRequest.getEntity().writeTo(new ByteArrayOutputStream()));
+        assertThat(exception.getMessage(), containsString("changed during upload"));
+    }
+
     @Test
     public void addAttachmentRequest_withEmptyContentId_throwsIllegalArgumentException() {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.addAttachmentRequest("", "file.txt", new ByteArrayInputStream("hello".getBytes()));
+            this.httpRequestFactory.addAttachmentRequest("", "file.txt", attachmentFile("hello"), TransferProgressListener.NONE);
         });
         assertTrue(exception.getMessage().contains("contentId must be set"));
     }
@@ -263,7 +313,7 @@ public class HttpRequestFactoryTest {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.addAttachmentRequest("1234", "", new ByteArrayInputStream("hello".getBytes()));
+            this.httpRequestFactory.addAttachmentRequest("1234", "", attachmentFile("hello"), TransferProgressListener.NONE);
         });
         assertTrue(exception.getMessage().contains("attachmentFileName"));
     }
@@ -273,9 +323,9 @@ public class HttpRequestFactoryTest {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.addAttachmentRequest("1234", "file.txt", null);
+            this.httpRequestFactory.addAttachmentRequest("1234", "file.txt", null, TransferProgressListener.NONE);
         });
-        assertTrue(exception.getMessage().contains("attachmentContent"));
+        assertTrue(exception.getMessage().contains("attachmentPath"));
     }
 
     @Test
@@ -283,11 +333,11 @@ public class HttpRequestFactoryTest {
         // arrange
         String contentId = "1234";
         String attachmentId = "45";
-        InputStream attachmentContent = new ByteArrayInputStream("hello".getBytes());
+        Path attachmentPath = attachmentFile("hello");
         boolean notifyWatchers = false;
 
         // act
-        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentContent, notifyWatchers);
+        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentPath, notifyWatchers, TransferProgressListener.NONE);
 
         // assert
         assertThat(updateAttachmentContentRequest.getMethod(), is("POST"));
@@ -306,11 +356,11 @@ public class HttpRequestFactoryTest {
         // arrange
         String contentId = "1234";
         String attachmentId = "45";
-        InputStream attachmentContent = new ByteArrayInputStream("hello".getBytes());
+        Path attachmentPath = attachmentFile("hello");
         boolean notifyWatchers = true;
 
         // act
-        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentContent, notifyWatchers);
+        HttpPost updateAttachmentContentRequest = this.httpRequestFactory.updateAttachmentContentRequest(contentId, attachmentId, attachmentPath, notifyWatchers, TransferProgressListener.NONE);
 
         // assert
         assertThat(updateAttachmentContentRequest.getMethod(), is("POST"));
@@ -329,7 +379,7 @@ public class HttpRequestFactoryTest {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.updateAttachmentContentRequest("", "45", new ByteArrayInputStream("hello".getBytes()), true);
+            this.httpRequestFactory.updateAttachmentContentRequest("", "45", attachmentFile("hello"), true, TransferProgressListener.NONE);
         });
         assertTrue(exception.getMessage().contains("contentId must be set"));
     }
@@ -339,7 +389,7 @@ public class HttpRequestFactoryTest {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.updateAttachmentContentRequest("1234", "", new ByteArrayInputStream("hello".getBytes()), true);
+            this.httpRequestFactory.updateAttachmentContentRequest("1234", "", attachmentFile("hello"), true, TransferProgressListener.NONE);
         });
         assertTrue(exception.getMessage().contains("attachmentId must be set"));
     }
@@ -349,9 +399,9 @@ public class HttpRequestFactoryTest {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
 
             // arrange + act
-            this.httpRequestFactory.updateAttachmentContentRequest("1234", "45", null, true);
+            this.httpRequestFactory.updateAttachmentContentRequest("1234", "45", null, true, TransferProgressListener.NONE);
         });
-        assertTrue(exception.getMessage().contains("attachmentContent"));
+        assertTrue(exception.getMessage().contains("attachmentPath"));
     }
 
     @Test
@@ -752,4 +802,16 @@ public class HttpRequestFactoryTest {
         // assert
         assertThat(deleteLabelRequest.getURI().toString(), is(CONFLUENCE_REST_API_ENDPOINT + "/content/" + contentId + "/label?name=" + label));
     }
+
+    private static void truncate(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path attachmentFile(String content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "attachment", ".txt"), content.getBytes(UTF_8));
+    }
 }
@@ -29,13 +29,17 @@ import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.message.BasicHeader;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static java.lang.System.currentTimeMillis;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -66,6 +70,9 @@ public class RestApiInternalClientTest {
 
     private static final String CONFLUENCE_ROOT_URL = "http://confluence.com";
 
+    @TempDir
+    Path tempDir;
+
     @Test
     public void instantiation_withEmptyRootConfluenceUrl_throwsIllegalArgumentException() {
         Throwable exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -164,6 +171,88 @@ public class RestApiInternalClientTest {
         });
     }
 
+    @Test
+    public void saveUrlToFile_withCompleteContent_movesDownloadedFileToOutputPath() throws Exception {
+        // arrange
+        CloseableHttpClient httpClientMock = recordHttpClientForDownloadWithContentLength("file content", "file content".length());
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        Path outputPath = tempDir.resolve("dump").resolve("file.txt");
+
+        // act
+        confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile());
+
+        // assert
+        assertThat(new String(Files.readAllBytes(outputPath), UTF_8), is("file content"));
+        try (Stream<Path> files = Files.list(outputPath.getParent())) {
+            assertThat(files.count(), is(1L));
+        }
+    }
+
+    @Test
+    public void saveUrlToFile_withTruncatedContent_throwsExceptionAndLeavesNoFile() throws Exception {
+        // arrange
+        CloseableHttpClient httpClientMock = recordHttpClientForDownloadWithContentLength("file", "file content".length());
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        Path outputPath = tempDir.resolve("file.txt");
+
+        // act + assert
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile()));
+        assertThat(exception.getMessage(), containsString("Incomplete download"));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertThat(files.count(), is(0L));
+        }
+    }
+
+    @Test
+    public void saveUrlToFile_withValidatorsOfPreviousDownload_sendsConditionalRequestAndKeepsFileOnNotModified() throws Exception {
+        // arrange
+        CloseableHttpResponse downloadResponse = recordHttpResponseForDownload(200, "file content", "\"v1\"");
+        CloseableHttpResponse notModifiedResponse = recordHttpResponseForDownload(304, "", "\"v1\"");
+        CloseableHttpClient httpClientMock = anyCloseableHttpClient();
+        when(httpClientMock.execute(any(HttpRequestBase.class))).thenReturn(downloadResponse, notModifiedResponse);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        Path outputPath = tempDir.resolve("dump").resolve("file.txt");
+
+        // act
+        HttpValidatorCache validatorCache = HttpValidatorCache.load(tempDir);
+        boolean downloaded = confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile(), validatorCache);
+        validatorCache.save();
+        boolean downloadedAgain = confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile(), HttpValidatorCache.load(tempDir));
+
+        // assert
+        ArgumentCaptor<HttpGet> httpGetArgumentCaptor = ArgumentCaptor.forClass(HttpGet.class);
+        verify(httpClientMock, times(2)).execute(httpGetArgumentCaptor.capture());
+        assertThat(httpGetArgumentCaptor.getAllValues().get(0).getFirstHeader("If-None-Match"), is(nullValue()));
+        assertThat(httpGetArgumentCaptor.getAllValues().get(1).getFirstHeader("If-None-Match").getValue(), is("\"v1\""));
+        assertThat(downloaded, is(true));
+        assertThat(downloadedAgain, is(false));
+        assertThat(new String(Files.readAllBytes(outputPath), UTF_8), is("file content"));
+    }
+
+    @Test
+    public void saveUrlToFile_withLocallyModifiedFile_sendsUnconditionalRequest() throws Exception {
+        // arrange
+        CloseableHttpResponse downloadResponse = recordHttpResponseForDownload(200, "file content", "\"v1\"");
+        CloseableHttpResponse secondDownloadResponse = recordHttpResponseForDownload(200, "file content", "\"v1\"");
+        CloseableHttpClient httpClientMock = anyCloseableHttpClient();
+        when(httpClientMock.execute(any(HttpRequestBase.class))).thenReturn(downloadResponse, secondDownloadResponse);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        Path outputPath = tempDir.resolve("file.txt");
+        HttpValidatorCache validatorCache = HttpValidatorCache.load(tempDir);
+        confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile(), validatorCache);
+        Files.write(outputPath, "edited".getBytes(UTF_8));
+
+        // act
+        boolean downloadedAgain = confluenceRestClient.saveUrlToFile("/download/attachments/1234/file.txt", outputPath.toFile(), validatorCache);
+
+        // assert
+        ArgumentCaptor<HttpGet> httpGetArgumentCaptor = ArgumentCaptor.forClass(HttpGet.class);
+        verify(httpClientMock, times(2)).execute(httpGetArgumentCaptor.capture());
+        assertThat(httpGetArgumentCaptor.getAllValues().get(1).getFirstHeader("If-None-Match"), is(nullValue()));
+        assertThat(downloadedAgain, is(true));
+        assertThat(new String(Files.readAllBytes(outputPath), UTF_8), is("file content"));
+    }
+
     @Test
     public void addAttachment_withValidParameters_sendsMultipartHttpPostRequest() throws Exception {
         // arrange
@@ -171,7 +260,7 @@ public class RestApiInternalClientTest {
         RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
 
         // act
-        confluenceRestClient.addAttachment("1234", "file.txt", new ByteArrayInputStream("file content".getBytes()));
+        confluenceRestClient.addAttachment("1234", "file.txt", attachmentFile(), TransferProgressListener.NONE);
 
         // assert
         verify(httpClientMock, times(1)).execute(any(HttpPost.class));
@@ -184,7 +273,7 @@ public class RestApiInternalClientTest {
         RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
 
         // act
-        confluenceRestClient.updateAttachmentContent("1234", "att12", new ByteArrayInputStream("file content".getBytes()), true);
+        confluenceRestClient.updateAttachmentContent("1234", "att12", attachmentFile(), true, TransferProgressListener.NONE);
 
         // assert
         verify(httpClientMock, times(1)).execute(any(HttpPost.class));
@@ -261,6 +350,92 @@ public class RestApiInternalClientTest {
         assertThat(confluenceApiPage.getVersion(), is(1));
     }
 
+    @Test
+    public void savePageWithViewContent_withExistingContentId_streamsContentToFileAndReturnsPageWithoutContent() throws Exception {
+        // arrange
+        String responseFilePath = "src/test/resources/io/github/md2conf/confluence/client/http/page-content.json";
+        CloseableHttpClient httpClientMock = recordHttpClientForSingleResponseWithContentAndStatusCode(InputStreamUtils.fileContent(responseFilePath, UTF_8), 200);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        Path outputFile = tempDir.resolve("dump").resolve("1234.xhtml");
+
+        // act
+        ConfluenceApiPage confluenceApiPage = confluenceRestClient.savePageWithViewContent("1234", outputFile);
+
+        // assert
+        assertThat(confluenceApiPage.getContentId(), is("1234"));
+        assertThat(confluenceApiPage.getTitle(), is("Some title"));
+        assertThat(confluenceApiPage.getContent(), is(nullValue()));
+        assertThat(confluenceApiPage.getVersion(), is(1));
+        assertThat(new String(Files.readAllBytes(outputFile), UTF_8), is("Some content"));
+    }
+
+    @Test
+    public void savePageWithStorageContent_withExistingContentId_requestsStorageBodyAndStreamsItToFile() throws Exception {
+        // arrange
+        String response = "{\"id\": \"1234\", \"title\": \"Some title\", \"version\": {\"number\": 2}, " +
+                "\"body\": {\"storage\": {\"value\": \"<p>Storage content</p>\", \"representation\": \"storage\"}}}";
+        CloseableHttpClient httpClientMock = recordHttpClientForSingleResponseWithContentAndStatusCode(response, 200);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        ArgumentCaptor<HttpGet> httpGetArgumentCaptor = ArgumentCaptor.forClass(HttpGet.class);
+        Path outputFile = tempDir.resolve("dump").resolve("1234.xhtml");
+
+        // act
+        ConfluenceApiPage confluenceApiPage = confluenceRestClient.savePageWithStorageContent("1234", outputFile);
+
+        // assert
+        verify(httpClientMock).execute(httpGetArgumentCaptor.capture());
+        assertThat(httpGetArgumentCaptor.getValue().getURI().toString(), containsString("expand=body.storage,version"));
+        assertThat(confluenceApiPage.getVersion(), is(2));
+        assertThat(new String(Files.readAllBytes(outputFile), UTF_8), is("<p>Storage content</p>"));
+    }
+
+    @Test
+    public void getDescendantPages_withResultsOnTwoSearchPages_returnsPagesWithDirectParentId() throws Exception {
+        // arrange
+        String firstResultSet = "{\"results\": ["
+                + "{\"id\": \"2\", \"title\": \"Page 2\", \"version\": {\"number\": 3}, \"ancestors\": [{\"id\": \"100\"}, {\"id\": \"1234\"}]}"
+                + "], \"size\": 1, \"_links\": {\"next\": \"/rest/api/content/search?start=1\"}}";
+        String secondResultSet = "{\"results\": ["
+                + "{\"id\": \"3\", \"title\": \"Page 3\", \"version\": {\"number\": 1}, \"ancestors\": [{\"id\": \"100\"}, {\"id\": \"1234\"}, {\"id\": \"2\"}]}"
+                + "], \"size\": 1, \"_links\": {}}";
+        CloseableHttpClient httpClientMock = recordHttpClientForMultipleResponsesWithContentAndStatusCode(asList(firstResultSet, secondResultSet), asList(200, 200));
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        ArgumentCaptor<HttpGet> httpGetArgumentCaptor = ArgumentCaptor.forClass(HttpGet.class);
+
+        // act
+        List<ConfluenceApiPage> descendants = confluenceRestClient.getDescendantPages("1234");
+
+        // assert
+        assertThat(descendants, contains(new ConfluenceApiPage("2", "Page 2", 3, "1234"), new ConfluenceApiPage("3", "Page 3", 1, "2")));
+        verify(httpClientMock, times(2)).execute(httpGetArgumentCaptor.capture());
+        assertThat(httpGetArgumentCaptor.getAllValues().get(0).getURI().toString(), containsString("cql=ancestor+%3D+1234+and+type+%3D+page"));
+        assertThat(httpGetArgumentCaptor.getAllValues().get(0).getURI().toString(), containsString("expand=ancestors%2Cversion"));
+        assertThat(httpGetArgumentCaptor.getAllValues().get(1).getURI().toString(), containsString("start=1"));
+    }
+
+    @Test
+    public void getDescendantPages_withCqlCondition_joinsConditionToSearchQueryAndReturnsAncestorIdsAndPositions() throws Exception {
+        // arrange
+        String resultSet = "{\"results\": ["
+                + "{\"id\": \"3\", \"title\": \"Page 3\", \"version\": {\"number\": 1}, \"ancestors\": [{\"id\": \"100\"}, {\"id\": \"1234\"}, {\"id\": \"2\"}], \"extensions\": {\"position\": 2}},"
+                + "{\"id\": \"4\", \"title\": \"Page 4\", \"version\": {\"number\": 1}, \"ancestors\": [{\"id\": \"100\"}, {\"id\": \"1234\"}, {\"id\": \"2\"}], \"extensions\": {\"position\": \"none\"}}"
+                + "], \"size\": 2, \"_links\": {}}";
+        CloseableHttpClient httpClientMock = recordHttpClientForSingleResponseWithContentAndStatusCode(resultSet, 200);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+        ArgumentCaptor<HttpGet> httpGetArgumentCaptor = ArgumentCaptor.forClass(HttpGet.class);
+
+        // act
+        List<ConfluenceApiPage> descendants = confluenceRestClient.getDescendantPages("1234", "label in (\"sync\")");
+
+        // assert
+        assertThat(descendants.get(0).getAncestorIds(), contains("100", "1234", "2"));
+        assertThat(descendants.get(0).getParentId(), is("2"));
+        assertThat(descendants.get(0).getPosition(), is(2));
+        assertThat(descendants.get(1).getPosition(), is(nullValue()));
+        verify(httpClientMock).execute(httpGetArgumentCaptor.capture());
+        assertThat(httpGetArgumentCaptor.getValue().getURI().toString(), containsString("cql=ancestor+%3D+1234+and+type+%3D+page+and+label+in+%28%22sync%22%29"));
+    }
+
     @Test
     public void getChildPages_withValidParametersAndFirstResultSizeSmallerThanLimit_returnsListOfChildPagesWithTitleContentVersionAndId() throws Exception {
         // arrange
@@ -339,6 +514,21 @@ public class RestApiInternalClientTest {
         assertThat(confluenceAttachments, contains(attachmentOne, attachmentTwo));
     }
 
+    @Test
+    public void getAttachments_withExtensions_returnsAttachmentsWithFileSizeAndMediaType() throws Exception {
+        // arrange
+        String result = "{\"id\": \"1\", \"title\": \"image.png\", \"_links\": {\"download\": \"/download/image.png\"}, " +
+                "\"version\": {\"number\": 3}, \"extensions\": {\"mediaType\": \"image/png\", \"fileSize\": 1024}}";
+        CloseableHttpClient httpClientMock = recordHttpClientForSingleResponseWithContentAndStatusCode("{\"results\": [" + result + "], \"size\": 1}", 200);
+        RestApiInternalClient confluenceRestClient = new RestApiInternalClient(CONFLUENCE_ROOT_URL, httpClientMock, null, null, null);
+
+        // act
+        List<ConfluenceAttachment> confluenceAttachments = confluenceRestClient.getAttachments("1234");
+
+        // assert
+        assertThat(confluenceAttachments, contains(new ConfluenceAttachment("1", "image.png", "/download/image.png", 3, 1024, "image/png")));
+    }
+
     @Test
     public void getAttachments_withValidParametersAndFirstResultSizeHasSameSizeAsLimit_sendsASecondRequestToFetchNextAttachments() throws Exception {
         // arrange
@@ -665,4 +855,36 @@ public class RestApiInternalClientTest {
                 .collect(Collectors.joining(",\n"));
     }
 
+
+    private Path attachmentFile() throws IOException {
+        return Files.write(tempDir.resolve("file.txt"), "file content".getBytes(UTF_8));
+    }
+
+    private static CloseableHttpClient recordHttpClientForDownloadWithContentLength(String contentPayload, long contentLength) throws IOException {
+        CloseableHttpResponse httpResponseMock = mock(CloseableHttpResponse.class);
+        HttpEntity httpEntityMock = recordHttpEntityForContent(contentPayload);
+        when(httpEntityMock.getContentLength()).thenReturn(contentLength);
+        when(httpResponseMock.getEntity()).thenReturn(httpEntityMock);
+
+        StatusLine statusLineMock = recordStatusLine(200, null);
+        when(httpResponseMock.getStatusLine()).thenReturn(statusLineMock);
+
+        CloseableHttpClient httpClientMock = anyCloseableHttpClient();
+        when(httpClientMock.execute(any(HttpRequestBase.class))).thenReturn(httpResponseMock);
+
+        return httpClientMock;
+    }
+
+    private static CloseableHttpResponse recordHttpResponseForDownload(int statusCode, String contentPayload, String etag) {
+        CloseableHttpResponse httpResponseMock = mock(CloseableHttpResponse.class);
+        HttpEntity httpEntityMock = recordHttpEntityForContent(contentPayload);
+        when(httpEntityMock.getContentLength()).thenReturn((long) contentPayload.length());
+        when(httpResponseMock.getEntity()).thenReturn(httpEntityMock);
+        when(httpResponseMock.getFirstHeader("ETag")).thenReturn(new BasicHeader("ETag", etag));
+
+        StatusLine statusLineMock = recordStatusLine(statusCode, null);
+        when(httpResponseMock.getStatusLine()).thenReturn(statusLineMock);
+
+        return httpResponseMock;
+    }
 }
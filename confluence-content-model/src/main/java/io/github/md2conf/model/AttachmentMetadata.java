@@ -0,0 +1,22 @@
+package io.github.md2conf.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Size and content hash of an attachment file, known at conversion time
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttachmentMetadata {
+
+    private long size;
+    /**
+     * Lowercase hex SHA-256 hash of the file content
+     */
+    private String sha256;
+}
@@ -1,5 +1,6 @@
 package io.github.md2conf.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -10,8 +11,13 @@ import java.util.Map;
 import java.util.Objects;
 
 import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
 
 /**
+ * Pages without children, attachments or labels share empty immutable collections, so big models don't keep empty
+ * collections for every page. Use {@link #addChild}, {@link #putAttachment} and {@link #putRemoteAttachment} to add
+ * entries, they copy null or immutable collections on first write.
+ *
  * @author Alain Sahli
  */
 @Setter
@@ -21,13 +27,57 @@ public class ConfluencePage {
     private String title;
     private String contentFilePath;
     private ConfluenceContentModel.Type type = ConfluenceContentModel.Type.STORAGE;
-    private List<ConfluencePage> children = new ArrayList<>();
-    private Map<String, String> attachments = new HashMap<>();
-    private List<String> labels = new ArrayList<>();
+    private List<ConfluencePage> children = emptyList();
+    private Map<String, String> attachments = emptyMap();
+    /**
+     * Attachments listed but not downloaded, by name, with download link relative to Confluence url
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, String> remoteAttachments = emptyMap();
+    /**
+     * Size and content hash of attachments by name, if known at conversion time, so attachment files are not read to
+     * find out whether they are modified
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<String, AttachmentMetadata> attachmentMetadata = emptyMap();
+    private List<String> labels = emptyList();
     private boolean skipUpdate = false;
 
     public List<ConfluencePage> getChildren() {
         return Objects.requireNonNullElse(this.children, emptyList());
     }
 
+    public void addChild(ConfluencePage child) {
+        children = mutableList(children);
+        children.add(child);
+    }
+
+    public void putAttachment(String name, String path) {
+        attachments = mutableMap(attachments);
+        attachments.put(name, path);
+    }
+
+    public void putRemoteAttachment(String name, String relativeDownloadLink) {
+        remoteAttachments = mutableMap(remoteAttachments);
+        remoteAttachments.put(name, relativeDownloadLink);
+    }
+
+    /**
+     * @return the list if it's an {@link ArrayList}, otherwise its mutable copy, since shared empty, immutable or null
+     * list may be set
+     */
+    private static <T> List<T> mutableList(List<T> list) {
+        if (list instanceof ArrayList) {
+            return list;
+        }
+        return list == null ? new ArrayList<>(2) : new ArrayList<>(list);
+    }
+
+    private static <K, V> Map<K, V> mutableMap(Map<K, V> map) {
+        if (map instanceof HashMap) {
+            return map;
+        }
+        return map == null ? new HashMap<>(4) : new HashMap<>(map);
+    }
+
 }
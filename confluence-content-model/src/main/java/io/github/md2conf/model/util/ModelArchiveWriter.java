@@ -0,0 +1,98 @@
+package io.github.md2conf.model.util;
+
+import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Write dump as a single zip archive.
+ * <p>
+ * Files of dumped pages are moved from the source directory to the archive as soon as the page is dumped, so the
+ * archive is written sequentially and the source directory holds only pages being dumped. The model is written as the
+ * last entry "confluence-content-model.json", with paths relative to the archive root.
+ * <p>
+ * Archive is read back by {@link ModelFilesystemUtil#openArchive(Path)}.
+ */
+public class ModelArchiveWriter implements Closeable {
+
+    private final Path sourceDir;
+    private final ZipOutputStream zipOutputStream;
+
+    /**
+     * @param archivePath archive file to create
+     * @param sourceDir   directory the pages are dumped to, paths of the model are relative to it
+     */
+    public ModelArchiveWriter(Path archivePath, Path sourceDir) throws IOException {
+        this.sourceDir = sourceDir.toAbsolutePath().normalize();
+        Path parent = archivePath.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        this.zipOutputStream = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(archivePath)));
+    }
+
+    /**
+     * Move content file and attachments of the page to the archive, children are not processed. May be called
+     * concurrently.
+     */
+    public synchronized void movePage(ConfluencePage page) throws IOException {
+        if (page.getContentFilePath() != null) {
+            moveFile(page.getContentFilePath());
+        }
+        for (String attachmentPath : page.getAttachments().values()) {
+            moveFile(attachmentPath);
+        }
+    }
+
+    /**
+     * Write model as the last entry and complete the archive. All pages of the model must be moved before.
+     */
+    public synchronized void finish(ConfluenceContentModel model) throws IOException {
+        for (ConfluencePage page : model.getPages()) {
+            relativizePaths(page);
+        }
+        zipOutputStream.putNextEntry(new ZipEntry(ModelFilesystemUtil.DEFAULT_FILE_NAME));
+        ModelFilesystemUtil.writeModel(model, zipOutputStream);
+        zipOutputStream.closeEntry();
+        zipOutputStream.finish();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        zipOutputStream.close();
+    }
+
+    private void moveFile(String filePath) throws IOException {
+        Path path = Path.of(filePath);
+        zipOutputStream.putNextEntry(new ZipEntry(entryName(filePath)));
+        Files.copy(path, zipOutputStream);
+        zipOutputStream.closeEntry();
+        Files.delete(path);
+    }
+
+    private void relativizePaths(ConfluencePage page) {
+        if (page.getContentFilePath() != null) {
+            page.setContentFilePath(entryName(page.getContentFilePath()));
+        }
+        Map<String, String> attachments = new HashMap<>();
+        page.getAttachments().forEach((name, path) -> attachments.put(name, entryName(path)));
+        page.setAttachments(attachments);
+        for (ConfluencePage child : page.getChildren()) {
+            relativizePaths(child);
+        }
+    }
+
+    private String entryName(String filePath) {
+        Path relativePath = sourceDir.relativize(Path.of(filePath).toAbsolutePath().normalize());
+        return relativePath.toString().replace('\\', '/');
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.md2conf.model.util;
 
 import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,13 +11,20 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Locale;
 
 @Slf4j
 public class ModelFilesystemUtil {
 
     public static String DEFAULT_FILE_NAME = "confluence-content-model.json";
+    public static final String ARCHIVE_EXTENSION = ".zip";
     private static final ObjectMapper JSON_OBJECT_MAPPER = new ObjectMapper(new JsonFactory());
 
     static {
@@ -33,17 +41,42 @@ public class ModelFilesystemUtil {
     }
 
     /**
-     * Read model from file or directory with file "confluence-content-model.json"
+     * Read model from file or directory with file "confluence-content-model.json". The directory may be in any file
+     * system, including root of an archive opened by {@link #openArchive(Path)}.
      *
      * @param inputPath file or directory with file "confluence-content-model.json"
      * @return - ConfluenceContentModel
      */
     public static ConfluenceContentModel readModel(Path inputPath) {
-        Path modelFilePath = inputPath.toFile().isDirectory() ? inputPath.resolve(ModelFilesystemUtil.DEFAULT_FILE_NAME) : inputPath;
-        if (!modelFilePath.toFile().exists()) {
+        Path modelFilePath = Files.isDirectory(inputPath) ? inputPath.resolve(ModelFilesystemUtil.DEFAULT_FILE_NAME) : inputPath;
+        if (!Files.exists(modelFilePath)) {
             throw new IllegalArgumentException("File doesn't exists at path " + modelFilePath);
         }
-        return readFromYamlOrJson(modelFilePath.toFile());
+        log.info("Reading model from {}", modelFilePath.toUri());
+        try (InputStream inputStream = Files.newInputStream(modelFilePath)) {
+            return JSON_OBJECT_MAPPER.readValue(inputStream, ConfluenceContentModel.class);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return true if the path is a dump archive written by {@link ModelArchiveWriter}
+     */
+    public static boolean isArchive(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(ARCHIVE_EXTENSION);
+    }
+
+    /**
+     * Open dump archive for reading without extracting it. Entries are read with random access, paths of the model
+     * are relative to root directory of the returned file system.
+     */
+    public static FileSystem openArchive(Path archivePath) {
+        try {
+            return FileSystems.newFileSystem(archivePath, (ClassLoader) null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open archive " + archivePath, e);
+        }
     }
 
 
@@ -69,6 +102,12 @@ public class ModelFilesystemUtil {
         return jsonFile;
     }
 
+    static void writeModel(ConfluenceContentModel confluenceContentModel, OutputStream outputStream) throws IOException {
+        JSON_OBJECT_MAPPER.writer(new DefaultPrettyPrinter())
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValue(outputStream, confluenceContentModel);
+    }
+
     private static void createDirectories(Path directoryPath) {
         try {
             Files.createDirectories(directoryPath);
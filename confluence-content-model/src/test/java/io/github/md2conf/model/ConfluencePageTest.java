@@ -0,0 +1,56 @@
+package io.github.md2conf.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class ConfluencePageTest {
+
+    @Test
+    void empty_pages_share_collections() {
+        ConfluencePage first = new ConfluencePage();
+        ConfluencePage second = new ConfluencePage();
+
+        assertThat(first.getChildren()).isSameAs(second.getChildren()).isEmpty();
+        assertThat(first.getAttachments()).isSameAs(second.getAttachments()).isEmpty();
+        assertThat(first.getLabels()).isSameAs(second.getLabels()).isEmpty();
+    }
+
+    @Test
+    void entries_are_added_to_own_collections() {
+        ConfluencePage page = new ConfluencePage();
+        ConfluencePage child = new ConfluencePage();
+
+        page.addChild(child);
+        page.putAttachment("image.png", "/tmp/image.png");
+        page.putRemoteAttachment("remote.png", "/download/remote.png");
+
+        assertThat(page.getChildren()).containsExactly(child);
+        assertThat(page.getAttachments()).containsEntry("image.png", "/tmp/image.png");
+        assertThat(page.getRemoteAttachments()).containsEntry("remote.png", "/download/remote.png");
+        assertThat(new ConfluencePage().getChildren()).isEmpty();
+        assertThat(new ConfluencePage().getAttachments()).isEmpty();
+    }
+
+    @Test
+    void entries_are_added_to_null_and_immutable_collections() {
+        ConfluencePage page = new ConfluencePage();
+        ConfluencePage first = new ConfluencePage();
+        ConfluencePage second = new ConfluencePage();
+        page.setChildren(List.of(first));
+        page.setAttachments(null);
+        page.setRemoteAttachments(Map.of("a.png", "/download/a.png"));
+
+        page.addChild(second);
+        page.putAttachment("image.png", "/tmp/image.png");
+        page.putRemoteAttachment("remote.png", "/download/remote.png");
+
+        assertThat(page.getChildren()).containsExactly(first, second);
+        assertThat(page.getAttachments()).containsOnly(entry("image.png", "/tmp/image.png"));
+        assertThat(page.getRemoteAttachments()).containsOnly(entry("a.png", "/download/a.png"), entry("remote.png", "/download/remote.png"));
+    }
+}
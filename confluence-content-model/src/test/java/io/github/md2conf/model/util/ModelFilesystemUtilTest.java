@@ -7,6 +7,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -109,5 +111,31 @@ class ModelFilesystemUtilTest {
         assertThat(exception).hasCauseInstanceOf(IOException.class);
     }
 
+    @Test
+    void model_is_read_from_archive_with_paths_relative_to_archive_root() throws IOException {
+        Path sourceDir = outputTmpDir.resolve("dump");
+        Path contentFile = Files.createDirectories(sourceDir.resolve("1")).resolve("2.xhtml");
+        Files.writeString(contentFile, "<p>content</p>");
+        Path attachmentFile = Files.writeString(sourceDir.resolve("1").resolve("attachment.txt"), "attachment");
+        ConfluencePage page = createConfluencePageWithAttachments("Page", WIKI, contentFile.toString(),
+                Map.of("attachment.txt", attachmentFile.toString()));
+        Path archivePath = outputTmpDir.resolve("dump.zip");
+
+        try (ModelArchiveWriter archiveWriter = new ModelArchiveWriter(archivePath, sourceDir)) {
+            archiveWriter.movePage(page);
+            archiveWriter.finish(new ConfluenceContentModel(page));
+        }
+
+        assertThat(contentFile).doesNotExist();
+        assertThat(ModelFilesystemUtil.isArchive(archivePath)).isTrue();
+        try (FileSystem archive = ModelFilesystemUtil.openArchive(archivePath)) {
+            Path root = archive.getPath("/");
+            ConfluencePage readPage = ModelFilesystemUtil.readModel(root).getPages().get(0);
+            assertThat(readPage.getContentFilePath()).isEqualTo("1/2.xhtml");
+            assertThat(root.resolve(readPage.getContentFilePath())).content().isEqualTo("<p>content</p>");
+            assertThat(root.resolve(readPage.getAttachments().get("attachment.txt"))).content().isEqualTo("attachment");
+        }
+    }
+
     // todo more tests for readModel
 }
\ No newline at end of file
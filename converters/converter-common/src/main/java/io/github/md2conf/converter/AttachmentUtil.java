@@ -1,16 +1,21 @@
 package io.github.md2conf.converter;
 
+import io.github.md2conf.indexer.FileMetadata;
+import io.github.md2conf.indexer.Page;
+import io.github.md2conf.model.AttachmentMetadata;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.file.PathUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +33,27 @@ public class AttachmentUtil {
                         Path::toString));
     }
 
+    /**
+     * @param attachments attachments of the converted page by name, as returned by {@link #toAttachmentsMap}
+     * @return size and hash of the page attachments with metadata collected by indexer, by attachment name
+     */
+    public static Map<String, AttachmentMetadata> toAttachmentMetadataMap(Page page, Map<String, String> attachments) {
+        if (page.fileMetadata().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, AttachmentMetadata> res = new HashMap<>();
+        for (Path attachment : page.attachments()) {
+            FileMetadata metadata = page.fileMetadata().get(attachment);
+            String name = FilenameUtils.getName(attachment.toString());
+            if (metadata != null && attachments.containsKey(name)) {
+                // hash is computed first, since it refreshes the size of a file modified after indexing
+                String sha256 = metadata.sha256();
+                res.put(name, new AttachmentMetadata(metadata.size(), sha256));
+            }
+        }
+        return res;
+    }
+
     @SafeVarargs
     public static Set<Path> copyPageAttachments(Path destinationPagePath, List<Path>... sourceAttachments) throws IOException {
         Set<Path> copiedAttachments = new HashSet<>();
@@ -50,10 +76,47 @@ public class AttachmentUtil {
     }
 
     public static List<Path> copyAttachmentsMap(Path destinationPagePath, Map<String, String> pathMap) throws IOException {
+        return copyAttachmentsMap(destinationPagePath, pathMap, Path.of(""));
+    }
+
+    /**
+     * Same as {@link #copyAttachmentsMap(Path, Map)}, relative source paths are resolved against the source root,
+     * which may be in other file system, e.g. root of a dump archive.
+     */
+    public static List<Path> copyAttachmentsMap(Path destinationPagePath, Map<String, String> pathMap, Path sourceRoot) throws IOException {
         if (pathMap.isEmpty()){
             return Collections.emptyList();
         }
         List<Path> copiedAttachments = new ArrayList<>();
+        File targetDir = prepareAttachmentsDirectory(destinationPagePath);
+        for (String name : pathMap.keySet()) {
+            Path sourcePath = sourceRoot.resolve(pathMap.get(name));
+            // file name as string, paths of different file systems cannot be resolved against each other
+            Path targetPath = targetDir.toPath().resolve(sourcePath.getFileName().toString());
+            copiedAttachments.add(Files.copy(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING));
+        }
+        return copiedAttachments;
+    }
+
+    /**
+     * Same as {@link #copyAttachmentsMap(Path, Map)}, but source files are moved. Used when source files are not
+     * needed after conversion, a move within the same file system is a rename.
+     */
+    public static List<Path> moveAttachmentsMap(Path destinationPagePath, Map<String, String> pathMap) throws IOException {
+        if (pathMap.isEmpty()){
+            return Collections.emptyList();
+        }
+        List<Path> movedAttachments = new ArrayList<>();
+        File targetDir = prepareAttachmentsDirectory(destinationPagePath);
+        for (String name : pathMap.keySet()) {
+            Path sourcePath = Path.of(pathMap.get(name));
+            Path targetPath = targetDir.toPath().resolve(sourcePath.getFileName().toString());
+            movedAttachments.add(Files.move(sourcePath, targetPath, StandardCopyOption.REPLACE_EXISTING));
+        }
+        return movedAttachments;
+    }
+
+    private static File prepareAttachmentsDirectory(Path destinationPagePath) throws IOException {
         File targetDir = attachmentsDirectoryByPagePath(destinationPagePath).toFile();
         if (targetDir.exists() && !targetDir.isDirectory()) {
             throw new IOException("targetDir is not directory " + targetDir);
@@ -62,11 +125,6 @@ public class AttachmentUtil {
                 throw new IOException("Cannot create dirs for path " + targetDir);
             }
         }
-        for (String name : pathMap.keySet()) {
-            Path sourcePath = Path.of(pathMap.get(name));
-            copiedAttachments.add(PathUtils.copyFileToDirectory(sourcePath,
-                    targetDir.toPath(), StandardCopyOption.REPLACE_EXISTING));
-        }
-        return copiedAttachments;
+        return targetDir;
     }
 }
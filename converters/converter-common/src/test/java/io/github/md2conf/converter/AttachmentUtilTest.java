@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,7 @@ import java.util.Set;
 
 import static io.github.md2conf.converter.AttachmentUtil.copyAttachmentsMap;
 import static io.github.md2conf.converter.AttachmentUtil.copyPageAttachments;
+import static io.github.md2conf.converter.AttachmentUtil.moveAttachmentsMap;
 import static io.github.md2conf.indexer.PathNameUtils.attachmentsDirectoryByPagePath;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchIOException;
@@ -89,4 +91,16 @@ class AttachmentUtilTest {
         assertThat(copiedAttachments).hasSize(1);
         assertThat(copiedAttachments.get(0)).exists();
     }
-}
\ No newline at end of file
+
+    @Test
+    void moveAttachmentsMap_moves_source_file() throws IOException {
+        Path attachment = tmpDir.resolve("source/sample.txt");
+        Files.createDirectories(attachment.getParent());
+        Files.copy(Path.of("src/test/resources/sample.txt"), attachment);
+        Path dstPath = tmpDir.resolve("3/dstPath_04.md");
+        List<Path> movedAttachments = moveAttachmentsMap(dstPath, Map.of("sample.txt", attachment.toString()));
+        assertThat(movedAttachments).containsExactly(attachmentsDirectoryByPagePath(dstPath).resolve("sample.txt"));
+        assertThat(movedAttachments.get(0)).exists();
+        assertThat(attachment).doesNotExist();
+    }
+}
@@ -56,6 +56,7 @@ public class CopyingConverter implements PageStructureConverter {
         result.setContentFilePath(targetPath.toString());
         result.setTitle(titleMap.get(page.path().toAbsolutePath()));
         result.setAttachments(AttachmentUtil.toAttachmentsMap(copiedAttachments));
+        result.setAttachmentMetadata(AttachmentUtil.toAttachmentMetadataMap(page, result.getAttachments()));
         result.setSkipUpdate(page.skipUpdate());
         if (page.children() != null && !page.children().isEmpty()) {
             String childrenDirAsStr = FilenameUtils.concat(
@@ -64,7 +65,7 @@ public class CopyingConverter implements PageStructureConverter {
             Path childrenDir = outputPath.resolve(childrenDirAsStr);
             FileUtils.forceMkdir(childrenDir.toFile());
             for (Page childPage : page.children()) {
-                result.getChildren().add(copyAndCreateConfluencePage(childPage, outputPath.relativize(childrenDir), titleMap));
+                result.addChild(copyAndCreateConfluencePage(childPage, outputPath.relativize(childrenDir), titleMap));
             }
         }
         if (needToRemoveTitle){
@@ -32,12 +32,16 @@ import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.vladsch.flexmark.html.HtmlRenderer.SUPPRESS_HTML_COMMENT_BLOCKS;
 import static com.vladsch.flexmark.html.HtmlRenderer.SUPPRESS_INLINE_HTML_COMMENTS;
+import static io.github.md2conf.converter.md2wiki.attachment.LocalPathUtil.collectCrosspageLinkPaths;
 import static io.github.md2conf.converter.md2wiki.attachment.LocalPathUtil.collectLocalAttachmentPaths;
 import static io.github.md2conf.converter.md2wiki.attachment.LocalPathUtil.collectLocalImagePaths;
 
@@ -48,6 +52,7 @@ public class Md2WikiConverter implements PageStructureConverter {
     private final boolean needToRemoveTitle;
     private final boolean plantumlMacro;
     private final String plantumlCodeMacroName;
+    private final Map<Path, Set<Path>> localReferences = new ConcurrentHashMap<>();
 
 
     public Md2WikiConverter(PageStructureTitleProcessor pagesStructureTitleProcessor,
@@ -82,7 +87,13 @@ public class Md2WikiConverter implements PageStructureConverter {
 
     @Override
     public ConfluenceContentModel convert(PagesStructure pagesStructure) throws IOException {
-        Map<Path, String> titleMap = pagesStructureTitleProcessor.toTitleMap(pagesStructure);
+        return convert(pagesStructure, toTitleMap(pagesStructure));
+    }
+
+    /**
+     * @param titleMap - title Map of the pages structure, as built by {@link #toTitleMap(PagesStructure)}
+     */
+    public ConfluenceContentModel convert(PagesStructure pagesStructure, Map<Path, String> titleMap) throws IOException {
         List<ConfluencePage> confluencePages = new ArrayList<>();
         for (Page topLevelPage : pagesStructure.pages()) { //use "for" loop to throw exception to caller
             ConfluencePage confluencePage;
@@ -92,6 +103,19 @@ public class Md2WikiConverter implements PageStructureConverter {
         return new ConfluenceContentModel(confluencePages);
     }
 
+    public Map<Path, String> toTitleMap(PagesStructure pagesStructure) throws IOException {
+        return pagesStructureTitleProcessor.toTitleMap(pagesStructure);
+    }
+
+    /**
+     * Local files referenced by the converted pages: source files of linked pages, images and linked attachments.
+     *
+     * @return absolute paths of referenced files by absolute path of page source file, for pages converted so far
+     */
+    public Map<Path, Set<Path>> localReferences() {
+        return Collections.unmodifiableMap(localReferences);
+    }
+
     /**
      * @param page         - a Page
      * @param relativePart - relative path to target path, used to process children recursively
@@ -99,6 +123,30 @@ public class Md2WikiConverter implements PageStructureConverter {
      * @return ConfluencePage
      */
     private ConfluencePage convertAndCreateConfluencePage(Page page, Path relativePart, Map<Path, String> titleMap) throws IOException {
+        ConfluencePage result = convertPage(page, relativePart, titleMap);
+        // process children
+        if (page.children() != null && !page.children().isEmpty()) {
+            String childrenDirAsStr = FilenameUtils.concat(
+                    relativePart.toString(),
+                    FilenameUtils.getBaseName(page.path().toString()));
+            Path childrenDir = outputPath.resolve(childrenDirAsStr);
+            FileUtils.forceMkdir(childrenDir.toFile());
+            for (Page childPage : page.children()) {
+                result.addChild(convertAndCreateConfluencePage(childPage, outputPath.relativize(childrenDir), titleMap));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Convert a single page without its children, used to convert again a page which source file was modified.
+     *
+     * @param page         - a Page
+     * @param relativePart - relative path to target path of the page
+     * @param titleMap     - title Map of the whole pages structure, used to resolve links to other pages
+     * @return ConfluencePage without children
+     */
+    public ConfluencePage convertPage(Page page, Path relativePart, Map<Path, String> titleMap) throws IOException {
 
         //read markdown file from Page path
         String markdown = FileUtils.readFileToString(page.path().toFile(), Charset.defaultCharset()); //todo extract charset as parameter
@@ -118,6 +166,10 @@ public class Md2WikiConverter implements PageStructureConverter {
         //collect attachments from local images and local file links
         List<Path> imagePaths = collectLocalImagePaths(document);
         List<Path> localAttachmentPaths = collectLocalAttachmentPaths(document);
+        Set<Path> references = new HashSet<>(collectCrosspageLinkPaths(document));
+        imagePaths.forEach(path -> references.add(path.toAbsolutePath().normalize()));
+        localAttachmentPaths.forEach(path -> references.add(path.toAbsolutePath().normalize()));
+        localReferences.put(page.path().toAbsolutePath().normalize(), references);
 
         //calculate output file names
         String targetFileName = FilenameUtils.getBaseName(page.path().toString()) + ".wiki";
@@ -131,21 +183,10 @@ public class Md2WikiConverter implements PageStructureConverter {
         ConfluencePage result = new ConfluencePage();
         result.setContentFilePath(targetPath.toString());
         result.setTitle(titleMap.get(page.path().toAbsolutePath()));
-        result.setAttachments(AttachmentUtil.toAttachmentsMap(copiedAttachments));
         result.setType(ConfluenceContentModel.Type.WIKI);
         result.setAttachments(AttachmentUtil.toAttachmentsMap(copiedAttachments));
+        result.setAttachmentMetadata(AttachmentUtil.toAttachmentMetadataMap(page, result.getAttachments()));
         result.setSkipUpdate(page.skipUpdate());
-        // process children
-        if (page.children() != null && !page.children().isEmpty()) {
-            String childrenDirAsStr = FilenameUtils.concat(
-                    relativePart.toString(),
-                    FilenameUtils.removeExtension(targetPath.getFileName().toString()));
-            Path childrenDir = outputPath.resolve(childrenDirAsStr);
-            FileUtils.forceMkdir(childrenDir.toFile());
-            for (Page childPage : page.children()) {
-                result.getChildren().add(convertAndCreateConfluencePage(childPage, outputPath.relativize(childrenDir), titleMap));
-            }
-        }
         if (needToRemoveTitle) {
             WikiTitleRemover.removeTitle(targetPath);
         }
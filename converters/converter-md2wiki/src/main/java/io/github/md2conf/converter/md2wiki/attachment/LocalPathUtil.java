@@ -4,6 +4,7 @@ import com.vladsch.flexmark.util.ast.Node;
 import com.vladsch.flexmark.util.ast.NodeVisitor;
 import com.vladsch.flexmark.util.ast.VisitHandler;
 import com.vladsch.flexmark.util.ast.Visitor;
+import io.github.md2conf.flexmart.ext.crosspage.links.CrosspageLink;
 import io.github.md2conf.flexmart.ext.local.attachments.LocalAttachmentLink;
 import io.github.md2conf.flexmart.ext.local.image.LocalImage;
 import org.jetbrains.annotations.NotNull;
@@ -32,6 +33,14 @@ public class LocalPathUtil {
         return new ArrayList<>(pathCollectorVisitor.getPaths());
     }
 
+    public static List<Path> collectCrosspageLinkPaths(Node document) {
+        PathCollectorVisitor<CrosspageLink> pathCollectorVisitor = new PathCollectorVisitor<>();
+        VisitHandler<CrosspageLink> visitHandler = new VisitHandler<>(CrosspageLink.class, pathCollectorVisitor);
+        NodeVisitor visitor = new NodeVisitor(visitHandler);
+        visitor.visit(document);
+        return new ArrayList<>(pathCollectorVisitor.getPaths());
+    }
+
     public static class PathCollectorVisitor<N extends Node> implements Visitor<N> {
         private final Set<Path> paths;
 
@@ -48,6 +57,9 @@ public class LocalPathUtil {
             if (node instanceof LocalImage) {
                 path = ((LocalImage) node).getPath();
             }
+            if (node instanceof CrosspageLink) {
+                path = ((CrosspageLink) node).getPath();
+            }
             if (path != null) {
                 paths.add(path);
             }
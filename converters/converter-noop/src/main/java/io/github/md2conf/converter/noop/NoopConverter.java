@@ -43,9 +43,10 @@ public class NoopConverter implements PageStructureConverter {
         result.setContentFilePath(page.path().toString());
         result.setTitle(titleMap.get(page.path().toAbsolutePath()));
         result.setAttachments(AttachmentUtil.toAttachmentsMap(page.attachments()));
+        result.setAttachmentMetadata(AttachmentUtil.toAttachmentMetadataMap(page, result.getAttachments()));
         for (Page childPage : page.children()) {
             ConfluencePage childConfluencePage = createConfluencePage(childPage, titleMap);
-            result.getChildren().add(childConfluencePage);
+            result.addChild(childConfluencePage);
         }
         if (needToRemoveTitle){
             WikiTitleRemover.removeTitle(page.path());
@@ -0,0 +1,44 @@
+package io.github.md2conf.converter.storage2md;
+
+import com.vladsch.flexmark.util.data.DataHolder;
+import io.github.md2conf.converter.storage2md.internal.StorageHtmlPreparer;
+import io.github.md2conf.converter.view2md.View2MdConverter;
+import io.github.md2conf.converter.view2md.internal.PreparedPage;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Convert pages dumped in Confluence storage format to markdown.
+ * <p>
+ * Storage XHTML is turned to plain html by {@link StorageHtmlPreparer} and converted the same way as view content.
+ * Links to other pages are resolved by page title.
+ */
+public class Storage2MdConverter extends View2MdConverter {
+
+    public Storage2MdConverter(Path outputDir, DataHolder formatOptions) {
+        this(outputDir, formatOptions, Path.of(""));
+    }
+
+    public Storage2MdConverter(Path outputDir, DataHolder formatOptions, Path sourceRoot) {
+        super(outputDir, formatOptions, sourceRoot);
+    }
+
+    @Override
+    protected HtmlPreparer htmlPreparer(List<PreparedPage> pages) {
+        Map<String, Long> pageIdByTitle = new HashMap<>();
+        addPageIds(pages, pageIdByTitle);
+        return new StorageHtmlPreparer(pageIdByTitle)::toHtml;
+    }
+
+    private static void addPageIds(List<PreparedPage> pages, Map<String, Long> pageIdByTitle) {
+        for (PreparedPage page : pages) {
+            if (page.getPageId() != null) {
+                pageIdByTitle.put(page.getPageTitle(), page.getPageId());
+            }
+            addPageIds(page.getChildren(), pageIdByTitle);
+        }
+    }
+}
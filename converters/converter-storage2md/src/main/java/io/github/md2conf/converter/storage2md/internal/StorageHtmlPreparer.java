@@ -0,0 +1,192 @@
+package io.github.md2conf.converter.storage2md.internal;
+
+import com.vladsch.flexmark.util.sequence.Escaping;
+import io.github.md2conf.converter.view2md.internal.PreparedPage;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.parser.Parser;
+import org.jsoup.select.Elements;
+
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static io.github.md2conf.indexer.PathNameUtils.attachmentsDirectoryByPagePath;
+
+/**
+ * Replace Confluence storage format elements with plain html, which is understood by html to markdown converter.
+ * <p>
+ * Common macros are converted locally: code and noformat to code blocks, info, note, tip and warning to block quotes,
+ * expand to its title and body, attachments to list of links. Table of contents is dropped. Body of other macros is
+ * kept as is.
+ */
+public class StorageHtmlPreparer {
+
+    private static final String VIEW_PAGE_LINK_PREFIX = "/pages/viewpage.action?pageId=";
+
+    private final Map<String, Long> pageIdByTitle;
+
+    public StorageHtmlPreparer(Map<String, Long> pageIdByTitle) {
+        this.pageIdByTitle = pageIdByTitle;
+    }
+
+    public String toHtml(PreparedPage page, String storage) {
+        Document document = Jsoup.parse(storage, "", Parser.xmlParser());
+        document.outputSettings().prettyPrint(false);
+        // children are replaced before their parents
+        Elements macros = document.select("ac|structured-macro, ac|macro");
+        for (int i = macros.size() - 1; i >= 0; i--) {
+            replaceMacro(macros.get(i), page);
+        }
+        for (Element link : document.select("ac|link")) {
+            replaceLink(link, page);
+        }
+        for (Element image : document.select("ac|image")) {
+            replaceImage(image, page);
+        }
+        document.select("ac|emoticon, ac|placeholder").remove();
+        for (Element element : document.select("*")) {
+            if (element.tagName().startsWith("ac:") || element.tagName().startsWith("ri:")) {
+                element.unwrap();
+            }
+        }
+        return document.html();
+    }
+
+    private void replaceMacro(Element macro, PreparedPage page) {
+        String name = macro.attr("ac:name").toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "code":
+            case "noformat":
+                replaceWithCodeBlock(macro);
+                break;
+            case "info":
+            case "note":
+            case "tip":
+            case "warning":
+                replaceWithBlockquote(macro, name);
+                break;
+            case "expand":
+                replaceWithTitledBody(macro, parameter(macro, "title", "Click here to expand..."));
+                break;
+            case "toc":
+                macro.remove();
+                break;
+            case "attachments":
+                replaceWithAttachmentList(macro, page);
+                break;
+            default:
+                Element body = macro.selectFirst("> ac|rich-text-body");
+                if (body != null) {
+                    body.unwrap();
+                    macro.select("> ac|parameter, > ac|plain-text-body").remove();
+                    macro.unwrap();
+                } else {
+                    macro.remove();
+                }
+        }
+    }
+
+    private static void replaceWithCodeBlock(Element macro) {
+        Element body = macro.selectFirst("> ac|plain-text-body");
+        Element pre = new Element("pre");
+        Element code = pre.appendElement("code").text(body != null ? body.wholeText() : "");
+        String language = parameter(macro, "language", null);
+        if (language != null) {
+            code.addClass("language-" + language);
+        }
+        macro.replaceWith(pre);
+    }
+
+    private static void replaceWithBlockquote(Element macro, String name) {
+        String label = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        String title = parameter(macro, "title", null);
+        Element blockquote = new Element("blockquote");
+        blockquote.appendElement("p").appendElement("strong").text(title != null ? label + ": " + title : label);
+        appendBody(macro, blockquote);
+        macro.replaceWith(blockquote);
+    }
+
+    private static void replaceWithTitledBody(Element macro, String title) {
+        // no wrapping element, html to markdown converter breaks preceding block quote on div
+        Element titleParagraph = new Element("p");
+        titleParagraph.appendElement("strong").text(title);
+        macro.before(titleParagraph);
+        Element body = macro.selectFirst("> ac|rich-text-body");
+        if (body != null) {
+            macro.before(body);
+            body.unwrap();
+        }
+        macro.remove();
+    }
+
+    private static void appendBody(Element macro, Element target) {
+        Element body = macro.selectFirst("> ac|rich-text-body");
+        if (body != null) {
+            target.appendChildren(new ArrayList<>(body.childNodes()));
+        }
+    }
+
+    private static void replaceWithAttachmentList(Element macro, PreparedPage page) {
+        Element list = new Element("ul");
+        for (String fileName : new TreeSet<>(page.getAttachments().keySet())) {
+            list.appendElement("li").appendElement("a").attr("href", attachmentUrl(page, fileName)).text(fileName);
+        }
+        macro.replaceWith(list);
+    }
+
+    private void replaceLink(Element link, PreparedPage page) {
+        Element pageRef = link.selectFirst("> ri|page");
+        Element attachmentRef = link.selectFirst("> ri|attachment");
+        String href = null;
+        String defaultText = null;
+        if (pageRef != null) {
+            defaultText = pageRef.attr("ri:content-title");
+            Long pageId = pageIdByTitle.get(defaultText);
+            href = pageId != null ? VIEW_PAGE_LINK_PREFIX + pageId : null;
+        } else if (attachmentRef != null) {
+            defaultText = attachmentRef.attr("ri:filename");
+            href = attachmentUrl(page, defaultText);
+        }
+        Element body = link.selectFirst("> ac|plain-text-link-body, > ac|link-body");
+        String text = body != null ? body.text() : defaultText;
+        if (href == null) {
+            link.replaceWith(new TextNode(text != null ? text : ""));
+            return;
+        }
+        link.replaceWith(new Element("a").attr("href", href).text(text));
+    }
+
+    private static void replaceImage(Element image, PreparedPage page) {
+        Element attachmentRef = image.selectFirst("> ri|attachment");
+        Element urlRef = image.selectFirst("> ri|url");
+        if (attachmentRef != null) {
+            String fileName = attachmentRef.attr("ri:filename");
+            image.replaceWith(new Element("img").attr("src", attachmentUrl(page, fileName)).attr("alt", fileName));
+        } else if (urlRef != null) {
+            image.replaceWith(new Element("img").attr("src", urlRef.attr("ri:value")).attr("alt", image.attr("ac:alt")));
+        } else {
+            image.remove();
+        }
+    }
+
+    private static String parameter(Element macro, String name, String defaultValue) {
+        for (Element parameter : macro.select("> ac|parameter")) {
+            if (name.equals(parameter.attr("ac:name"))) {
+                return parameter.text();
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Path to the attachment relative to the markdown file, attachments are copied next to it by converter.
+     */
+    private static String attachmentUrl(PreparedPage page, String fileName) {
+        String directoryName = attachmentsDirectoryByPagePath(page.getTargetPath()).getFileName().toString();
+        return Escaping.percentEncodeUrl(directoryName + "/" + fileName);
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.md2conf.converter.storage2md;
+
+import com.vladsch.flexmark.util.data.MutableDataSet;
+import io.github.md2conf.indexer.PagesStructure;
+import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.util.ModelFilesystemUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class Storage2MdConverterTest {
+
+    @TempDir
+    private Path outputPath;
+
+    private Storage2MdConverter storage2MdConverter;
+
+    @BeforeEach
+    void setUp() {
+        storage2MdConverter = new Storage2MdConverter(outputPath, new MutableDataSet());
+    }
+
+    @Test
+    void convert_multiple() {
+        PagesStructure pagesStructure = convertMultiple();
+        assertThat(pagesStructure.pages()).hasSize(1);
+        assertThat(pagesStructure.pages().get(0).attachments()).hasSize(1);
+        assertThat(pagesStructure.pages().get(0).children()).hasSize(1);
+        assertThat(outputPath.resolve("Storage Root_attachments/welcome.png")).isRegularFile();
+    }
+
+    @Test
+    void macros_are_converted() {
+        convertMultiple();
+        assertThat(outputPath.resolve("Storage Root.md")).isRegularFile()
+                .content()
+                .contains("# Storage Root")
+                .contains("```java\nif (a < b && b > c) {\n    return;\n}\n```")
+                .contains("> **Info: Heads up**")
+                .contains("> Storage format is not rendered.")
+                .contains("**Details**")
+                .contains("Hidden text")
+                .contains("[welcome.png](Storage%20Root_attachments/welcome.png)")
+                .doesNotContain("maxLevel")
+                .doesNotContain("ac:");
+        assertThat(outputPath.resolve("Storage Root/Child Page.md")).isRegularFile()
+                .content()
+                .contains("> **Note**")
+                .contains("> Note body");
+    }
+
+    @Test
+    void crosspage_link_is_converted() {
+        convertMultiple();
+        assertThat(outputPath.resolve("Storage Root.md")).isRegularFile()
+                .content()
+                .contains("[child page](Storage%20Root/Child%20Page.md)")
+                .contains("![welcome.png](Storage%20Root_attachments/welcome.png)");
+        assertThat(outputPath.resolve("Storage Root/Child Page.md")).isRegularFile()
+                .content()
+                .contains("[Storage Root](../Storage%20Root.md)");
+    }
+
+    private PagesStructure convertMultiple() {
+        Path modelPath = Paths.get("src/test/resources/storage_multiple_page/confluence-content-model.json");
+        ConfluenceContentModel model = ModelFilesystemUtil.readModel(modelPath);
+        return storage2MdConverter.convert(model);
+    }
+}
@@ -0,0 +1 @@
+memberSearchIndex = [{"p":"io.github.md2conf.converter.storage2md","c":"Storage2MdConverter","l":"htmlPreparer(List<PreparedPage>)","u":"htmlPreparer(java.util.List)"},{"p":"io.github.md2conf.converter.storage2md","c":"Storage2MdConverter","l":"Storage2MdConverter(Path, DataHolder)","u":"%3Cinit%3E(java.nio.file.Path,com.vladsch.flexmark.util.data.DataHolder)"},{"p":"io.github.md2conf.converter.storage2md","c":"Storage2MdConverter","l":"Storage2MdConverter(Path, DataHolder, Path)","u":"%3Cinit%3E(java.nio.file.Path,com.vladsch.flexmark.util.data.DataHolder,java.nio.file.Path)"},{"p":"io.github.md2conf.converter.storage2md.internal","c":"StorageHtmlPreparer","l":"StorageHtmlPreparer(Map<String, Long>)","u":"%3Cinit%3E(java.util.Map)"},{"p":"io.github.md2conf.converter.storage2md.internal","c":"StorageHtmlPreparer","l":"toHtml(PreparedPage, String)","u":"toHtml(io.github.md2conf.converter.view2md.internal.PreparedPage,java.lang.String)"}];updateSearchResults();
\ No newline at end of file
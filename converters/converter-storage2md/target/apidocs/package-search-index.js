@@ -0,0 +1 @@
+packageSearchIndex = [{"l":"All Packages","u":"allpackages-index.html"},{"l":"io.github.md2conf.converter.storage2md"},{"l":"io.github.md2conf.converter.storage2md.internal"}];updateSearchResults();
\ No newline at end of file
@@ -0,0 +1 @@
+typeSearchIndex = [{"l":"All Classes and Interfaces","u":"allclasses-index.html"},{"p":"io.github.md2conf.converter.storage2md","l":"Storage2MdConverter"},{"p":"io.github.md2conf.converter.storage2md.internal","l":"StorageHtmlPreparer"}];updateSearchResults();
\ No newline at end of file
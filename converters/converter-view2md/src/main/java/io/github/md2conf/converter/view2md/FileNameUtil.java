@@ -47,7 +47,7 @@ public class FileNameUtil {
             if (maxBytes % 2 == 1) {
                 maxBytes = maxBytes - 1;
             }
-            byte[] bytes = Arrays.copyOfRange(name.getBytes(), 0, maxBytes);
+            byte[] bytes = Arrays.copyOfRange(name.getBytes(StandardCharsets.UTF_8), 0, maxBytes);
             return new String(bytes, StandardCharsets.UTF_8) + "." + ext;
         }
     }
@@ -0,0 +1,40 @@
+package io.github.md2conf.converter.view2md;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.github.md2conf.markdown.formatter.ImageAttachmentUrlReplacer.extractFileNameFromConfluenceLink;
+
+/**
+ * Names of attachments referenced by page in view format: image sources and links to attachment downloads.
+ */
+public class ReferencedAttachments {
+
+    private static final Pattern ATTACHMENT_REFERENCE = Pattern.compile("(?:src|href|data-image-src)=\"[^\"]*?(/download/attachments/[^\"]+)\"");
+
+    public static Set<String> fileNames(Path contentFile) {
+        try {
+            return fileNames(Files.readString(contentFile));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read page content " + contentFile, e);
+        }
+    }
+
+    public static Set<String> fileNames(String viewHtml) {
+        Set<String> res = new HashSet<>();
+        Matcher matcher = ATTACHMENT_REFERENCE.matcher(viewHtml);
+        while (matcher.find()) {
+            String fileName = extractFileNameFromConfluenceLink(matcher.group(1));
+            res.add(URLDecoder.decode(fileName, StandardCharsets.UTF_8));
+        }
+        return res;
+    }
+}
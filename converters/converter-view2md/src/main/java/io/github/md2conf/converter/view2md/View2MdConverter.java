@@ -11,17 +11,23 @@ import io.github.md2conf.converter.view2md.internal.PreparedPageStructure;
 import io.github.md2conf.indexer.DefaultPage;
 import io.github.md2conf.indexer.DefaultPagesStructure;
 import io.github.md2conf.indexer.PagesStructure;
+import io.github.md2conf.markdown.formatter.CrosspageLinkReplacer;
 import io.github.md2conf.markdown.formatter.MarkdownFormatter;
 import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
 import org.apache.commons.io.FileUtils;
 
 import java.io.IOException;
-import java.nio.charset.Charset;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter.BR_AS_EXTRA_BLANK_LINES;
 import static com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter.BR_AS_PARA_BREAKS;
@@ -32,10 +38,22 @@ import static com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter.OUTPU
 import static com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter.SKIP_ATTRIBUTES;
 import static com.vladsch.flexmark.html2md.converter.FlexmarkHtmlConverter.WRAP_AUTO_LINKS;
 import static io.github.md2conf.converter.AttachmentUtil.copyAttachmentsMap;
+import static io.github.md2conf.converter.AttachmentUtil.moveAttachmentsMap;
+import static io.github.md2conf.converter.view2md.FileNameUtil.sanitizeFileName;
 
+/**
+ * Convert dumped Confluence pages to markdown.
+ * <p>
+ * Either the whole {@link ConfluenceContentModel} is converted by {@link #convert(ConfluenceContentModel)}, or pages
+ * are converted one by one as soon as they are dumped by {@link #convertDumpedPage(List, ConfluencePage)}. In the
+ * latter case links to pages converted later are rewritten by {@link #completeConversion()}.
+ * <p>
+ * Model may be read from a dump archive, its entries are read in place without extracting the archive.
+ */
 public class View2MdConverter implements ConfluenceModelConverter {
 
     private final Path outputDir;
+    private final Path sourceRoot;
     private final MutableDataSet options = new MutableDataSet()
             .set(LIST_CONTENT_INDENT, false)
             .set(SKIP_ATTRIBUTES, true)
@@ -48,21 +66,33 @@ public class View2MdConverter implements ConfluenceModelConverter {
             .set(EXT_INLINE_LINK, LinkConversion.MARKDOWN_EXPLICIT );
 
     private final MarkdownFormatter markdownFormatter;
+    private final Map<Long, Path> convertedPageIdPathMap = new ConcurrentHashMap<>();
+    private final Map<Path, Set<Long>> unresolvedPageLinks = new ConcurrentHashMap<>();
 
     public View2MdConverter(Path outputDir, DataHolder formatOptions) {
+        this(outputDir, formatOptions, Path.of(""));
+    }
+
+    /**
+     * @param sourceRoot directory relative paths of the model are resolved against, e.g. root of a dump archive
+     *                   opened by {@link io.github.md2conf.model.util.ModelFilesystemUtil#openArchive(Path)}
+     */
+    public View2MdConverter(Path outputDir, DataHolder formatOptions, Path sourceRoot) {
         this.outputDir = outputDir;
+        this.sourceRoot = sourceRoot;
         markdownFormatter = new MarkdownFormatter(formatOptions);
     }
 
     @Override
     public PagesStructure convert(ConfluenceContentModel model)  {
 
-        PreparedPageStructure preparedPageStructure = PreparedPageFactory.fromModel(model, outputDir);
+        PreparedPageStructure preparedPageStructure = PreparedPageFactory.fromModel(model, outputDir, sourceRoot);
         Map<Long,Path> pageIdPathMap = structureAsMap(preparedPageStructure);
+        HtmlPreparer htmlPreparer = htmlPreparer(preparedPageStructure.getPages());
         List<DefaultPage> resList = new ArrayList<>();
         for (PreparedPage page : preparedPageStructure.getPages()) {
             try {
-                resList.add(convertPage(page, pageIdPathMap, outputDir));
+                resList.add(convertPage(page, htmlPreparer, pageIdPathMap, outputDir));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -70,20 +100,98 @@ public class View2MdConverter implements ConfluenceModelConverter {
         return new DefaultPagesStructure(resList);
     }
 
-    private DefaultPage convertPage(PreparedPage page, Map<Long, Path> pageIdPathMap, Path outputDir) throws IOException {
-        String html = FileUtils.readFileToString(page.getSourcePath().toFile(), Charset.defaultCharset());
-        String md = FlexmarkHtmlConverter.builder(options).build().convert(html);
-        md = "# " + page.getPageTitle() +"\n\n" + md;
-        List<Path> attachments = copyAttachmentsMap(page.getTargetPath(), page.getAttachments());
+    /**
+     * Convert single dumped page. Source file of the page is deleted and its attachments are moved to the output
+     * directory. May be called concurrently.
+     *
+     * @param ancestorTitles titles of ancestors of the page
+     * @param page           dumped page
+     */
+    public void convertDumpedPage(List<String> ancestorTitles, ConfluencePage page) {
+        Path pageDir = outputDir;
+        for (String ancestorTitle : ancestorTitles) {
+            pageDir = pageDir.resolve(sanitizeFileName(ancestorTitle));
+        }
+        PreparedPage preparedPage = PreparedPageFactory.fromDumpedPage(page, pageDir);
+        if (preparedPage.getPageId() != null) {
+            convertedPageIdPathMap.put(preparedPage.getPageId(), preparedPage.getTargetPath());
+        }
+        try {
+            String md = toMarkdown(preparedPage, htmlPreparer(List.of()));
+            List<Path> attachments = moveAttachmentsMap(preparedPage.getTargetPath(), preparedPage.getAttachments());
+            String formattedText = markdownFormatter.format(md, attachments, convertedPageIdPathMap, pageDir);
+            FileUtils.writeStringToFile(preparedPage.getTargetPath().toFile(), formattedText, StandardCharsets.UTF_8);
+            Files.delete(preparedPage.getSourcePath());
+            Set<Long> unresolvedPageIds = CrosspageLinkReplacer.linkedPageIds(formattedText);
+            if (!unresolvedPageIds.isEmpty()) {
+                unresolvedPageLinks.put(preparedPage.getTargetPath(), unresolvedPageIds);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot convert page " + preparedPage.getSourcePath(), e);
+        }
+    }
+
+    /**
+     * Rewrite links to pages which were not converted yet, when the page linking to them was converted by
+     * {@link #convertDumpedPage(List, ConfluencePage)}. Only pages linking to such pages are read again, and only urls
+     * of these links are rewritten, the rest of the page is kept as is. Links to pages which were not converted at all
+     * are kept.
+     */
+    public void completeConversion() {
+        for (Path targetPath : Set.copyOf(unresolvedPageLinks.keySet())) {
+            Set<Long> unresolvedPageIds = unresolvedPageLinks.remove(targetPath);
+            if (unresolvedPageIds == null || unresolvedPageIds.stream().noneMatch(convertedPageIdPathMap::containsKey)) {
+                continue;
+            }
+            try {
+                String text = FileUtils.readFileToString(targetPath.toFile(), StandardCharsets.UTF_8);
+                String replacedText = CrosspageLinkReplacer.replacePageLinks(text, convertedPageIdPathMap, targetPath.getParent());
+                FileUtils.writeStringToFile(targetPath.toFile(), replacedText, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot rewrite links of page " + targetPath, e);
+            }
+        }
+    }
+
+    private DefaultPage convertPage(PreparedPage page, HtmlPreparer htmlPreparer, Map<Long, Path> pageIdPathMap, Path outputDir) throws IOException {
+        String md = toMarkdown(page, htmlPreparer);
+        List<Path> attachments = copyAttachmentsMap(page.getTargetPath(), page.getAttachments(), sourceRoot);
         String formattedText = markdownFormatter.format(md, attachments, pageIdPathMap, outputDir);
-        FileUtils.writeStringToFile(page.getTargetPath().toFile(), formattedText, Charset.defaultCharset());
+        FileUtils.writeStringToFile(page.getTargetPath().toFile(), formattedText, StandardCharsets.UTF_8);
         List<DefaultPage> childrenPages = new ArrayList<>();
         for (PreparedPage child: page.getChildren()){
-            childrenPages.add(convertPage(child, pageIdPathMap, outputDir.resolve(page.getPageTitle())));
+            childrenPages.add(convertPage(child, htmlPreparer, pageIdPathMap, outputDir.resolve(page.getPageTitle())));
         }
         return new DefaultPage(page.getTargetPath(), childrenPages, attachments);
     }
 
+    private String toMarkdown(PreparedPage page, HtmlPreparer htmlPreparer) throws IOException {
+        String html = htmlPreparer.toHtml(page, Files.readString(page.getSourcePath(), StandardCharsets.UTF_8));
+        String md = FlexmarkHtmlConverter.builder(options).build().convert(html);
+        return "# " + page.getPageTitle() +"\n\n" + md;
+    }
+
+    /**
+     * @param pages pages of the converted model, or empty list if a single dumped page is converted
+     * @return preparer of page content for html to markdown conversion
+     */
+    protected HtmlPreparer htmlPreparer(List<PreparedPage> pages) {
+        return (page, content) -> content;
+    }
+
+    /**
+     * Prepare content of a page for html to markdown conversion
+     */
+    @FunctionalInterface
+    protected interface HtmlPreparer {
+        /**
+         * @param page    page
+         * @param content content of the page source file
+         * @return html
+         */
+        String toHtml(PreparedPage page, String content);
+    }
+
     private static Map<Long,Path> structureAsMap(PreparedPageStructure preparedPageStructure){
         Map<Long,Path> pageIdToPathMap = new HashMap<>();
         for (PreparedPage page: preparedPageStructure.getPages()){
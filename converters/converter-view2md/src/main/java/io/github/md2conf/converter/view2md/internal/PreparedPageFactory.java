@@ -17,28 +17,47 @@ public class PreparedPageFactory {
     private static final Logger log = LoggerFactory.getLogger(PreparedPageFactory.class);
 
     public static PreparedPageStructure fromModel(ConfluenceContentModel model, Path outputDir) {
+        return fromModel(model, outputDir, Path.of(""));
+    }
+
+    /**
+     * @param sourceRoot directory relative paths of the model are resolved against
+     */
+    public static PreparedPageStructure fromModel(ConfluenceContentModel model, Path outputDir, Path sourceRoot) {
         List<PreparedPage> preparedPages = new ArrayList<>();
         for (ConfluencePage page : model.getPages()) {
-            preparedPages.add(convertPage(page, outputDir));
+            preparedPages.add(convertPage(page, outputDir, sourceRoot));
         }
         return new PreparedPageStructure(preparedPages);
     }
 
-    private static PreparedPage convertPage(ConfluencePage page, Path outputDir) {
+    /**
+     * Prepare single page, children are ignored
+     */
+    public static PreparedPage fromDumpedPage(ConfluencePage page, Path outputDir) {
+        return fromDumpedPage(page, outputDir, Path.of(""));
+    }
+
+    private static PreparedPage fromDumpedPage(ConfluencePage page, Path outputDir, Path sourceRoot) {
         PreparedPage preparedPage = new PreparedPage();
         preparedPage.setPageId(extractPageId(page.getContentFilePath()));
         preparedPage.setPageTitle(page.getTitle());
-        preparedPage.setSourcePath(Path.of(page.getContentFilePath()));
+        preparedPage.setSourcePath(sourceRoot.resolve(page.getContentFilePath()));
         preparedPage.setAttachments(page.getAttachments());
 
         var resName = sanitizeFileName(page.getTitle()+".md");
         Path targetPath =  outputDir.resolve(resName);
         preparedPage.setTargetPath(targetPath);
+        return preparedPage;
+    }
+
+    private static PreparedPage convertPage(ConfluencePage page, Path outputDir, Path sourceRoot) {
+        PreparedPage preparedPage = fromDumpedPage(page, outputDir, sourceRoot);
 
         List<PreparedPage> childernPages = new ArrayList<>();
         for (ConfluencePage confluencePage: page.getChildren()) {
             Path childPath = outputDir.resolve(sanitizeFileName(page.getTitle()));
-            childernPages.add(convertPage(confluencePage, childPath));
+            childernPages.add(convertPage(confluencePage, childPath, sourceRoot));
         }
         preparedPage.setChildren(childernPages);
 
@@ -0,0 +1,25 @@
+package io.github.md2conf.converter.view2md;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferencedAttachmentsTest {
+
+    @Test
+    void image_source_of_view_page_is_referenced() {
+        assertThat(ReferencedAttachments.fileNames(Paths.get("src/test/resources/view_single_page/65551.xhtml")))
+                .containsExactly("welcome.png");
+    }
+
+    @Test
+    void download_links_are_decoded_and_other_links_ignored() {
+        String html = "<a href=\"https://confluence.example.com/download/attachments/1/my%20report.pdf?api=v2\">report</a>" +
+                "<a href=\"/pages/viewpage.action?pageId=2\">page</a>" +
+                "<img src=\"/images/icons/emoticons/smile.svg\" />";
+
+        assertThat(ReferencedAttachments.fileNames(html)).containsExactly("my report.pdf");
+    }
+}
@@ -3,15 +3,23 @@ package io.github.md2conf.converter.view2md;
 import com.vladsch.flexmark.util.data.MutableDataSet;
 import io.github.md2conf.indexer.PagesStructure;
 import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+import io.github.md2conf.model.util.ModelArchiveWriter;
 import io.github.md2conf.model.util.ModelFilesystemUtil;
+import org.apache.commons.io.FileUtils;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -78,6 +86,88 @@ class View2MdConverterTest {
                 .contains("![welcome.png](Welcome%20to%20Confluence_attachments/welcome.png)");
     }
 
+    @Test
+    void dumped_pages_are_converted_one_by_one() throws IOException {
+        Path dumpDir = outputPath.resolve(".dump");
+        FileUtils.copyDirectory(Paths.get("src/test/resources/view_multiple_page").toFile(), dumpDir.toFile());
+        ConfluencePage root = dumpedPage("Welcome to Confluence", dumpDir.resolve("65551.xhtml"), Map.of("welcome.png", dumpDir.resolve("welcome.png")));
+        ConfluencePage child = dumpedPage("What is Confluence? (step 1 of 9)", dumpDir.resolve("65551/65552.xhtml"), Map.of());
+        ConfluencePage grandChild = dumpedPage("A quick look at the editor (step 2 of 9)", dumpDir.resolve("65551/65554.xhtml"),
+                Map.of("step-2-image-1.png", dumpDir.resolve("65551/step-2-image-1.png")));
+
+        view2MdConverter.convertDumpedPage(List.of(), root);
+        view2MdConverter.convertDumpedPage(List.of("Welcome to Confluence"), child);
+        view2MdConverter.convertDumpedPage(List.of("Welcome to Confluence", "What is Confluence? (step 1 of 9)"), grandChild);
+        view2MdConverter.completeConversion();
+
+        assertThat(outputPath.resolve("Welcome to Confluence.md")).isRegularFile()
+                .content()
+                .contains("[What is Confluence?](Welcome%20to%20Confluence/What%20is%20Confluence?%20(step%201%20of%209).md)")
+                .contains("[A quick look at the editor](Welcome%20to%20Confluence/What%20is%20Confluence?%20(step%201%20of%209)/A%20quick%20look%20at%20the%20editor%20(step%202%20of%209).md)")
+                .contains("![welcome.png](Welcome%20to%20Confluence_attachments/welcome.png)");
+        assertThat(outputPath.resolve("Welcome to Confluence/What is Confluence? (step 1 of 9)/A quick look at the editor (step 2 of 9)_attachments/step-2-image-1.png")).isRegularFile();
+        assertThat(dumpDir.resolve("65551.xhtml")).doesNotExist();
+        assertThat(dumpDir.resolve("welcome.png")).doesNotExist();
+    }
+
+    @Test
+    void page_with_links_to_not_converted_pages_is_not_rewritten() throws IOException {
+        Path dumpDir = outputPath.resolve(".dump");
+        FileUtils.copyDirectory(Paths.get("src/test/resources/view_single_page").toFile(), dumpDir.toFile());
+        ConfluencePage page = dumpedPage("Welcome to Confluence", dumpDir.resolve("65551.xhtml"), Map.of("welcome.png", dumpDir.resolve("welcome.png")));
+        view2MdConverter.convertDumpedPage(List.of(), page);
+        Path targetPath = outputPath.resolve("Welcome to Confluence.md");
+        Files.setLastModifiedTime(targetPath, FileTime.fromMillis(0));
+
+        view2MdConverter.completeConversion();
+
+        assertThat(Files.getLastModifiedTime(targetPath)).isEqualTo(FileTime.fromMillis(0));
+        assertThat(targetPath).content().contains("[Let's edit this page](/pages/viewpage.action?pageId=65549)");
+    }
+
+    @Test
+    void dump_archive_is_converted_without_extracting() throws IOException {
+        Path dumpDir = outputPath.resolve(".dump");
+        FileUtils.copyDirectory(Paths.get("src/test/resources/view_multiple_page").toFile(), dumpDir.toFile());
+        ConfluencePage root = dumpedPage("Welcome to Confluence", dumpDir.resolve("65551.xhtml"), Map.of("welcome.png", dumpDir.resolve("welcome.png")));
+        ConfluencePage child = dumpedPage("What is Confluence? (step 1 of 9)", dumpDir.resolve("65551/65552.xhtml"), Map.of());
+        ConfluencePage grandChild = dumpedPage("A quick look at the editor (step 2 of 9)", dumpDir.resolve("65551/65554.xhtml"),
+                Map.of("step-2-image-1.png", dumpDir.resolve("65551/step-2-image-1.png")));
+        root.setChildren(List.of(child));
+        child.setChildren(List.of(grandChild));
+        Path archivePath = outputPath.resolve("dump.zip");
+        try (ModelArchiveWriter archiveWriter = new ModelArchiveWriter(archivePath, dumpDir)) {
+            archiveWriter.movePage(root);
+            archiveWriter.movePage(child);
+            archiveWriter.movePage(grandChild);
+            archiveWriter.finish(new ConfluenceContentModel(root));
+        }
+        assertThat(dumpDir.resolve("65551/65554.xhtml")).doesNotExist();
+        assertThat(ModelFilesystemUtil.isArchive(archivePath)).isTrue();
+
+        Path convertedPath = outputPath.resolve("converted");
+        try (FileSystem archive = ModelFilesystemUtil.openArchive(archivePath)) {
+            Path archiveRoot = archive.getPath("/");
+            ConfluenceContentModel model = ModelFilesystemUtil.readModel(archiveRoot);
+            new View2MdConverter(convertedPath, new MutableDataSet(), archiveRoot).convert(model);
+        }
+
+        assertThat(convertedPath.resolve("Welcome to Confluence.md")).isRegularFile()
+                .content()
+                .contains("[What is Confluence?](Welcome%20to%20Confluence/What%20is%20Confluence?%20(step%201%20of%209).md)")
+                .contains("![welcome.png](Welcome%20to%20Confluence_attachments/welcome.png)");
+        assertThat(convertedPath.resolve("Welcome to Confluence/What is Confluence? (step 1 of 9)/A quick look at the editor (step 2 of 9)_attachments/step-2-image-1.png")).isRegularFile();
+    }
+
+    private static ConfluencePage dumpedPage(String title, Path contentFilePath, Map<String, Path> attachments) {
+        ConfluencePage page = new ConfluencePage();
+        page.setTitle(title);
+        page.setType(ConfluenceContentModel.Type.VIEW);
+        page.setContentFilePath(contentFilePath.toString());
+        attachments.forEach((name, path) -> page.putAttachment(name, path.toString()));
+        return page;
+    }
+
     @Test
     void attachment_image_is_converted() {
         Path modelPath= Paths.get("src/test/resources/view_single_page/confluence-content-model.json");
@@ -57,6 +57,7 @@ public class CrosspageLinkPostProcessor extends NodePostProcessor {
 
                 CrosspageLink crosspageLink = new CrosspageLink((Link) node);
                 crosspageLink.setTitle(BasedSequence.of(titleMap.get(resolvedPath.toAbsolutePath())));
+                crosspageLink.setPath(resolvedPath.toAbsolutePath().normalize());
                 crosspageLink.takeChildren(node);
                 node.unlink();
                 if (parent != null) {
@@ -9,10 +9,20 @@ import com.vladsch.flexmark.util.sequence.BasedSequence;
 import com.vladsch.flexmark.util.sequence.Escaping;
 
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class CrosspageLinkReplacer {
 
+    public static final String VIEW_PAGE_LINK = "/pages/viewpage.action?pageId=";
+    /**
+     * Url of a link to a page in rendered markdown, like {@code [title](/pages/viewpage.action?pageId=1)}
+     */
+    private static final Pattern VIEW_PAGE_LINK_URL = Pattern.compile("(?<=\\()" + Pattern.quote(VIEW_PAGE_LINK) + "(\\d+)(?=[)\\s])");
+
     NodeVisitor visitor = new NodeVisitor(
             new VisitHandler<>(Link.class, this::visit)
     );
@@ -30,23 +40,57 @@ public class CrosspageLinkReplacer {
     }
 
     private void visit(Link node) {
-        if (node.getPageRef().startsWith("/pages/viewpage.action?pageId=")) {
+        if (node.getPageRef().startsWith(VIEW_PAGE_LINK)) {
             Long pageId = extractPageId(node.getPageRef().toString());
             if (pageIdPathMap.containsKey(pageId)) {
-                Path pagePath = pageIdPathMap.get(pageId).toAbsolutePath();
-                Path relativePath = currentDir.relativize(pagePath);
-                BasedSequence url = BasedSequence.of(Escaping.percentEncodeUrl(relativePath.toString()));
+                BasedSequence url = BasedSequence.of(relativeUrl(pageIdPathMap.get(pageId), currentDir));
                 node.setUrl(url);
                 node.setUrlChars(url);
                 if (node.getParent() instanceof TableCell){
                     TableCell tableCell = (TableCell) node.getParent();
                     BasedSequence tableCellText = tableCell.getText();
-                    tableCell.setText(tableCellText.replace("/pages/viewpage.action?pageId="+pageId, url));
+                    tableCell.setText(tableCellText.replace(VIEW_PAGE_LINK + pageId, url));
                 }
             }
         }
     }
 
+    /**
+     * @return ids of pages linked from rendered markdown by urls not replaced yet
+     */
+    public static Set<Long> linkedPageIds(String markdown) {
+        Set<Long> res = new HashSet<>();
+        Matcher matcher = VIEW_PAGE_LINK_URL.matcher(markdown);
+        while (matcher.find()) {
+            res.add(extractPageId(matcher.group()));
+        }
+        return res;
+    }
+
+    /**
+     * Replace urls of links to pages in already rendered markdown, without parsing it again. Only urls are replaced,
+     * so the rest of the text is kept as is.
+     *
+     * @param currentDir directory of the markdown file
+     * @return markdown with replaced urls
+     */
+    public static String replacePageLinks(String markdown, Map<Long, Path> pageIdPathMap, Path currentDir) {
+        Path absoluteCurrentDir = currentDir.toAbsolutePath();
+        Matcher matcher = VIEW_PAGE_LINK_URL.matcher(markdown);
+        StringBuilder res = new StringBuilder(markdown.length());
+        while (matcher.find()) {
+            Path pagePath = pageIdPathMap.get(extractPageId(matcher.group()));
+            String url = pagePath != null ? relativeUrl(pagePath, absoluteCurrentDir) : matcher.group();
+            matcher.appendReplacement(res, Matcher.quoteReplacement(url));
+        }
+        matcher.appendTail(res);
+        return res.toString();
+    }
+
+    private static String relativeUrl(Path pagePath, Path absoluteCurrentDir) {
+        return Escaping.percentEncodeUrl(absoluteCurrentDir.relativize(pagePath.toAbsolutePath()).toString());
+    }
+
     private static Long extractPageId(String url) {
         String[] parts = url.split("=");
         long res = 0L;
@@ -47,4 +47,18 @@ class CrosspageLinkReplacerTest {
                 "\n";
         Assertions.assertThat(res).isEqualTo(expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    void replaceLinkInRenderedMarkdown() {
+        String text = "# Welcome to Confluence\n" +
+                "\n" +
+                "[What is Confluence?](/pages/viewpage.action?pageId=65552) and [Other](/pages/viewpage.action?pageId=65553)\n";
+
+        Assertions.assertThat(CrosspageLinkReplacer.linkedPageIds(text)).containsExactlyInAnyOrder(65552L, 65553L);
+        String res = CrosspageLinkReplacer.replacePageLinks(text, Map.of(65552L, Path.of("./child/What is Confluence?.md")), Path.of("."));
+        String expected = "# Welcome to Confluence\n" +
+                "\n" +
+                "[What is Confluence?](child/What%20is%20Confluence?.md) and [Other](/pages/viewpage.action?pageId=65553)\n";
+        Assertions.assertThat(res).isEqualTo(expected);
+    }
+}
@@ -3,45 +3,66 @@ package io.github.md2conf.indexer;
 import lombok.Setter;
 
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static java.util.Collections.unmodifiableList;
 
+/**
+ * Page kept compact for big trees: path is stored as directory shared with sibling pages and file name, children are
+ * kept in an array and pages without children or attachments share empty instances.
+ */
 public class DefaultPage implements Page {
 
-    private final Path path;
-    private final List<DefaultPage> children;
+    private static final DefaultPage[] NO_CHILDREN = new DefaultPage[0];
+
+    private final Path directory;
+    private final String fileName;
+    private DefaultPage[] children = NO_CHILDREN;
+    private int childCount;
     private final List<Path> attachments;
     @Setter
     private boolean skipUpdate;
+    @Setter
+    private Map<Path, FileMetadata> fileMetadata = Map.of();
 
     public DefaultPage(Path path) {
-        this.path = path;
-        this.children = new ArrayList<>();
-        attachments = new ArrayList<>();
+        this(path, List.of());
     }
 
     public DefaultPage(Path path, List<Path> attachments) {
-        this.path = path;
-        this.children = new ArrayList<>();
-        this.attachments = attachments;
+        this.directory = path.getParent() != null ? path.getParent() : path.getFileSystem().getPath("");
+        this.fileName = path.getFileName().toString();
+        this.attachments = attachments.isEmpty() ? List.of() : attachments;
     }
 
     public DefaultPage(Path path, List<DefaultPage> children, List<Path> attachments) {
-        this.path = path;
-        this.children = children;
-        this.attachments = attachments;
+        this(path, attachments);
+        children.forEach(this::addChild);
+    }
+
+    /**
+     * @param directory directory of the page source file, the same instance should be passed for sibling pages
+     * @param fileName  name of the page source file
+     */
+    public DefaultPage(Path directory, String fileName, List<Path> attachments) {
+        this.directory = directory;
+        this.fileName = fileName;
+        this.attachments = attachments.isEmpty() ? List.of() : attachments;
     }
 
     @Override
     public Path path() {
-        return path;
+        return directory.resolve(fileName);
     }
 
     @Override
     public List<Page> children() {
-        return unmodifiableList(this.children);
+        if (childCount == 0) {
+            return List.of();
+        }
+        return unmodifiableList(Arrays.asList(children).subList(0, childCount));
     }
 
     @Override
@@ -54,7 +75,15 @@ public class DefaultPage implements Page {
         return skipUpdate;
     }
 
+    @Override
+    public Map<Path, FileMetadata> fileMetadata() {
+        return fileMetadata;
+    }
+
     public void addChild(DefaultPage page) {
-        this.children.add(page);
+        if (childCount == children.length) {
+            children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+        }
+        children[childCount++] = page;
     }
 }
@@ -4,6 +4,7 @@ import io.github.md2conf.indexer.impl.ChildInSameDirectoryFileIndexer;
 import io.github.md2conf.indexer.impl.ChildInSubDirectoryFileIndexer;
 
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public class DelegatingFileIndexer implements FileIndexer{
 
@@ -24,4 +25,9 @@ public class DelegatingFileIndexer implements FileIndexer{
     public PagesStructure indexPath(Path path) {
         return fileIndexer.indexPath(path);
     }
+
+    @Override
+    public void indexPath(Path path, Consumer<Page> pageConsumer) {
+        fileIndexer.indexPath(path, pageConsumer);
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.md2conf.indexer;
 
 import java.nio.file.Path;
+import java.util.function.Consumer;
 
 public interface FileIndexer {
 
@@ -10,4 +11,14 @@ public interface FileIndexer {
      * @return - PagesStructure object
      */
     PagesStructure indexPath(Path path);
+
+    /**
+     * Index files in given path and pass top-level pages to the consumer, in order of {@link #indexPath(Path)} result.
+     * Implementations may pass a page before the whole path is walked, so pages can be processed while indexing.
+     * @param path - input path
+     * @param pageConsumer - consumer of top-level pages with their children
+     */
+    default void indexPath(Path path, Consumer<Page> pageConsumer) {
+        indexPath(path).pages().forEach(pageConsumer);
+    }
 }
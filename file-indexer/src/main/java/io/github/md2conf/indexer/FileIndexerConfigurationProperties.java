@@ -5,18 +5,30 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.nio.file.Path;
+
 @Builder
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class FileIndexerConfigurationProperties {
 
+    /**
+     * Comma separated extensions of page source files, like "md,wiki"
+     */
     private String fileExtension = "wiki";
-    //maybe need to support several extensions in the same directory?
     private String excludePattern = "glob:**/.*";
 //    private String attachmentDirectorySuffix; //todo
     private String rootPage = null;
     private ChildLayout childLayout = ChildLayout.SUB_DIRECTORY;
     private OrphanFileAction orphanFileAction = OrphanFileAction.IGNORE;
+    /**
+     * File to cache directory listings between runs, directories not modified since are not listed again
+     */
+    private Path indexCacheFile = null;
+    /**
+     * Read size and modification time of page source files and attachments while indexing, see {@link Page#fileMetadata()}
+     */
+    private boolean collectFileMetadata = false;
 
 }
@@ -0,0 +1,87 @@
+package io.github.md2conf.indexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Size and modification time of a file read when the file was indexed, and SHA-256 hash of its content computed on
+ * first request.
+ * <p>
+ * The hash is computed again if size or modification time of the file changed since, so a stale hash is never
+ * returned for a file modified after indexing.
+ */
+public final class FileMetadata {
+
+    private final Path path;
+    private volatile long size;
+    private volatile long lastModified;
+    private volatile String sha256;
+
+    public FileMetadata(Path path, long size, long lastModified) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public static FileMetadata read(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return new FileMetadata(path, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return modification time in milliseconds since the epoch
+     */
+    public long lastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return lowercase hex SHA-256 hash of the file content
+     */
+    public synchronized String sha256() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (sha256 == null || attributes.size() != size || attributes.lastModifiedTime().toMillis() != lastModified) {
+                size = attributes.size();
+                lastModified = attributes.lastModifiedTime().toMillis();
+                sha256 = hash(path);
+            }
+            return sha256;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compute hash of file " + path, e);
+        }
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(path), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        StringBuilder res = new StringBuilder(64);
+        for (byte b : digest.digest()) {
+            res.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return res.toString();
+    }
+}
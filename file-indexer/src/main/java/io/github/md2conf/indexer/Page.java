@@ -2,6 +2,7 @@ package io.github.md2conf.indexer;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 
 public interface Page {
 
@@ -13,4 +14,11 @@ public interface Page {
 
     boolean skipUpdate();
 
+    /**
+     * @return metadata of the page source file and attachments by their paths, empty if not collected by indexer
+     */
+    default Map<Path, FileMetadata> fileMetadata() {
+        return Map.of();
+    }
+
 }
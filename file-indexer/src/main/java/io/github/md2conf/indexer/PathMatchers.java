@@ -0,0 +1,200 @@
+package io.github.md2conf.indexer;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Path matchers for patterns evaluated against every walked file and directory.
+ * <p>
+ * Common globs are compiled to checks of path name segments, done in place on the path string without regular
+ * expressions: {@code **}{@code /SEGMENT} matches the last segment, {@code **}{@code /SEGMENT/**} matches any segment
+ * but the last. A segment pattern is a literal name with at most one {@code *}, or a group of such alternatives like
+ * {@code *.{md,wiki}}. Other patterns are matched by {@link java.nio.file.FileSystem#getPathMatcher}.
+ * <p>
+ * Compiled globs are case-sensitive, so on Windows, where globs of the default file system are case-insensitive, all
+ * patterns are matched by the file system.
+ */
+public final class PathMatchers {
+
+    private static final String GLOB_SYNTAX = "glob:";
+    private static final String ANY_DIRECTORIES = "**/";
+    private static final boolean CASE_INSENSITIVE_GLOBS = FileSystems.getDefault().getSeparator().equals("\\");
+
+    private PathMatchers() {
+        throw new UnsupportedOperationException("Utils class cannot be instantiated");
+    }
+
+    /**
+     * @param syntaxAndPattern pattern in format of {@link java.nio.file.FileSystem#getPathMatcher}
+     */
+    public static PathMatcher compile(String syntaxAndPattern) {
+        PathMatcher res = CASE_INSENSITIVE_GLOBS ? null : compileGlob(syntaxAndPattern);
+        return res != null ? res : FileSystems.getDefault().getPathMatcher(syntaxAndPattern);
+    }
+
+    /**
+     * @param extensions comma separated file extensions without dots, like {@code md,wiki}
+     * @return matcher of files which extension, as returned by {@code FilenameUtils.getExtension}, is one of the
+     * extensions
+     */
+    public static Predicate<Path> fileExtensions(String extensions) {
+        String[] array = fileExtensionList(extensions).toArray(new String[0]);
+        return path -> {
+            String s = path.toString();
+            int nameStart = s.lastIndexOf(path.getFileSystem().getSeparator()) + 1;
+            int dot = s.lastIndexOf('.');
+            int extensionStart = dot < nameStart ? s.length() : dot + 1;
+            for (String extension : array) {
+                if (regionEquals(s, extensionStart, s.length(), extension)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * @return comma separated file extensions
+     */
+    public static List<String> fileExtensionList(String extensions) {
+        List<String> res = new ArrayList<>();
+        for (String extension : extensions.split(",")) {
+            res.add(extension.trim());
+        }
+        return res;
+    }
+
+    /**
+     * @return compiled matcher or null if the pattern is not supported
+     */
+    static PathMatcher compileGlob(String syntaxAndPattern) {
+        if (!syntaxAndPattern.startsWith(GLOB_SYNTAX)) {
+            return null;
+        }
+        String glob = syntaxAndPattern.substring(GLOB_SYNTAX.length());
+        if (!glob.startsWith(ANY_DIRECTORIES)) {
+            return null;
+        }
+        String rest = glob.substring(ANY_DIRECTORIES.length());
+        if (rest.endsWith("/**")) {
+            SegmentPattern segment = SegmentPattern.compile(rest.substring(0, rest.length() - "/**".length()));
+            return segment == null ? null : path -> matchesInnerSegment(path, segment);
+        }
+        SegmentPattern segment = SegmentPattern.compile(rest);
+        return segment == null ? null : path -> matchesLastSegment(path, segment);
+    }
+
+    /**
+     * Last segment preceded by a separator, like {@code **}{@code /SEGMENT}
+     */
+    private static boolean matchesLastSegment(Path path, SegmentPattern segment) {
+        String s = path.toString();
+        int separator = s.lastIndexOf(path.getFileSystem().getSeparator());
+        return separator >= 0 && segment.matches(s, separator + 1, s.length());
+    }
+
+    /**
+     * Segment preceded and followed by a separator, like {@code **}{@code /SEGMENT/**}
+     */
+    private static boolean matchesInnerSegment(Path path, SegmentPattern segment) {
+        String s = path.toString();
+        String separator = path.getFileSystem().getSeparator();
+        int start = s.indexOf(separator);
+        while (start >= 0) {
+            int end = s.indexOf(separator, start + 1);
+            if (end < 0) {
+                return false;
+            }
+            if (segment.matches(s, start + 1, end)) {
+                return true;
+            }
+            start = end;
+        }
+        return false;
+    }
+
+    private static boolean regionEquals(String s, int start, int end, String expected) {
+        return end - start == expected.length() && s.regionMatches(start, expected, 0, expected.length());
+    }
+
+    /**
+     * Alternatives of a name segment, every one is a prefix and optionally a star and a suffix
+     */
+    private static final class SegmentPattern {
+        private final String[] prefixes;
+        private final String[] suffixes;
+
+        private SegmentPattern(String[] prefixes, String[] suffixes) {
+            this.prefixes = prefixes;
+            this.suffixes = suffixes;
+        }
+
+        /**
+         * @return compiled pattern or null if the pattern uses not supported glob features
+         */
+        private static SegmentPattern compile(String pattern) {
+            String head = pattern;
+            String tail = "";
+            List<String> alternatives = new ArrayList<>();
+            int groupStart = pattern.indexOf('{');
+            if (groupStart >= 0) {
+                int groupEnd = pattern.indexOf('}', groupStart);
+                if (groupEnd < 0) {
+                    return null;
+                }
+                head = pattern.substring(0, groupStart);
+                tail = pattern.substring(groupEnd + 1);
+                for (String alternative : pattern.substring(groupStart + 1, groupEnd).split(",", -1)) {
+                    alternatives.add(head + alternative + tail);
+                }
+            } else {
+                alternatives.add(pattern);
+            }
+            String[] prefixes = new String[alternatives.size()];
+            String[] suffixes = new String[alternatives.size()];
+            for (int i = 0; i < alternatives.size(); i++) {
+                String alternative = alternatives.get(i);
+                if (hasSpecialCharacters(alternative)) {
+                    return null;
+                }
+                int star = alternative.indexOf('*');
+                if (star != alternative.lastIndexOf('*')) {
+                    return null;
+                }
+                prefixes[i] = star < 0 ? alternative : alternative.substring(0, star);
+                suffixes[i] = star < 0 ? null : alternative.substring(star + 1);
+            }
+            return new SegmentPattern(prefixes, suffixes);
+        }
+
+        private static boolean hasSpecialCharacters(String alternative) {
+            for (char c : new char[]{'/', '?', '[', ']', '{', '}', '\\', ','}) {
+                if (alternative.indexOf(c) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean matches(String s, int start, int end) {
+            for (int i = 0; i < prefixes.length; i++) {
+                String prefix = prefixes[i];
+                String suffix = suffixes[i];
+                if (suffix == null) {
+                    if (regionEquals(s, start, end, prefix)) {
+                        return true;
+                    }
+                } else if (end - start >= prefix.length() + suffix.length()
+                        && s.regionMatches(start, prefix, 0, prefix.length())
+                        && s.regionMatches(end - suffix.length(), suffix, 0, suffix.length())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
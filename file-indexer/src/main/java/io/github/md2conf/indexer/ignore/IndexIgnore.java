@@ -0,0 +1,55 @@
+package io.github.md2conf.indexer.ignore;
+
+import org.eclipse.jgit.ignore.IgnoreNode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Rules of {@code .md2confignore} files of a directory and its ancestors, defined the same way as in {@code .gitignore}.
+ * <p>
+ * Rules of a file apply to the directory it is located in and to its subtree, rules of a deeper file take precedence.
+ */
+public class IndexIgnore {
+
+    public static final String DEFAULT_IGNORE_FILE = ".md2confignore";
+
+    public static final IndexIgnore NONE = new IndexIgnore(null, null, null);
+
+    private final IndexIgnore parent;
+    private final Path directory;
+    private final IgnoreNode ignoreNode;
+
+    private IndexIgnore(IndexIgnore parent, Path directory, IgnoreNode ignoreNode) {
+        this.parent = parent;
+        this.directory = directory;
+        this.ignoreNode = ignoreNode;
+    }
+
+    /**
+     * @return rules of this and the ignore file of the directory
+     */
+    public IndexIgnore withIgnoreFile(Path ignoreFile) {
+        IgnoreNode node = new IgnoreNode();
+        try (InputStream in = Files.newInputStream(ignoreFile)) {
+            node.parse(ignoreFile.toAbsolutePath().toString(), in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ignore file " + ignoreFile, e);
+        }
+        return new IndexIgnore(this, ignoreFile.getParent(), node);
+    }
+
+    public boolean isIgnored(Path path, boolean isDirectory) {
+        for (IndexIgnore rules = this; rules.ignoreNode != null; rules = rules.parent) {
+            String relativePath = rules.directory.relativize(path).toString().replace('\\', '/');
+            Boolean ignored = rules.ignoreNode.checkIgnored(relativePath, isDirectory);
+            if (ignored != null) {
+                return ignored;
+            }
+        }
+        return false;
+    }
+}
@@ -6,24 +6,25 @@ import io.github.md2conf.indexer.FileIndexer;
 import io.github.md2conf.indexer.FileIndexerConfigurationProperties;
 import io.github.md2conf.indexer.OrphanFileAction;
 import io.github.md2conf.indexer.Page;
+import io.github.md2conf.indexer.PathMatchers;
+import io.github.md2conf.indexer.ignore.IndexIgnore;
 import io.github.md2conf.indexer.ignore.SkipUpdateMarker;
-import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.nio.file.FileSystem;
-import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-import static io.github.md2conf.indexer.PathNameUtils.attachmentsDirectoryByPagePath;
 import static java.util.stream.Collectors.toList;
 
 public abstract class AbstractFileIndexer implements FileIndexer {
@@ -32,90 +33,124 @@ public abstract class AbstractFileIndexer implements FileIndexer {
 
     protected final FileIndexerConfigurationProperties properties;
     private final PathMatcher excludePathMatcher;
+    private final Predicate<Path> fileExtensionMatcher;
 
+    /**
+     * Exclude pattern and file extensions are compiled to {@link PathMatchers}, since they are matched against every
+     * walked path
+     */
     public AbstractFileIndexer(FileIndexerConfigurationProperties fileIndexerConfigurationProperties) {
         this.properties = fileIndexerConfigurationProperties;
-        FileSystem fileSystem = FileSystems.getDefault();
-        this.excludePathMatcher = fileSystem.getPathMatcher(properties.getExcludePattern()); //todo use indexignore
-
+        this.excludePathMatcher = PathMatchers.compile(properties.getExcludePattern());
+        this.fileExtensionMatcher = PathMatchers.fileExtensions(properties.getFileExtension());
     }
 
     @Override
     public DefaultPagesStructure indexPath(Path rootPath) {
         final DefaultPagesStructure res;
         try {
-            List<Path> pagePaths = pagePaths(rootPath);
-            List<DefaultPage> allPages = createPagesWithChildren(pagePaths);
-            List<DefaultPage> topLevelPages = findTopLevelPages(allPages, rootPath);
-            processOrphans(pagePaths, topLevelPages);
-            addAttachments(topLevelPages);
-            Optional<DefaultPage> rootPage = findRootPage(topLevelPages);
-            if (rootPage.isPresent() && topLevelPages.size() > 1) {
-                relinkTopLevelPagesToRoot(rootPage.get(), topLevelPages);
-                res = new DefaultPagesStructure(List.of(rootPage.get()));
-            } else {
-                res = new DefaultPagesStructure(topLevelPages);
-            }
+            res = index(new DirectoryModel(rootPath, files(rootPath), this::matchFileExtension));
         } catch (IOException e) {
             logger.error("Could not index directory {} using properties {}", rootPath, properties);
             throw new RuntimeException(e);
         }
         SkipUpdateMarker skipUpdateMarker = new SkipUpdateMarker(rootPath);
         skipUpdateMarker.visitAndMark(res);
+        if (properties.isCollectFileMetadata()) {
+            try (FileMetadataCollector collector = new FileMetadataCollector()) {
+                collector.collect(res.pages());
+            } catch (IOException e) {
+                logger.error("Could not read metadata of files in directory {}", rootPath);
+                throw new RuntimeException(e);
+            }
+        }
         return res;
     }
 
-    private void addAttachments(List<? extends Page> list) {
-        for (Page page : list){
-            findAttachments(page);
-            addAttachments(page.children());
-
+    /**
+     * Top-level pages are passed to the consumer as soon as the subtrees they are built from are walked, pages not
+     * included to the page graph are passed last. With a root page, or with a layout which is not a
+     * {@link SubtreeLayout}, pages are passed when the whole tree is walked.
+     */
+    @Override
+    public void indexPath(Path rootPath, Consumer<Page> pageConsumer) {
+        if (properties.getRootPage() != null || !(this instanceof SubtreeLayout)) {
+            FileIndexer.super.indexPath(rootPath, pageConsumer);
+            return;
+        }
+        FileMetadataCollector collector = properties.isCollectFileMetadata() ? new FileMetadataCollector() : null;
+        PageEmitter emitter = new PageEmitter(rootPath, (SubtreeLayout) this, pageConsumer, collector);
+        try {
+            DirectoryListingCache cache = properties.getIndexCacheFile() != null
+                    ? DirectoryListingCache.load(properties.getIndexCacheFile())
+                    : null;
+            walker().walk(rootPath, cache, emitter);
+            if (cache != null) {
+                cache.save();
+            }
+            emitter.finish();
+        } catch (IOException e) {
+            logger.error("Could not index directory {} using properties {}", rootPath, properties);
+            throw new RuntimeException(e);
+        } finally {
+            if (collector != null) {
+                collector.close();
+            }
         }
+    }
 
+    /**
+     * Build pages structure from already walked tree
+     */
+    DefaultPagesStructure index(DirectoryModel directoryModel) {
+        List<DefaultPage> topLevelPages = createTopLevelPages(directoryModel);
+        processOrphans(directoryModel, topLevelPages);
+        Optional<DefaultPage> rootPage = findRootPage(topLevelPages);
+        if (rootPage.isPresent() && topLevelPages.size() > 1) {
+            relinkTopLevelPagesToRoot(rootPage.get(), topLevelPages);
+            return new DefaultPagesStructure(List.of(rootPage.get()));
+        }
+        return new DefaultPagesStructure(topLevelPages);
     }
 
-    private void processOrphans(List<Path> pagePaths, List<DefaultPage> topLevelPages) {
-        List<Path> notIncludedToGraph = notIncludedToGraph(topLevelPages, pagePaths);
+    private void processOrphans(DirectoryModel directoryModel, List<DefaultPage> topLevelPages) {
+        List<DefaultPage> notIncludedToGraph = directoryModel.createNotIncludedPages();
         if (properties.getOrphanFileAction() == OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES) {
-            notIncludedToGraph.forEach(v-> topLevelPages.add(new DefaultPage(v)));
+            topLevelPages.addAll(notIncludedToGraph);
         } else if (properties.getOrphanFileAction().equals(OrphanFileAction.IGNORE)){
             if (!notIncludedToGraph.isEmpty()) {
-                logIgnored(notIncludedToGraph);
+                logIgnored(notIncludedToGraph.stream().map(DefaultPage::path).collect(toList()));
             }
         }
     }
 
     protected abstract void logIgnored(List<Path> notIncludedToGraph);
 
-    private static List<Path> notIncludedToGraph(List<DefaultPage> pagesGraph, List<Path> pagePaths) {
-        List<Path> res = new ArrayList<>();
-        List<Path> pathInGraph = new ArrayList<>();
-        visitGraphNode(pathInGraph, pagesGraph);
-        for (Path path : pagePaths){
-            if (!pathInGraph.contains(path)){
-                res.add(path);
-            }
+    /**
+     * @return pages located in the root directory, with their children
+     */
+    protected abstract List<DefaultPage> createTopLevelPages(DirectoryModel directoryModel);
+
+    /**
+     * Excluded and ignored directories are pruned during the walk, so their subtrees are never listed. With index cache
+     * file only directories modified since the previous run are listed.
+     *
+     * @return sorted paths of not excluded files, so the same tree is always indexed to the same structure
+     */
+    private List<Path> files(Path rootPath) throws IOException {
+        ParallelFileWalker walker = walker();
+        if (properties.getIndexCacheFile() == null) {
+            return walker.walk(rootPath);
         }
+        DirectoryListingCache cache = DirectoryListingCache.load(properties.getIndexCacheFile());
+        List<Path> res = walker.walk(rootPath, cache);
+        cache.save();
         return res;
     }
 
-    private static void visitGraphNode(List<Path> res, List<? extends Page> pagesGraph) {
-        for (Page page : pagesGraph) {
-            res.add(page.path());
-            visitGraphNode(res, page.children());
-        }
-    }
-
-    protected abstract List<DefaultPage> createPagesWithChildren(List<Path> pagePaths) throws IOException;
-
-    private List<Path> pagePaths(Path rootPath) throws IOException {
-        try (Stream<Path> stream = Files.walk(rootPath)) {
-            return stream
-                    .filter(path -> path.toFile().isFile())
-                    .filter(this::matchFileExtension)
-                    .filter(this::isNotExcluded)
-                    .collect(Collectors.toList());
-        }
+    private ParallelFileWalker walker() {
+        return new ParallelFileWalker(Runtime.getRuntime().availableProcessors(),
+                this::isNotExcluded, this::isNotExcluded, IndexIgnore.DEFAULT_IGNORE_FILE);
     }
 
     private static void relinkTopLevelPagesToRoot(DefaultPage rootPage, List<DefaultPage> topLevelPages) {
@@ -135,34 +170,79 @@ public abstract class AbstractFileIndexer implements FileIndexer {
     }
 
 
-    private void findAttachments(Page page) {
-        Path attachmentsPath = attachmentsDirectoryByPagePath(page.path());
-        if (!attachmentsPath.toFile().isDirectory()) {
-            return;
-        }
-        List<Path> list;
-        try (Stream<Path> stream = Files.walk(attachmentsDirectoryByPagePath(page.path()), 1)) {
-            list = stream.filter(path -> path.toFile().isFile() && isNotExcluded(path))
-                    .collect(toList());
-        } catch (IOException e) {
-            throw new IllegalArgumentException(e);
-        }
-        page.attachments().addAll(list);
-    }
-
-    private static List<DefaultPage> findTopLevelPages(List<DefaultPage> allPages, Path rootPath) {
-        return allPages.stream()
-                .filter(page -> page.path().equals(rootPath.resolve(page.path().getFileName())))
-                .collect(toList());
-    }
-
     protected boolean isNotExcluded(Path path) {
         return !excludePathMatcher.matches(path);
     }
 
     protected boolean matchFileExtension(Path path) {
-        return FilenameUtils.getExtension(path.toString()).equals(properties.getFileExtension());
+        return fileExtensionMatcher.test(path);
     }
 
+    /**
+     * Adds walked subtrees to the directory model and passes top-level pages which subtrees are walked to the consumer
+     */
+    private class PageEmitter implements ParallelFileWalker.SubtreeListener {
+        private final SubtreeLayout layout;
+        private final Consumer<Page> pageConsumer;
+        private final FileMetadataCollector collector;
+        private final SkipUpdateMarker skipUpdateMarker;
+        private final DirectoryModel directoryModel;
+        private final Set<String> pendingSubtrees = new HashSet<>();
+        private int nextPage;
+
+        /**
+         * @param collector collector of file metadata or null to not collect it
+         */
+        private PageEmitter(Path rootPath, SubtreeLayout layout, Consumer<Page> pageConsumer, FileMetadataCollector collector) {
+            this.layout = layout;
+            this.pageConsumer = pageConsumer;
+            this.collector = collector;
+            this.skipUpdateMarker = new SkipUpdateMarker(rootPath);
+            this.directoryModel = new DirectoryModel(rootPath, List.of(), AbstractFileIndexer.this::matchFileExtension);
+        }
+
+        @Override
+        public void rootListed(List<Path> files, List<Path> subdirectories) {
+            directoryModel.add(files);
+            subdirectories.forEach(subdirectory -> pendingSubtrees.add(subdirectory.getFileName().toString()));
+            emitWalkedPages();
+        }
 
+        @Override
+        public void subtreeWalked(Path subdirectory, List<Path> files) {
+            directoryModel.add(files);
+            pendingSubtrees.remove(subdirectory.getFileName().toString());
+            emitWalkedPages();
+        }
+
+        private void emitWalkedPages() {
+            DirectoryModel.Directory root = directoryModel.root();
+            while (nextPage < root.pageCount()) {
+                Collection<String> subtrees = layout.subtreesOfTopLevelPage(root.pageName(nextPage));
+                if (subtrees.stream().anyMatch(pendingSubtrees::contains)) {
+                    return;
+                }
+                emit(layout.createTopLevelPage(root, nextPage++));
+            }
+        }
+
+        private void finish() {
+            emitWalkedPages();
+            List<DefaultPage> notIncludedToGraph = new ArrayList<>();
+            processOrphans(directoryModel, notIncludedToGraph);
+            notIncludedToGraph.forEach(this::emit);
+        }
+
+        private void emit(Page page) {
+            skipUpdateMarker.visitAndMark(() -> List.of(page));
+            if (collector != null) {
+                try {
+                    collector.collect(List.of(page));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            pageConsumer.accept(page);
+        }
+    }
 }
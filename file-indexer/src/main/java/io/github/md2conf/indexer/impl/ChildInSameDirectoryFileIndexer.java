@@ -5,24 +5,14 @@ import io.github.md2conf.indexer.FileIndexerConfigurationProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static java.util.stream.Collectors.toMap;
 
 public class ChildInSameDirectoryFileIndexer extends AbstractFileIndexer {
 
     private static final List<String> PARENT_FILE_NAMES = List.of("index.md", "readme.md");
-    private final Logger logger = LoggerFactory.getLogger(ChildInSameDirectoryFileIndexer.class);
+    private static final Logger logger = LoggerFactory.getLogger(ChildInSameDirectoryFileIndexer.class);
 
     public ChildInSameDirectoryFileIndexer(FileIndexerConfigurationProperties fileIndexerConfigurationProperties) {
         super(fileIndexerConfigurationProperties);
@@ -37,70 +27,50 @@ public class ChildInSameDirectoryFileIndexer extends AbstractFileIndexer {
         );
     }
 
+    /**
+     * Parent page of a directory is its index or readme file, other pages of the directory and parent pages of its
+     * subdirectories are children of the parent page
+     */
     @Override
-    protected List<DefaultPage> createPagesWithChildren(List<Path> pagePaths) throws IOException {
-        List<DefaultPage> list = groupByDirectories(pagePaths);
-        return establishParentChildRelation(list);
-    }
-
-
-    private List<DefaultPage> groupByDirectories(List<Path> pagePaths) throws IOException {
-        return pagePaths.stream()
-                .map(Path::getParent)
-                .distinct()
-                .map(this::toParentPageInDirectory)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-    }
-
-    private DefaultPage toParentPageInDirectory(Path dir) {
-        List<Path> list = fileList(dir);
-        DefaultPage parentPageInList = findParentPage(list);
-        if (parentPageInList != null) {
-            //create pages and link the rest of files
-            list.remove(parentPageInList.path());
-            list.forEach(v -> parentPageInList.addChild(new DefaultPage(v)));
+    protected List<DefaultPage> createTopLevelPages(DirectoryModel directoryModel) {
+        DefaultPage rootPage = createParentPage(directoryModel.root());
+        List<DefaultPage> res = new ArrayList<>();
+        if (rootPage != null) {
+            res.add(rootPage);
         }
-        return parentPageInList;
+        return res;
     }
 
-    private static DefaultPage findParentPage(List<Path> list) {
-        DefaultPage res = null;
-        Map<String, Path> pathMap = list.stream().collect(toMap(path -> path.getFileName().toString().toLowerCase(), Function.identity()));
-        for (String key : PARENT_FILE_NAMES) {
-            if (pathMap.containsKey(key)) {
-                res = new DefaultPage(pathMap.get(key));
-                break;
+    private static DefaultPage createParentPage(DirectoryModel.Directory directory) {
+        int parentPageIndex = findParentPageIndex(directory);
+        if (parentPageIndex < 0) {
+            return null;
+        }
+        DefaultPage res = directory.createPage(parentPageIndex);
+        for (int i = 0; i < directory.pageCount(); i++) {
+            if (i != parentPageIndex) {
+                res.addChild(directory.createPage(i));
             }
         }
-        return res;
-    }
-
-    private List<Path> fileList(Path dir) {
-        try (Stream<Path> stream = Files.walk(dir, 1)) {
-            return stream
-                    .filter(file -> !Files.isDirectory(file))
-                    .filter(this::matchFileExtension)
-                    .filter(this::isNotExcluded)
-                    .collect(Collectors.toList());
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        for (DirectoryModel.Directory subdirectory : directory.subdirectories()) {
+            DefaultPage child = createParentPage(subdirectory);
+            if (child != null) {
+                res.addChild(child);
+            } else {
+                logger.debug("Cannot find parent page in directory {}", subdirectory.path());
+            }
         }
+        return res;
     }
 
-    private List<DefaultPage> establishParentChildRelation(Collection<DefaultPage> pages) {
-        List<DefaultPage> res = new ArrayList<>();
-        Map<Path, DefaultPage> pageIndex = pages.stream()
-                .collect(Collectors.toMap(v -> v.path().getParent(), Function.identity()));
-        for (Path keyPath : pageIndex.keySet()) {
-            if (pageIndex.containsKey(keyPath.getParent())) {
-                pageIndex.get(keyPath.getParent()).addChild(pageIndex.get(keyPath));
-            } else {
-                logger.debug("Cannot find parent page for page with path {}", keyPath);
-                res.add(pageIndex.get(keyPath));
+    private static int findParentPageIndex(DirectoryModel.Directory directory) {
+        for (String parentFileName : PARENT_FILE_NAMES) {
+            for (int i = 0; i < directory.pageCount(); i++) {
+                if (directory.pageName(i).equalsIgnoreCase(parentFileName)) {
+                    return i;
+                }
             }
         }
-        return res;
+        return -1;
     }
 }
@@ -2,19 +2,21 @@ package io.github.md2conf.indexer.impl;
 
 import io.github.md2conf.indexer.DefaultPage;
 import io.github.md2conf.indexer.FileIndexerConfigurationProperties;
-import io.github.md2conf.indexer.PathNameUtils;
+import io.github.md2conf.indexer.PathMatchers;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import static java.util.stream.Collectors.toMap;
+import static io.github.md2conf.indexer.PathNameUtils.ATTACHMENTS_SUFFIX;
 
-public class ChildInSubDirectoryFileIndexer extends AbstractFileIndexer {
+public class ChildInSubDirectoryFileIndexer extends AbstractFileIndexer implements SubtreeLayout {
 
     private final Logger logger = LoggerFactory.getLogger(ChildInSubDirectoryFileIndexer.class);
 
@@ -32,30 +34,70 @@ public class ChildInSubDirectoryFileIndexer extends AbstractFileIndexer {
     }
 
     private String parentPath(Path v) {
-        String fileName =  FilenameUtils.getBaseName(v.getParent().toString()) + "." + properties.getFileExtension();
-        if (v.getParent().getParent()!=null){
-            return v.getParent().getParent().resolve(fileName).toString();
+        List<String> res = new ArrayList<>();
+        for (String extension : PathMatchers.fileExtensionList(properties.getFileExtension())) {
+            String fileName = FilenameUtils.getBaseName(v.getParent().toString()) + "." + extension;
+            res.add(v.getParent().getParent() != null ? v.getParent().getParent().resolve(fileName).toString() : fileName);
         }
-        return fileName;
+        return String.join(" or ", res);
     }
 
+    /**
+     * Children of a page are pages in the directory with the basename of the page source file
+     */
     @Override
-    public List<DefaultPage> createPagesWithChildren(List<Path> pagePaths) {
-        Map<Path, DefaultPage> pageIndex = pagePaths.stream()
-                .collect(toMap(PathNameUtils::removeExtension,
-                        DefaultPage::new));
-        return establishParentChildRelation(pageIndex);
+    protected List<DefaultPage> createTopLevelPages(DirectoryModel directoryModel) {
+        return createPages(directoryModel.root());
     }
 
-    private static List<DefaultPage> establishParentChildRelation(Map<Path, DefaultPage> pageIndex) {
-        pageIndex.forEach((absolutePath, page) -> {
-            pageIndex.computeIfPresent(page.path().getParent(), (ignored, parentPage) -> {
-                parentPage.addChild(page);
-                return parentPage;
-            });
-        });
-        return new ArrayList<>(pageIndex.values());
+    /**
+     * Top-level page depends only on its children and attachments directories
+     */
+    @Override
+    public Collection<String> subtreesOfTopLevelPage(String pageName) {
+        String baseName = FilenameUtils.getBaseName(pageName);
+        return List.of(baseName, baseName + ATTACHMENTS_SUFFIX);
+    }
+
+    @Override
+    public DefaultPage createTopLevelPage(DirectoryModel.Directory root, int index) {
+        if (index == 0) {
+            checkUniqueBaseNames(root);
+        }
+        return createPage(root, index);
+    }
+
+    private static List<DefaultPage> createPages(DirectoryModel.Directory directory) {
+        checkUniqueBaseNames(directory);
+        List<DefaultPage> res = new ArrayList<>(directory.pageCount());
+        for (int i = 0; i < directory.pageCount(); i++) {
+            res.add(createPage(directory, i));
+        }
+        return res;
     }
 
+    /**
+     * Pages with the same base name, like {@code a.md} and {@code a.wiki}, would share children and attachments
+     * directory
+     */
+    private static void checkUniqueBaseNames(DirectoryModel.Directory directory) {
+        Map<String, String> pageNames = new HashMap<>();
+        for (int i = 0; i < directory.pageCount(); i++) {
+            String pageName = directory.pageName(i);
+            String previous = pageNames.put(FilenameUtils.getBaseName(pageName), pageName);
+            if (previous != null) {
+                throw new IllegalArgumentException("Pages " + directory.path().resolve(previous) + " and "
+                        + directory.path().resolve(pageName) + " have the same base name, so they cannot have separate children directories");
+            }
+        }
+    }
 
+    private static DefaultPage createPage(DirectoryModel.Directory directory, int index) {
+        DefaultPage page = directory.createPage(index);
+        DirectoryModel.Directory childrenDirectory = directory.subdirectory(FilenameUtils.getBaseName(directory.pageName(index)));
+        if (childrenDirectory != null) {
+            createPages(childrenDirectory).forEach(page::addChild);
+        }
+        return page;
+    }
 }
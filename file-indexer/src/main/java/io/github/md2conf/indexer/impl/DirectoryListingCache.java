@@ -0,0 +1,148 @@
+package io.github.md2conf.indexer.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listings of directories walked by {@link ParallelFileWalker}, keyed by directory path and valid while modification
+ * time of the directory is the same, persisted to a file.
+ * <p>
+ * Modification time of a directory changes when its entries are added, removed or renamed, so a cached listing of
+ * unchanged directory is reused without listing the directory and reading attributes of its entries. Only the
+ * subdirectories are checked, so walk of an unchanged tree takes a single stat call per directory.
+ * <p>
+ * Listings are kept unfiltered, so the cache doesn't depend on file extension, exclude pattern or ignore files.
+ */
+public class DirectoryListingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryListingCache.class);
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    /**
+     * Directory modified shortly before it was listed may be modified again within the same timestamp granularity,
+     * listing of such directory is not cached
+     */
+    private static final long MODIFICATION_TIME_GRANULARITY_MILLIS = 2000;
+
+    private final Path cacheFile;
+    private final Map<String, Listing> previousListings = new ConcurrentHashMap<>();
+    private final Map<String, Listing> listings = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private DirectoryListingCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Read cache from the file. Cache which cannot be read is discarded.
+     *
+     * @return empty cache if the file doesn't exist
+     */
+    public static DirectoryListingCache load(Path cacheFile) {
+        DirectoryListingCache cache = new DirectoryListingCache(cacheFile);
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                Map<String, Listing> saved = OBJECT_MAPPER.readValue(cacheFile.toFile(),
+                        OBJECT_MAPPER.getTypeFactory().constructMapType(Map.class, String.class, Listing.class));
+                cache.previousListings.putAll(saved);
+            } catch (IOException e) {
+                logger.warn("Cannot read index cache {}, the whole tree is indexed", cacheFile, e);
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Save listings of the directories walked since the cache was loaded, listings of other directories are dropped.
+     */
+    public void save() throws IOException {
+        if (!modified && listings.size() == previousListings.size()) {
+            return;
+        }
+        Path parent = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmpFile = Files.createTempFile(parent, cacheFile.getFileName().toString(), ".tmp");
+        OBJECT_MAPPER.writeValue(tmpFile.toFile(), listings);
+        Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return listing of the directory, if it was not modified since the listing was cached, or null
+     */
+    Listing get(Path directory, long lastModified) {
+        String key = key(directory);
+        Listing listing = previousListings.get(key);
+        if (listing == null || listing.getLastModified() != lastModified) {
+            return null;
+        }
+        listings.put(key, listing);
+        return listing;
+    }
+
+    void put(Path directory, Listing listing, long listedAt) {
+        modified = true;
+        if (listing.getLastModified() < listedAt - MODIFICATION_TIME_GRANULARITY_MILLIS) {
+            listings.put(key(directory), listing);
+        }
+    }
+
+    private static String key(Path directory) {
+        return directory.toAbsolutePath().normalize().toString();
+    }
+
+    public static class Listing {
+        private long lastModified;
+        private List<String> files;
+        private List<String> directories;
+
+        public Listing() {
+        }
+
+        public Listing(long lastModified, List<String> files, List<String> directories) {
+            this.lastModified = lastModified;
+            this.files = files;
+            this.directories = directories;
+        }
+
+        /**
+         * @return modification time of the directory in milliseconds
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return names of regular files and links to regular files
+         */
+        public List<String> getFiles() {
+            return files;
+        }
+
+        public void setFiles(List<String> files) {
+            this.files = files;
+        }
+
+        /**
+         * @return names of subdirectories, links to directories are not included
+         */
+        public List<String> getDirectories() {
+            return directories;
+        }
+
+        public void setDirectories(List<String> directories) {
+            this.directories = directories;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.github.md2conf.indexer.impl;
+
+import io.github.md2conf.indexer.DefaultPage;
+import org.apache.commons.io.FilenameUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static io.github.md2conf.indexer.PathNameUtils.ATTACHMENTS_SUFFIX;
+
+/**
+ * Files of a directory tree built from a single walk, kept as a trie of directories keyed by name segments.
+ * <p>
+ * Child layouts navigate the trie by segment names, so page relations are resolved without building and hashing
+ * {@link Path} objects. Pages are marked in the trie when created, so pages not included to the page graph are found in
+ * a single pass. Segment names are interned within the model, since the same names repeat across directories of big
+ * trees, and created pages keep the path of their directory and the interned name instead of their own paths.
+ */
+public class DirectoryModel {
+
+    private final Map<String, String> segments = new HashMap<>();
+    private final Directory root;
+    private final Predicate<Path> pageFilter;
+
+    /**
+     * @param files      sorted files of the tree, as returned by {@link ParallelFileWalker}
+     * @param pageFilter accepts source files of pages
+     */
+    public DirectoryModel(Path root, List<Path> files, Predicate<Path> pageFilter) {
+        this.root = new Directory(root);
+        this.pageFilter = pageFilter;
+        add(files);
+    }
+
+    /**
+     * Add files of a subtree walked after the files already added
+     *
+     * @param files sorted files
+     */
+    public void add(List<Path> files) {
+        Path lastParent = null;
+        Directory lastDirectory = null;
+        for (Path file : files) {
+            Path parent = file.getParent();
+            if (lastDirectory == null || !parent.equals(lastParent)) {
+                lastParent = parent;
+                lastDirectory = directory(parent);
+            }
+            if (lastDirectory != null) {
+                lastDirectory.addFile(intern(file.getFileName().toString()), pageFilter.test(file));
+            }
+        }
+    }
+
+    public Directory root() {
+        return root;
+    }
+
+    /**
+     * Create pages which were not created by layout, so they are not included to the page graph
+     *
+     * @return pages in order of their paths
+     */
+    public List<DefaultPage> createNotIncludedPages() {
+        List<DefaultPage> res = new ArrayList<>();
+        collectNotIncludedPages(root, res);
+        res.sort((left, right) -> left.path().compareTo(right.path()));
+        return res;
+    }
+
+    private static void collectNotIncludedPages(Directory directory, List<DefaultPage> res) {
+        for (int i = directory.included.nextClearBit(0); i < directory.pageCount(); i = directory.included.nextClearBit(i + 1)) {
+            res.add(directory.createPage(i));
+        }
+        for (Directory subdirectory : directory.subdirectories()) {
+            collectNotIncludedPages(subdirectory, res);
+        }
+    }
+
+    /**
+     * @return directory node of the path, created with its ancestors if necessary, or null if the path is out of root
+     */
+    private Directory directory(Path path) {
+        if (!path.startsWith(root.path)) {
+            return null;
+        }
+        Directory res = root;
+        for (Path segment : root.path.relativize(path)) {
+            String name = segment.toString();
+            if (!name.isEmpty()) {
+                res = res.subdirectoryOrCreate(intern(name));
+            }
+        }
+        return res;
+    }
+
+    private String intern(String segment) {
+        return segments.computeIfAbsent(segment, key -> key);
+    }
+
+    public static final class Directory {
+        private final Path path;
+        private final Map<String, Directory> subdirectories = new LinkedHashMap<>(4);
+        private final List<String> fileNames = new ArrayList<>(4);
+        private final List<String> pageNames = new ArrayList<>(4);
+        private final BitSet included = new BitSet();
+
+        private Directory(Path path) {
+            this.path = path;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * @return number of page source files located directly in the directory
+         */
+        public int pageCount() {
+            return pageNames.size();
+        }
+
+        /**
+         * @return name of page source file by its index in order of the walk
+         */
+        public String pageName(int index) {
+            return pageNames.get(index);
+        }
+
+        /**
+         * @return subdirectory with the name or null if there is no such subdirectory with files
+         */
+        public Directory subdirectory(String name) {
+            return subdirectories.get(name);
+        }
+
+        public Collection<Directory> subdirectories() {
+            return subdirectories.values();
+        }
+
+        /**
+         * @return paths of files located directly in the directory
+         */
+        public List<Path> files() {
+            List<Path> res = new ArrayList<>(fileNames.size());
+            fileNames.forEach(name -> res.add(path.resolve(name)));
+            return res;
+        }
+
+        /**
+         * Create page of the source file with the index, with attachments found in its attachments directory, and
+         * include it to the page graph
+         */
+        public DefaultPage createPage(int index) {
+            String pageName = pageNames.get(index);
+            included.set(index);
+            Directory attachmentsDirectory = subdirectory(FilenameUtils.removeExtension(pageName) + ATTACHMENTS_SUFFIX);
+            return new DefaultPage(path, pageName, attachmentsDirectory != null ? attachmentsDirectory.files() : List.of());
+        }
+
+        private Directory subdirectoryOrCreate(String name) {
+            Directory res = subdirectories.get(name);
+            if (res == null) {
+                res = new Directory(path.resolve(name));
+                subdirectories.put(name, res);
+            }
+            return res;
+        }
+
+        private void addFile(String name, boolean page) {
+            fileNames.add(name);
+            if (page) {
+                pageNames.add(name);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.md2conf.indexer.impl;
+
+import io.github.md2conf.indexer.DefaultPage;
+import io.github.md2conf.indexer.FileMetadata;
+import io.github.md2conf.indexer.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Read metadata of page source files and attachments, every page in its own task.
+ * <p>
+ * Reading file attributes blocks, so tasks run on virtual threads when the JDK provides them (JDK 21 and later), and on
+ * a fixed pool of platform threads otherwise. The executor is looked up reflectively, since the project is built for
+ * JDK 11.
+ */
+class FileMetadataCollector implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileMetadataCollector.class);
+    static final int PLATFORM_THREADS = 16;
+
+    private final ExecutorService executor = newExecutor();
+
+    /**
+     * Set metadata to the pages and all their descendants
+     */
+    void collect(List<? extends Page> pages) throws IOException {
+        List<Future<?>> futures = new ArrayList<>();
+        submit(pages, futures);
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading file metadata", e);
+        }
+    }
+
+    private void submit(List<? extends Page> pages, List<Future<?>> futures) {
+        for (Page page : pages) {
+            if (page instanceof DefaultPage) {
+                futures.add(executor.submit(() -> ((DefaultPage) page).setFileMetadata(read(page))));
+            }
+            submit(page.children(), futures);
+        }
+    }
+
+    private static Map<Path, FileMetadata> read(Page page) {
+        Map<Path, FileMetadata> res = new HashMap<>(2 + page.attachments().size() * 2);
+        try {
+            Path path = page.path();
+            res.put(path, FileMetadata.read(path));
+            for (Path attachment : page.attachments()) {
+                res.put(attachment, FileMetadata.read(attachment));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return res;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.debug("Virtual threads are not available, reading file metadata on {} platform threads", PLATFORM_THREADS);
+            return Executors.newFixedThreadPool(PLATFORM_THREADS);
+        }
+    }
+}
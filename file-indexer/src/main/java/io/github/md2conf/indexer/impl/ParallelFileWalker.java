@@ -0,0 +1,253 @@
+package io.github.md2conf.indexer.impl;
+
+import io.github.md2conf.indexer.ignore.IndexIgnore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * List files of a directory tree in a work-stealing pool, every directory is listed by its own task.
+ * <p>
+ * Attributes of every entry are read once, without following links. Like {@link Files#walk(Path, java.nio.file.FileVisitOption...)}
+ * the walker doesn't descend into linked directories, while linked files are listed like regular ones.
+ * <p>
+ * Directories not accepted by the directory filter or ignored by {@link IndexIgnore} are pruned: neither they nor their
+ * subtrees are listed. Ignore files are read when found in a directory, and apply to its entries and subtree.
+ * <p>
+ * With {@link DirectoryListingCache} directories not modified since the previous walk are not listed again.
+ * <p>
+ * Result is sorted, so it doesn't depend on order of directory entries or scheduling of the tasks.
+ * <p>
+ * With {@link SubtreeListener} files are reported by subtrees of the root directory, every subtree as soon as it and
+ * subtrees before it are walked, so files can be processed while the rest of the tree is still being walked.
+ */
+public class ParallelFileWalker {
+
+    private final int parallelism;
+    private final Predicate<Path> directoryFilter;
+    private final Predicate<Path> fileFilter;
+    private final String ignoreFileName;
+
+    public ParallelFileWalker(int parallelism, Predicate<Path> fileFilter) {
+        this(parallelism, directory -> true, fileFilter, null);
+    }
+
+    /**
+     * @param ignoreFileName name of ignore files or null to not read them
+     */
+    public ParallelFileWalker(int parallelism, Predicate<Path> directoryFilter, Predicate<Path> fileFilter, String ignoreFileName) {
+        this.parallelism = Math.max(1, parallelism);
+        this.directoryFilter = directoryFilter;
+        this.fileFilter = fileFilter;
+        this.ignoreFileName = ignoreFileName;
+    }
+
+    /**
+     * @return sorted list of regular files accepted by the filter, the root itself if it is a file
+     */
+    public List<Path> walk(Path root) throws IOException {
+        return walk(root, null);
+    }
+
+    /**
+     * Walk reusing listings of directories not modified since they were cached.
+     *
+     * @param cache cache of directory listings, updated by the walk, or null
+     * @return sorted list of regular files accepted by the filter, the root itself if it is a file
+     */
+    public List<Path> walk(Path root, DirectoryListingCache cache) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            return attributes.isRegularFile() && fileFilter.test(root) ? List.of(root) : List.of();
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Path> res = pool.invoke(new ListDirectoryTask(root, attributes.lastModifiedTime().toMillis(), IndexIgnore.NONE, cache));
+            Collections.sort(res);
+            return res;
+        } catch (UncheckedIOException e) {
+            throw ioException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Walk subtrees of the root directory in parallel and report files of every subtree as soon as it is walked.
+     *
+     * @param cache cache of directory listings, updated by the walk, or null
+     */
+    public void walk(Path root, DirectoryListingCache cache, SubtreeListener listener) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            listener.rootListed(attributes.isRegularFile() && fileFilter.test(root) ? List.of(root) : List.of(), List.of());
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<ListDirectoryTask> subdirectoryTasks = new ArrayList<>();
+            List<Path> rootFiles = new ListDirectoryTask(root, attributes.lastModifiedTime().toMillis(), IndexIgnore.NONE, cache)
+                    .listFiles(subdirectoryTasks);
+            // subtrees are reported in the same order as their files are sorted in the result of the whole walk
+            subdirectoryTasks.sort(Comparator.comparing(task -> task.directory.getFileName().toString() + '/'));
+            subdirectoryTasks.forEach(pool::execute);
+            Collections.sort(rootFiles);
+            listener.rootListed(rootFiles, subdirectoryTasks.stream().map(task -> task.directory).collect(Collectors.toList()));
+            for (ListDirectoryTask task : subdirectoryTasks) {
+                List<Path> files = task.join();
+                Collections.sort(files);
+                listener.subtreeWalked(task.directory, files);
+            }
+        } catch (UncheckedIOException e) {
+            throw ioException(e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public interface SubtreeListener {
+
+        /**
+         * Called first, with sorted files of the root directory and subdirectories which subtrees are reported next
+         */
+        void rootListed(List<Path> files, List<Path> subdirectories);
+
+        /**
+         * Called for every subdirectory of the root directory, in order of the subdirectories passed to {@link #rootListed}
+         *
+         * @param files sorted files of the subtree
+         */
+        void subtreeWalked(Path subdirectory, List<Path> files);
+    }
+
+    /**
+     * Exception thrown in other thread is rethrown by the pool wrapped in a new exception of the same type
+     */
+    private static IOException ioException(UncheckedIOException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof UncheckedIOException) {
+            cause = cause.getCause();
+        }
+        return cause instanceof IOException ? (IOException) cause : new IOException(e);
+    }
+
+    private static boolean isFile(Path path, BasicFileAttributes attributes) {
+        if (attributes.isSymbolicLink()) {
+            try {
+                return Files.readAttributes(path, BasicFileAttributes.class).isRegularFile();
+            } catch (IOException e) {
+                // dangling link
+                return false;
+            }
+        }
+        return attributes.isRegularFile();
+    }
+
+    private class ListDirectoryTask extends RecursiveTask<List<Path>> {
+        private final Path directory;
+        private final long lastModified;
+        private final IndexIgnore parentIgnore;
+        private final DirectoryListingCache cache;
+
+        private ListDirectoryTask(Path directory, long lastModified, IndexIgnore parentIgnore, DirectoryListingCache cache) {
+            this.directory = directory;
+            this.lastModified = lastModified;
+            this.parentIgnore = parentIgnore;
+            this.cache = cache;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<ListDirectoryTask> subdirectoryTasks = new ArrayList<>();
+            List<Path> res = listFiles(subdirectoryTasks);
+            subdirectoryTasks.forEach(ForkJoinTask::fork);
+            for (ListDirectoryTask task : subdirectoryTasks) {
+                res.addAll(task.join());
+            }
+            return res;
+        }
+
+        /**
+         * @param subdirectoryTasks filled with not forked tasks for subdirectories
+         * @return files of the directory
+         */
+        private List<Path> listFiles(List<ListDirectoryTask> subdirectoryTasks) {
+            Map<String, Long> subdirectoryModificationTimes = new HashMap<>();
+            DirectoryListingCache.Listing listing = cache != null ? cache.get(directory, lastModified) : null;
+            if (listing == null) {
+                listing = list(subdirectoryModificationTimes);
+            }
+            // rules of the directory apply to all its entries, so they are read before entries are processed
+            IndexIgnore ignore = ignoreFileName != null && listing.getFiles().contains(ignoreFileName)
+                    ? parentIgnore.withIgnoreFile(directory.resolve(ignoreFileName))
+                    : parentIgnore;
+            List<Path> res = new ArrayList<>();
+            for (String name : listing.getFiles()) {
+                Path path = directory.resolve(name);
+                if (fileFilter.test(path) && !ignore.isIgnored(path, false)) {
+                    res.add(path);
+                }
+            }
+            for (String name : listing.getDirectories()) {
+                Path path = directory.resolve(name);
+                if (directoryFilter.test(path) && !ignore.isIgnored(path, true)) {
+                    Long subdirectoryModificationTime = subdirectoryModificationTimes.get(name);
+                    ListDirectoryTask task = new ListDirectoryTask(path, subdirectoryModificationTime != null
+                            ? subdirectoryModificationTime
+                            : lastModifiedTime(path), ignore, cache);
+                    subdirectoryTasks.add(task);
+                }
+            }
+            return res;
+        }
+
+        private DirectoryListingCache.Listing list(Map<String, Long> subdirectoryModificationTimes) {
+            long listedAt = System.currentTimeMillis();
+            List<String> files = new ArrayList<>();
+            List<String> directories = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                    String name = entry.getFileName().toString();
+                    if (attributes.isDirectory()) {
+                        directories.add(name);
+                        subdirectoryModificationTimes.put(name, attributes.lastModifiedTime().toMillis());
+                    } else if (isFile(entry, attributes)) {
+                        files.add(name);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            DirectoryListingCache.Listing listing = new DirectoryListingCache.Listing(lastModified, files, directories);
+            if (cache != null) {
+                cache.put(directory, listing, listedAt);
+            }
+            return listing;
+        }
+
+        private long lastModifiedTime(Path subdirectory) {
+            try {
+                return Files.readAttributes(subdirectory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
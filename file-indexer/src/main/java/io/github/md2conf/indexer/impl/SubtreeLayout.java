@@ -0,0 +1,25 @@
+package io.github.md2conf.indexer.impl;
+
+import io.github.md2conf.indexer.DefaultPage;
+
+import java.util.Collection;
+
+/**
+ * Child layout which builds every top-level page only from some subtrees of the root directory, so the page can be
+ * created while other subtrees are still walked. Indexers implementing it pass top-level pages to the consumer of
+ * {@link AbstractFileIndexer#indexPath(java.nio.file.Path, java.util.function.Consumer)} one by one.
+ */
+interface SubtreeLayout {
+
+    /**
+     * @return names of subdirectories of the root directory, which must be walked to create the top-level page
+     */
+    Collection<String> subtreesOfTopLevelPage(String pageName);
+
+    /**
+     * Create the top-level page with its children
+     *
+     * @param index index of the page in the root directory
+     */
+    DefaultPage createTopLevelPage(DirectoryModel.Directory root, int index);
+}
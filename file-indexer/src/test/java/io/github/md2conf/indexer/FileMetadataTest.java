@@ -0,0 +1,32 @@
+package io.github.md2conf.indexer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileMetadataTest {
+
+    @TempDir
+    private Path tmpDir;
+
+    @Test
+    void hash_is_computed_again_for_modified_file() throws IOException {
+        Path file = Files.writeString(tmpDir.resolve("attachment.txt"), "attachment1");
+        FileMetadata metadata = FileMetadata.read(file);
+
+        assertThat(metadata.size()).isEqualTo(11);
+        assertThat(metadata.sha256()).isEqualTo("b4c828a6393de6d41a569fa7d82bb1669af4d68355d6967f5559505c1b1af427");
+
+        Files.writeString(file, "attachment two");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(metadata.lastModified() + 1000));
+
+        assertThat(metadata.sha256()).isEqualTo("08a57b2954f15a43ddc7d37bcc5c866860739ca6f137a62e519144326877bc3d");
+        assertThat(metadata.size()).isEqualTo(14);
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.md2conf.indexer;
+
+import org.apache.commons.io.FilenameUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathMatchersTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PathMatchersTest.class);
+
+    private static final List<Path> PATHS = List.of(
+            Path.of("docs/page.md"),
+            Path.of("docs/.git"),
+            Path.of("docs/.git/config"),
+            Path.of(".hidden"),
+            Path.of("/.hidden"),
+            Path.of("/abs/docs/.md"),
+            Path.of("docs/node_modules"),
+            Path.of("docs/node_modules/module/readme.md"),
+            Path.of("node_modules/readme.md"),
+            Path.of("/node_modules/readme.md"),
+            Path.of("docs/my_node_modules/readme.md"),
+            Path.of("docs/page.wiki"),
+            Path.of("docs/page.md.bak"),
+            Path.of("docs/page"),
+            Path.of("docs/a.b/page"),
+            Path.of("page.md"));
+
+    @Test
+    void compiled_globs_match_same_paths_as_path_matcher() {
+        for (String pattern : List.of("glob:**/.*", "glob:**/node_modules/**", "glob:**/*.{md,wiki}", "glob:**/*.md",
+                "glob:**/page", "glob:**/page*", "glob:**/*", "glob:**/.git/**", "glob:**/{.git,node_modules}/**")) {
+            PathMatcher compiled = PathMatchers.compileGlob(pattern);
+            PathMatcher expected = FileSystems.getDefault().getPathMatcher(pattern);
+
+            assertThat(compiled).as(pattern).isNotNull();
+            for (Path path : PATHS) {
+                assertThat(compiled.matches(path)).as(pattern + " " + path).isEqualTo(expected.matches(path));
+            }
+        }
+    }
+
+    @Test
+    void exotic_patterns_fall_back_to_path_matcher() {
+        for (String pattern : List.of("regex:.*/\\..*", "glob:docs/**", "glob:**/p?ge.md", "glob:**/[a-z]*.md",
+                "glob:**/*.*.*", "glob:**/**/page.md")) {
+            assertThat(PathMatchers.compileGlob(pattern)).as(pattern).isNull();
+            PathMatcher matcher = PathMatchers.compile(pattern);
+            PathMatcher expected = FileSystems.getDefault().getPathMatcher(pattern);
+            for (Path path : PATHS) {
+                assertThat(matcher.matches(path)).as(pattern + " " + path).isEqualTo(expected.matches(path));
+            }
+        }
+    }
+
+    @Test
+    void several_file_extensions_are_matched() {
+        Predicate<Path> matcher = PathMatchers.fileExtensions("md, wiki");
+
+        for (Path path : PATHS) {
+            String extension = FilenameUtils.getExtension(path.toString());
+            assertThat(matcher.test(path)).as(path.toString())
+                    .isEqualTo(extension.equals("md") || extension.equals("wiki"));
+        }
+        assertThat(PathMatchers.fileExtensionList("md, wiki")).containsExactly("md", "wiki");
+    }
+
+    /**
+     * Run with -Dmd2conf.benchmark=true
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "md2conf.benchmark", matches = "true")
+    void benchmark_against_path_matcher_on_million_paths() {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; paths.size() < 1_000_000; i++) {
+            Path directory = Path.of("/home/user/projects/documentation/section_" + i % 100, "chapter_" + i);
+            paths.add(directory.resolve("page_" + i + ".md"));
+            paths.add(directory.resolve("image_" + i + ".png"));
+            paths.add(directory.resolve(i % 10 == 0 ? ".hidden" : "notes_" + i + ".wiki"));
+            paths.add(directory.resolve("node_modules/module_" + i + "/index.js"));
+        }
+        paths.forEach(Path::toString);
+        PathMatcher excludeMatcher = FileSystems.getDefault().getPathMatcher("glob:**/.*");
+        PathMatcher compiledExcludeMatcher = PathMatchers.compile("glob:**/.*");
+        Predicate<Path> extensionMatcher = PathMatchers.fileExtensions("md");
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            int expected = 0;
+            for (Path path : paths) {
+                if (!excludeMatcher.matches(path) && FilenameUtils.getExtension(path.toString()).equals("md")) {
+                    expected++;
+                }
+            }
+            long pathMatcherNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            int actual = 0;
+            for (Path path : paths) {
+                if (!compiledExcludeMatcher.matches(path) && extensionMatcher.test(path)) {
+                    actual++;
+                }
+            }
+            long compiledNanos = System.nanoTime() - start;
+            assertThat(actual).isEqualTo(expected);
+            logger.info("Round {}: {} paths, {} pages, path matcher {} ms, compiled matcher {} ms", round, paths.size(),
+                    actual, pathMatcherNanos / 1_000_000, compiledNanos / 1_000_000);
+        }
+    }
+}
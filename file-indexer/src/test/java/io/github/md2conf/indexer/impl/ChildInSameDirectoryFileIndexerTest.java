@@ -10,6 +10,9 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static io.github.md2conf.indexer.FileIndexerConfigurationPropertiesFactory.aDefaultIndexerConfigurationProperties;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -102,6 +105,19 @@ class ChildInSameDirectoryFileIndexerTest extends AbstractFileIndexerTest{
         assertThat(structure.pages().get(0).children().get(0).children()).hasSize(1).singleElement().matches(page -> page.path().endsWith("child/child_level_2.md"));
     }
 
+    @Test
+    void streamed_pages_are_passed_after_whole_tree_is_indexed() {
+        FileIndexer markdownIndexer = mdFileIndexer();
+        Path rootDir = Path.of("src/test/resources/dir_with_several_pages");
+        List<Page> streamed = new ArrayList<>();
+
+        markdownIndexer.indexPath(rootDir, streamed::add);
+
+        assertThat(streamed).extracting(Page::path)
+                .containsExactlyElementsOf(markdownIndexer.indexPath(rootDir).pages().stream().map(Page::path).collect(Collectors.toList()));
+        assertThat(streamed.get(0).children()).hasSize(3);
+    }
+
     private static FileIndexer mdFileIndexer() {
         FileIndexerConfigurationProperties markdownProps = new FileIndexerConfigurationProperties();
         markdownProps.setFileExtension("md");
@@ -5,12 +5,18 @@ import io.github.md2conf.indexer.OrphanFileAction;
 import io.github.md2conf.indexer.Page;
 import io.github.md2conf.indexer.PagesStructure;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static io.github.md2conf.indexer.FileIndexerConfigurationPropertiesFactory.aDefaultIndexerConfigurationProperties;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 
 class ChildInSubDirectoryFileIndexerTest extends AbstractFileIndexerTest {
@@ -65,6 +71,53 @@ class ChildInSubDirectoryFileIndexerTest extends AbstractFileIndexerTest {
         assertThat(anotherPage.skipUpdate()).isTrue();
     }
 
+    @Test
+    void index_dir_with_ignore_files() {
+        ChildInSubDirectoryFileIndexer defaultIndexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
+                .fileExtension("md")
+                .orphanFileAction(OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES)
+                .build());
+        Path rootDir = Path.of("src/test/resources/dir_with_ignore_files");
+
+        PagesStructure structure = defaultIndexer.indexPath(rootDir);
+
+        assertThat(structure.pages()).hasSize(1);
+        Page page = structure.pages().get(0);
+        assertThat(page.path()).isEqualTo(rootDir.resolve("page.md"));
+        assertThat(page.attachments()).containsExactly(rootDir.resolve("page_attachments/image.png"));
+        assertThat(page.children())
+                .extracting(v -> v.path().getFileName().toString())
+                .containsExactly("child.md", "keep.draft.md");
+    }
+
+    @Test
+    void index_with_cache_file_builds_same_structure(@TempDir Path tmpDir) {
+        FileIndexerConfigurationProperties.FileIndexerConfigurationPropertiesBuilder properties = aDefaultIndexerConfigurationProperties()
+                .fileExtension("md")
+                .orphanFileAction(OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES);
+        ChildInSubDirectoryFileIndexer cachingIndexer = new ChildInSubDirectoryFileIndexer(properties
+                .indexCacheFile(tmpDir.resolve("index-cache.json"))
+                .build());
+        Path rootDir = Path.of("src/test/resources/dir_with_ignore_files");
+        PagesStructure expected = new ChildInSubDirectoryFileIndexer(properties.indexCacheFile(null).build()).indexPath(rootDir);
+
+        PagesStructure first = cachingIndexer.indexPath(rootDir);
+        PagesStructure cached = cachingIndexer.indexPath(rootDir);
+
+        assertThat(tmpDir.resolve("index-cache.json")).isRegularFile();
+        assertThat(describe(first.pages())).isEqualTo(describe(expected.pages())).isNotEmpty();
+        assertThat(describe(cached.pages())).isEqualTo(describe(expected.pages()));
+    }
+
+    private static List<String> describe(List<? extends Page> pages) {
+        List<String> res = new ArrayList<>();
+        for (Page page : pages) {
+            res.add(page.path() + " " + page.attachments() + " " + page.skipUpdate());
+            res.addAll(describe(page.children()));
+        }
+        return res;
+    }
+
     @Test
     void test_dir_with_name_collision() {
         ChildInSubDirectoryFileIndexer defaultIndexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
@@ -151,4 +204,70 @@ class ChildInSubDirectoryFileIndexerTest extends AbstractFileIndexerTest {
                 .containsExactlyInAnyOrder("index.md", "index.md", "orhan.md", "child_level_2.md", "level_2.md");
         assertThat(structure.pages().get(0).children()).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void streamed_pages_are_same_as_indexed_pages() {
+        ChildInSubDirectoryFileIndexer markdownIndexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
+                .fileExtension("md")
+                .orphanFileAction(OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES)
+                .build());
+        for (String path : List.of("src/test/resources/dir_with_index_md_and_orphans", "src/test/resources/dir_with_skipupdatefile",
+                "src/test/resources/dir_with_attachments", "src/test/resources/dir_with_ignore_files")) {
+            Path rootDir = Path.of(path);
+            List<Page> streamed = new ArrayList<>();
+
+            markdownIndexer.indexPath(rootDir, streamed::add);
+
+            assertThat(describe(streamed)).isEqualTo(describe(markdownIndexer.indexPath(rootDir).pages()));
+        }
+    }
+
+    @Test
+    void pages_with_same_base_name_fail_indexing(@TempDir Path tmpDir) throws IOException {
+        ChildInSubDirectoryFileIndexer indexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
+                .fileExtension("md,wiki")
+                .build());
+        Files.writeString(tmpDir.resolve("a.md"), "a");
+        Files.writeString(tmpDir.resolve("b.wiki"), "b");
+        Files.writeString(Files.createDirectories(tmpDir.resolve("a")).resolve("child.wiki"), "child");
+
+        List<? extends Page> pages = indexer.indexPath(tmpDir).pages();
+        assertThat(pages).extracting(page -> page.path().getFileName().toString()).containsExactly("a.md", "b.wiki");
+        assertThat(pages.get(0).children()).hasSize(1);
+
+        Files.writeString(tmpDir.resolve("a/child.md"), "child");
+        assertThatThrownBy(() -> indexer.indexPath(tmpDir)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("child.md").hasMessageContaining("child.wiki");
+        Files.delete(tmpDir.resolve("a/child.md"));
+        Files.writeString(tmpDir.resolve("a.wiki"), "a");
+        assertThatThrownBy(() -> indexer.indexPath(tmpDir)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("a.md").hasMessageContaining("a.wiki");
+        assertThatThrownBy(() -> indexer.indexPath(tmpDir, page -> { })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void file_metadata_is_collected_for_pages_and_attachments() {
+        ChildInSubDirectoryFileIndexer markdownIndexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
+                .fileExtension("wiki")
+                .collectFileMetadata(true)
+                .build());
+        Path rootDir = Path.of("src/test/resources/dir_with_attachments");
+        List<Page> streamed = new ArrayList<>();
+
+        PagesStructure structure = markdownIndexer.indexPath(rootDir);
+        markdownIndexer.indexPath(rootDir, streamed::add);
+
+        for (Page page : List.of(structure.pages().get(0), streamed.get(0))) {
+            assertThat(page.fileMetadata()).containsOnlyKeys(filesOf(page));
+            Path attachment = page.attachments().get(0);
+            assertThat(page.fileMetadata().get(attachment).size()).isEqualTo(attachment.toFile().length());
+            assertThat(page.children().get(0).fileMetadata()).containsKey(page.children().get(0).path());
+        }
+    }
+
+    private static List<Path> filesOf(Page page) {
+        List<Path> res = new ArrayList<>(page.attachments());
+        res.add(page.path());
+        return res;
+    }
+}
@@ -0,0 +1,191 @@
+package io.github.md2conf.indexer.impl;
+
+import io.github.md2conf.indexer.DefaultPage;
+import io.github.md2conf.indexer.DefaultPagesStructure;
+import io.github.md2conf.indexer.FileIndexerConfigurationProperties;
+import io.github.md2conf.indexer.OrphanFileAction;
+import io.github.md2conf.indexer.Page;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static io.github.md2conf.indexer.FileIndexerConfigurationPropertiesFactory.aDefaultIndexerConfigurationProperties;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DirectoryModelTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DirectoryModelTest.class);
+
+    private final Path root = Path.of("docs");
+
+    @Test
+    void files_are_kept_in_trie_of_directories() {
+        DirectoryModel model = new DirectoryModel(root, List.of(
+                root.resolve("a/b/deep.md"),
+                root.resolve("a/page.md"),
+                root.resolve("page.md"),
+                root.resolve("page_attachments/image.png")
+        ), path -> path.toString().endsWith(".md"));
+
+        DirectoryModel.Directory rootDirectory = model.root();
+        assertThat(rootDirectory.pageCount()).isEqualTo(1);
+        assertThat(rootDirectory.subdirectories()).extracting(DirectoryModel.Directory::path)
+                .containsExactly(root.resolve("a"), root.resolve("page_attachments"));
+        assertThat(rootDirectory.subdirectory("a").subdirectory("b").path()).isEqualTo(root.resolve("a/b"));
+        assertThat(rootDirectory.subdirectory("page_attachments").pageCount()).isZero();
+        assertThat(rootDirectory.subdirectory("missing")).isNull();
+
+        DefaultPage page = rootDirectory.createPage(0);
+        assertThat(page.path()).isEqualTo(root.resolve("page.md"));
+        assertThat(page.attachments()).containsExactly(root.resolve("page_attachments/image.png"));
+        assertThat(model.createNotIncludedPages()).extracting(DefaultPage::path)
+                .containsExactly(root.resolve("a/b/deep.md"), root.resolve("a/page.md"));
+        assertThat(model.createNotIncludedPages()).isEmpty();
+    }
+
+    @Test
+    void pages_keep_directory_path_and_share_empty_collections() {
+        DirectoryModel model = new DirectoryModel(root, List.of(root.resolve("a.md"), root.resolve("a/child.md"),
+                root.resolve("b.md")), path -> path.toString().endsWith(".md"));
+
+        DefaultPage first = model.root().createPage(0);
+        DefaultPage second = model.root().createPage(1);
+        first.addChild(model.root().subdirectory("a").createPage(0));
+
+        assertThat(first.path()).isEqualTo(root.resolve("a.md"));
+        assertThat(second.path()).isEqualTo(root.resolve("b.md"));
+        assertThat(first.children()).extracting(Page::path).containsExactly(root.resolve("a/child.md"));
+        assertThat(second.children()).isSameAs(List.of());
+        assertThat(second.attachments()).isSameAs(first.attachments()).isEmpty();
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void index_tree_of_half_million_files() {
+        List<Path> files = halfMillionFiles();
+        FileIndexerConfigurationProperties properties = aDefaultIndexerConfigurationProperties()
+                .fileExtension("md")
+                .orphanFileAction(OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES)
+                .build();
+        ChildInSubDirectoryFileIndexer indexer = new ChildInSubDirectoryFileIndexer(properties);
+
+        long start = System.nanoTime();
+        DefaultPagesStructure structure = indexer.index(new DirectoryModel(root, files, indexer::matchFileExtension));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Runtime runtime = Runtime.getRuntime();
+        logger.info("Indexed {} files in {} ms, used heap {} MiB", files.size(), millis,
+                (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+        assertThat(files).hasSize(501_010);
+        assertThat(structure.pages()).hasSize(1010);
+        assertThat(count(structure.pages())).isEqualTo(301_010);
+        assertThat(structure.pages().get(0).children().get(0).attachments()).hasSize(4);
+        assertThat(structure.pages().stream().skip(1000).map(Page::path).collect(Collectors.toList()))
+                .allMatch(path -> path.startsWith(root.resolve("orphans")));
+    }
+
+    private List<Path> halfMillionFiles() {
+        List<Path> files = new ArrayList<>();
+        for (int section = 0; section < 1000; section++) {
+            Path sectionPath = root.resolve("section_" + section + ".md");
+            files.add(sectionPath);
+            for (int page = 0; page < 50; page++) {
+                Path pageDirectory = root.resolve("section_" + section).resolve("page_" + page);
+                files.add(Path.of(pageDirectory + ".md"));
+                for (int i = 0; i < 4; i++) {
+                    files.add(Path.of(pageDirectory + "_attachments").resolve("image_" + i + ".png"));
+                }
+                for (int i = 0; i < 5; i++) {
+                    files.add(pageDirectory.resolve("child_" + i + ".md"));
+                }
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            files.add(root.resolve("orphans").resolve("orphan_" + i + ".md"));
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    /**
+     * Run with -Dmd2conf.benchmark=true. Compares allocated and retained memory of the indexed structure with pages
+     * holding own paths and lists, as they were kept before.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "md2conf.benchmark", matches = "true")
+    void benchmark_memory_of_indexed_structure() {
+        List<Path> files = halfMillionFiles();
+        ChildInSubDirectoryFileIndexer indexer = new ChildInSubDirectoryFileIndexer(aDefaultIndexerConfigurationProperties()
+                .fileExtension("md")
+                .orphanFileAction(OrphanFileAction.ADD_TO_TOP_LEVEL_PAGES)
+                .build());
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 3; round++) {
+            long heapBefore = usedHeapAfterGc();
+            long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            DefaultPagesStructure structure = indexer.index(new DirectoryModel(root, files, indexer::matchFileExtension));
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            long retained = usedHeapAfterGc() - heapBefore;
+            int pages = count(structure.pages());
+
+            heapBefore = usedHeapAfterGc();
+            List<PlainPage> plainPages = PlainPage.copyOf(structure.pages());
+            long plainRetained = usedHeapAfterGc() - heapBefore;
+
+            logger.info("Round {}: {} pages, allocated {} MiB while indexing, retained {} bytes per page, "
+                            + "{} bytes per page with own paths and lists", round, pages, allocated / (1024 * 1024),
+                    retained / pages, plainRetained / pages);
+            assertThat(plainPages).hasSize(structure.pages().size());
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int count(List<? extends Page> pages) {
+        int res = pages.size();
+        for (Page page : pages) {
+            res += count(page.children());
+        }
+        return res;
+    }
+
+    /**
+     * Page with own path and lists, for comparison in the benchmark
+     */
+    private static final class PlainPage {
+        private final Path path;
+        private final List<PlainPage> children = new ArrayList<>();
+        private final List<Path> attachments;
+
+        private PlainPage(Path path, List<Path> attachments) {
+            this.path = path;
+            this.attachments = new ArrayList<>(attachments);
+        }
+
+        private static List<PlainPage> copyOf(List<? extends Page> pages) {
+            List<PlainPage> res = new ArrayList<>();
+            for (Page page : pages) {
+                PlainPage plainPage = new PlainPage(Path.of(page.path().toString()), page.attachments());
+                plainPage.children.addAll(copyOf(page.children()));
+                res.add(plainPage);
+            }
+            return res;
+        }
+    }
+}
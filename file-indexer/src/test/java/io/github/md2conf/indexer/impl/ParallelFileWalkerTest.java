@@ -0,0 +1,162 @@
+package io.github.md2conf.indexer.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelFileWalkerTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelFileWalkerTest.class);
+
+    @TempDir
+    private Path tmpDir;
+
+    @Test
+    void lists_same_files_as_files_walk_in_sorted_order() throws IOException {
+        Path root = Paths.get("src/test/resources");
+        Predicate<Path> filter = path -> path.toString().endsWith(".md") || path.toString().endsWith(".wiki");
+
+        List<Path> res = new ParallelFileWalker(4, filter).walk(root);
+
+        assertThat(res).isNotEmpty().isSorted().isEqualTo(walkSerially(root, filter));
+    }
+
+    @Test
+    void subtrees_are_reported_in_order_of_walk_result() throws IOException {
+        Path root = Paths.get("src/test/resources");
+        Predicate<Path> filter = path -> path.toString().endsWith(".md") || path.toString().endsWith(".wiki");
+        List<Path> reported = new ArrayList<>();
+        List<Path> subtrees = new ArrayList<>();
+
+        new ParallelFileWalker(4, filter).walk(root, null, new ParallelFileWalker.SubtreeListener() {
+            @Override
+            public void rootListed(List<Path> files, List<Path> subdirectories) {
+                reported.addAll(files);
+                subtrees.addAll(subdirectories);
+            }
+
+            @Override
+            public void subtreeWalked(Path subdirectory, List<Path> files) {
+                assertThat(subdirectory).isEqualTo(subtrees.remove(0));
+                assertThat(files).allMatch(file -> file.startsWith(subdirectory));
+                reported.addAll(files);
+            }
+        });
+
+        assertThat(subtrees).isEmpty();
+        assertThat(reported).isNotEmpty().isEqualTo(walkSerially(root, filter));
+    }
+
+    @Test
+    void linked_directories_are_not_followed() throws IOException {
+        Path dir = Files.createDirectories(tmpDir.resolve("dir"));
+        Files.writeString(dir.resolve("page.md"), "page");
+        Files.createSymbolicLink(tmpDir.resolve("link_to_dir"), dir);
+        Files.createSymbolicLink(tmpDir.resolve("link.md"), dir.resolve("page.md"));
+
+        List<Path> res = new ParallelFileWalker(2, path -> true).walk(tmpDir);
+
+        assertThat(res).containsExactly(dir.resolve("page.md"), tmpDir.resolve("link.md"));
+    }
+
+    @Test
+    void directories_not_accepted_are_pruned() throws IOException {
+        Files.createDirectories(tmpDir.resolve("node_modules/module"));
+        Files.writeString(tmpDir.resolve("node_modules/module/readme.md"), "module");
+        Files.writeString(tmpDir.resolve("page.md"), "page");
+
+        List<Path> res = new ParallelFileWalker(2, directory -> !directory.endsWith("node_modules"), path -> true, null)
+                .walk(tmpDir);
+
+        assertThat(res).containsExactly(tmpDir.resolve("page.md"));
+    }
+
+    @Test
+    void directories_not_modified_since_cached_are_not_listed_again() throws IOException {
+        Path section = Files.createDirectories(tmpDir.resolve("tree/section"));
+        Files.writeString(section.resolve("page.md"), "page");
+        Files.writeString(section.resolve("removed.md"), "removed");
+        Files.writeString(tmpDir.resolve("tree/index.md"), "index");
+        FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(section, past);
+        Files.setLastModifiedTime(tmpDir.resolve("tree"), past);
+        Path cacheFile = tmpDir.resolve("index-cache.json");
+        ParallelFileWalker walker = new ParallelFileWalker(2, path -> true);
+        DirectoryListingCache cache = DirectoryListingCache.load(cacheFile);
+        walker.walk(tmpDir.resolve("tree"), cache);
+        cache.save();
+
+        // modification time is restored, so the cached listing is still valid
+        Files.delete(section.resolve("removed.md"));
+        Files.setLastModifiedTime(section, past);
+        Files.writeString(tmpDir.resolve("tree/added.md"), "added");
+        List<Path> res = walker.walk(tmpDir.resolve("tree"), DirectoryListingCache.load(cacheFile));
+
+        assertThat(res).containsExactly(tmpDir.resolve("tree/added.md"), tmpDir.resolve("tree/index.md"),
+                section.resolve("page.md"), section.resolve("removed.md"));
+    }
+
+    @Test
+    void missing_root_fails() {
+        assertThatThrownBy(() -> new ParallelFileWalker(2, path -> true).walk(tmpDir.resolve("non_exists")))
+                .isInstanceOf(NoSuchFileException.class);
+    }
+
+    /**
+     * Run with -Dmd2conf.benchmark=true, optionally with -Dmd2conf.benchmark.dirs=N to change size of the tree
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "md2conf.benchmark", matches = "true")
+    void benchmark_against_serial_walk() throws IOException {
+        int directories = Integer.getInteger("md2conf.benchmark.dirs", 2000);
+        for (int i = 0; i < directories; i++) {
+            Path dir = Files.createDirectories(tmpDir.resolve("section_" + i % 20).resolve("page_" + i));
+            for (int j = 0; j < 10; j++) {
+                Files.writeString(dir.resolve("child_" + j + (j % 2 == 0 ? ".md" : ".png")), "");
+            }
+        }
+        Predicate<Path> filter = path -> path.toString().endsWith(".md");
+        ParallelFileWalker walker = new ParallelFileWalker(Runtime.getRuntime().availableProcessors(), filter);
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            List<Path> serial = walkSerially(tmpDir, filter);
+            long serialNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            List<Path> parallel = walker.walk(tmpDir);
+            long parallelNanos = System.nanoTime() - start;
+            assertThat(parallel).isEqualTo(serial);
+            logger.info("Round {}: {} files, serial walk {} ms, parallel walk {} ms", round, parallel.size(),
+                    serialNanos / 1_000_000, parallelNanos / 1_000_000);
+        }
+    }
+
+    /**
+     * Walk done by indexer before {@link ParallelFileWalker}
+     */
+    private static List<Path> walkSerially(Path root, Predicate<Path> filter) throws IOException {
+        try (Stream<Path> stream = Files.walk(root)) {
+            return stream
+                    .filter(path -> path.toFile().isFile())
+                    .filter(filter)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
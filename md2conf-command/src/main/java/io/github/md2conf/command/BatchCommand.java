@@ -0,0 +1,229 @@
+package io.github.md2conf.command;
+
+import io.github.md2conf.command.subcommand.Md2WikiConvertCommand;
+import io.github.md2conf.confluence.client.ConfluenceClientFactory;
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
+import io.github.md2conf.indexer.ChildLayout;
+import io.github.md2conf.indexer.OrphanFileAction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.github.md2conf.command.PublishCommand.buildConfluenceClientConfigurationProperties;
+
+@CommandLine.Command(name = "batch", description = "Convert and publish several input directories, possibly to different spaces, described by a manifest file in a single run")
+public class BatchCommand implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(BatchCommand.class);
+
+    @CommandLine.Mixin
+    LoggingMixin loggingMixin;
+    @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", heading = "Batch options:\n", order = 1)
+    BatchOptions batchOptions;
+    @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", heading = "Confluence options:\n", order = 2)
+    ConnectionOptions connectionOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Default indexer options, options not set keep defaults of index command:\n", order = 3)
+    DefaultIndexerOptions indexerOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Default title processing options:\n", order = 4)
+    ConvertCommand.TitleProcessingOptions titleProcessingOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Default publish options:\n", order = 5)
+    PublishCommand.PublishOptions publishOptions;
+
+    @Override
+    public void run() {
+        var indexerOptionsLocal = indexerOptions == null ? new DefaultIndexerOptions() : indexerOptions;
+        var titleProcessingLocal = titleProcessingOptions == null ? new ConvertCommand.TitleProcessingOptions() : titleProcessingOptions;
+        var publishOptionsLocal = publishOptions == null ? new PublishCommand.PublishOptions() : publishOptions;
+        batch(batchOptions, connectionOptions, indexerOptionsLocal, titleProcessingLocal, publishOptionsLocal);
+    }
+
+    public static void batch(BatchOptions batchOptions,
+                             ConnectionOptions connectionOptions,
+                             DefaultIndexerOptions indexerOptions,
+                             ConvertCommand.TitleProcessingOptions titleProcessingOptions,
+                             PublishCommand.PublishOptions publishOptions) {
+        BatchManifest manifest = BatchManifest.readManifest(batchOptions.batchManifest);
+        List<BatchManifest.Entry> entries = manifest.getEntries();
+        if (entries.isEmpty()) {
+            logger.warn("Batch manifest {} has no entries", batchOptions.batchManifest);
+            return;
+        }
+        int parallelism = Math.max(1, Math.min(batchOptions.batchParallelism, entries.size()));
+        // all entries share one client: one connection pool and one rate limit for the whole run
+        ApiInternalClient apiInternalClient = createSharedApiInternalClient(connectionOptions, publishOptions, parallelism);
+        Path manifestDir = batchOptions.batchManifest.toAbsolutePath().getParent();
+
+        logger.info("Processing {} batch entries with parallelism {}", entries.size(), parallelism);
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                BatchManifest.Entry entry = entries.get(i);
+                Path entryOutputDirectory = batchOptions.outputDirectory.resolve("entry-" + (i + 1));
+                futures.add(executorService.submit(() -> processEntry(entry, manifestDir, entryOutputDirectory,
+                        connectionOptions, indexerOptions, titleProcessingOptions, publishOptions, apiInternalClient)));
+            }
+            List<String> failedEntries = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    futures.get(i).get();
+                } catch (ExecutionException e) {
+                    BatchManifest.Entry entry = entries.get(i);
+                    logger.error("Batch entry {} ({} -> {}/{}) failed", i + 1, entry.getInputDirectory(), entry.getSpaceKey(), entry.getParentPageTitle(), e.getCause());
+                    failedEntries.add(String.valueOf(i + 1));
+                }
+            }
+            if (!failedEntries.isEmpty()) {
+                throw new IllegalStateException("Batch entries failed: " + String.join(", ", failedEntries));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch processing interrupted", e);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void processEntry(BatchManifest.Entry entry,
+                                     Path manifestDir,
+                                     Path entryOutputDirectory,
+                                     ConnectionOptions connectionOptions,
+                                     DefaultIndexerOptions defaultIndexerOptions,
+                                     ConvertCommand.TitleProcessingOptions defaultTitleProcessingOptions,
+                                     PublishCommand.PublishOptions defaultPublishOptions,
+                                     ApiInternalClient apiInternalClient) {
+        if (entry.getInputDirectory() == null || entry.getSpaceKey() == null || entry.getParentPageTitle() == null) {
+            throw new IllegalArgumentException("Batch entry must define inputDirectory, spaceKey and parentPageTitle");
+        }
+        var md2WikiConvertOptions = new Md2WikiConvertCommand.Md2WikiConvertOptions();
+        md2WikiConvertOptions.outputDirectory = entryOutputDirectory;
+        var indexerOptions = entryIndexerOptions(entry, manifestDir.resolve(entry.getInputDirectory()), defaultIndexerOptions);
+        var titleProcessingOptions = entryTitleProcessingOptions(entry, defaultTitleProcessingOptions);
+        var publishOptions = entryPublishOptions(entry, defaultPublishOptions);
+        var confluenceOptions = connectionOptions.toConfluenceOptions(entry.getSpaceKey(), entry.getParentPageTitle());
+
+        File modelFile = Md2WikiConvertCommand.convertMd2Wiki(md2WikiConvertOptions, indexerOptions, titleProcessingOptions);
+        PublishCommand.publish(confluenceOptions, publishOptions, modelFile.toPath(), apiInternalClient);
+        logger.info("Published {} to space {} under page '{}'", indexerOptions.inputDirectory, entry.getSpaceKey(), entry.getParentPageTitle());
+    }
+
+    private static ApiInternalClient createSharedApiInternalClient(ConnectionOptions connectionOptions,
+                                                                  PublishCommand.PublishOptions publishOptions,
+                                                                  int parallelism) {
+        var confluenceOptions = connectionOptions.toConfluenceOptions(null, null);
+        var clientProps = buildConfluenceClientConfigurationProperties(confluenceOptions, publishOptions);
+        if (clientProps.getMaxConnections() == null) {
+            // every entry publishes with own scheduler
+            clientProps.setMaxConnections(parallelism * ConfluenceClientFactory.publishThreads(clientProps));
+        }
+        return ConfluenceClientFactory.createApiInternalClient(clientProps);
+    }
+
+    static IndexCommand.IndexerOptions entryIndexerOptions(BatchManifest.Entry entry, Path inputDirectory, DefaultIndexerOptions defaults) {
+        var options = new IndexCommand.IndexerOptions();
+        options.inputDirectory = inputDirectory;
+        options.indexerFileExtension = valueOrDefault(entry.getIndexerFileExtension(), defaults.indexerFileExtension, options.indexerFileExtension);
+        options.indexerExcludePattern = valueOrDefault(entry.getIndexerExcludePattern(), defaults.indexerExcludePattern, options.indexerExcludePattern);
+        options.indexerRootPage = valueOrDefault(entry.getIndexerRootPage(), defaults.indexerRootPage, options.indexerRootPage);
+        options.indexerChildLayout = valueOrDefault(entry.getIndexerChildLayout(), defaults.indexerChildLayout, options.indexerChildLayout);
+        options.indexerOrphanFileAction = valueOrDefault(defaults.indexerOrphanFileAction, options.indexerOrphanFileAction);
+        return options;
+    }
+
+    private static ConvertCommand.TitleProcessingOptions entryTitleProcessingOptions(BatchManifest.Entry entry, ConvertCommand.TitleProcessingOptions defaults) {
+        var options = new ConvertCommand.TitleProcessingOptions();
+        options.titleExtract = defaults.titleExtract;
+        options.titlePrefix = valueOrDefault(entry.getTitlePrefix(), defaults.titlePrefix);
+        options.titleSuffix = valueOrDefault(entry.getTitleSuffix(), defaults.titleSuffix);
+        options.titleChildPrefixed = valueOrDefault(entry.getTitleChildPrefixed(), defaults.titleChildPrefixed);
+        options.titleRemoveFromContent = defaults.titleRemoveFromContent;
+        return options;
+    }
+
+    private static PublishCommand.PublishOptions entryPublishOptions(BatchManifest.Entry entry, PublishCommand.PublishOptions defaults) {
+        var options = new PublishCommand.PublishOptions();
+        options.orphanRemovalStrategy = valueOrDefault(entry.getOrphanRemovalStrategy(), defaults.orphanRemovalStrategy);
+        options.parentPagePublishingStrategy = valueOrDefault(entry.getParentPagePublishingStrategy(), defaults.parentPagePublishingStrategy);
+        options.notifyWatchers = valueOrDefault(entry.getNotifyWatchers(), defaults.notifyWatchers);
+        options.versionMessage = valueOrDefault(entry.getVersionMessage(), defaults.versionMessage);
+        options.publishConcurrency = defaults.publishConcurrency;
+        options.largeAttachmentConcurrency = defaults.largeAttachmentConcurrency;
+        options.largeAttachmentThreshold = defaults.largeAttachmentThreshold;
+        options.attachmentBytesPerSecond = defaults.attachmentBytesPerSecond;
+        return options;
+    }
+
+    private static <T> T valueOrDefault(T value, T defaultValue) {
+        return value != null ? value : defaultValue;
+    }
+
+    private static <T> T valueOrDefault(T value, T defaultValue, T fallbackValue) {
+        return valueOrDefault(value, valueOrDefault(defaultValue, fallbackValue));
+    }
+
+    public static class BatchOptions {
+        @CommandLine.Option(names = {"-f", "--batch-manifest"}, required = true, description = "Path to JSON manifest with batch entries. Relative input directories are resolved against the manifest directory")
+        public Path batchManifest;
+        @CommandLine.Option(names = {"-o", "--output-dir"}, required = true, description = "Output directory. Every entry is converted into own sub-directory")
+        public Path outputDirectory;
+        @CommandLine.Option(names = {"--batch-parallelism"}, description = "Number of entries processed concurrently", defaultValue = "4", showDefaultValue = CommandLine.Help.Visibility.ALWAYS)
+        public int batchParallelism = 4;
+    }
+
+    public static class ConnectionOptions {
+        @CommandLine.Option(names = {"-url", "--confluence-url"}, required = true, description = "The root URL of the Confluence instance", order = 1)
+        public String confluenceUrl;
+        @CommandLine.Option(names = {"--username"}, description = "Username of the Confluence user", order = 2)
+        public String username;
+        @CommandLine.Option(names = {"--password"}, description = "The password or personal access token of the user. In case of using token don't specify username.", order = 3)
+        public String password;
+        @CommandLine.Option(names = {"--skip-ssl-verification"}, defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 6)
+        public boolean skipSslVerification = false;
+        @CommandLine.Option(names = {"--max-requests-per-second"}, description = "Request budget shared by all batch entries", order = 7)
+        public Double maxRequestsPerSecond;
+        @CommandLine.Option(names = {"--connection-time-to-live"}, description = "Connection TTL in milliseconds", order = 8)
+        public Integer connectionTimeToLive;
+        @CommandLine.Option(names = {"--max-connections"}, description = "Max number of pooled HTTP connections shared by all batch entries. Default is batch parallelism multiplied by number of publish threads of an entry", order = 9)
+        public Integer maxConnections;
+
+        PublishCommand.ConfluenceOptions toConfluenceOptions(String spaceKey, String parentPageTitle) {
+            var options = new PublishCommand.ConfluenceOptions();
+            options.confluenceUrl = confluenceUrl;
+            options.username = username;
+            options.password = password;
+            options.spaceKey = spaceKey;
+            options.parentPageTitle = parentPageTitle;
+            options.skipSslVerification = skipSslVerification;
+            options.maxRequestsPerSecond = maxRequestsPerSecond;
+            options.connectionTimeToLive = connectionTimeToLive;
+            options.maxConnections = maxConnections;
+            return options;
+        }
+    }
+
+    /**
+     * Indexer options shared by batch entries, without input directory, which is defined per batch entry. Options are
+     * null unless set, entries start from defaults of {@link IndexCommand.IndexerOptions} and override only options
+     * set by the manifest entry or here.
+     */
+    public static class DefaultIndexerOptions {
+        @CommandLine.Option(names = {"--indexer-file-extension"}, description = "File extension to index as confluence content pages")
+        public String indexerFileExtension;
+        @CommandLine.Option(names = {"--indexer-exclude-pattern"}, description = "Exclude pattern in format of glob:** or regexp:.*. For syntax see javadoc of java.nio.file.FileSystem.getPathMatcher method")
+        public String indexerExcludePattern;
+        @CommandLine.Option(names = {"--indexer-root-page"}, description = "Use specified page as parent page for all another top-level pages in an input directory")
+        public String indexerRootPage;
+        @CommandLine.Option(names = {"--indexer-child-layout"}, description = "Valid values: ${COMPLETION-CANDIDATES}")
+        public ChildLayout indexerChildLayout;
+        @CommandLine.Option(names = {"--indexer-orphan-file-action"}, description = "Valid values: ${COMPLETION-CANDIDATES}")
+        public OrphanFileAction indexerOrphanFileAction;
+    }
+}
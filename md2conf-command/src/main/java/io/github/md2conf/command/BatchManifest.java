@@ -0,0 +1,56 @@
+package io.github.md2conf.command;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.md2conf.confluence.client.OrphanRemovalStrategy;
+import io.github.md2conf.confluence.client.PublishingStrategy;
+import io.github.md2conf.indexer.ChildLayout;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Manifest of the `batch` command. Every entry describes one input directory published to one space under one parent page.
+ * <p>
+ * Options not specified in an entry fall back to values passed to the `batch` command.
+ */
+@Getter
+@Setter
+public class BatchManifest {
+
+    private List<Entry> entries = new ArrayList<>();
+
+    public static BatchManifest readManifest(Path manifestPath) {
+        try {
+            return new ObjectMapper().readValue(manifestPath.toFile(), BatchManifest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read batch manifest " + manifestPath, e);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Entry {
+        private String inputDirectory;
+        private String spaceKey;
+        private String parentPageTitle;
+
+        private String indexerFileExtension;
+        private String indexerExcludePattern;
+        private String indexerRootPage;
+        private ChildLayout indexerChildLayout;
+
+        private String titlePrefix;
+        private String titleSuffix;
+        private Boolean titleChildPrefixed;
+
+        private OrphanRemovalStrategy orphanRemovalStrategy;
+        private PublishingStrategy parentPagePublishingStrategy;
+        private Boolean notifyWatchers;
+        private String versionMessage;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.md2conf.command;
 
 import io.github.md2conf.command.subcommand.Md2WikiConvertCommand;
+import io.github.md2conf.command.subcommand.Storage2MdConvertCommand;
 import io.github.md2conf.command.subcommand.View2MdConvertCommand;
 import io.github.md2conf.title.processor.TitleExtractStrategy;
 import org.slf4j.Logger;
@@ -10,7 +11,7 @@ import picocli.CommandLine;
 import java.nio.file.Path;
 
 @CommandLine.Command(name = "convert",
-        subcommands = {Md2WikiConvertCommand.class, View2MdConvertCommand.class},
+        subcommands = {Md2WikiConvertCommand.class, View2MdConvertCommand.class, Storage2MdConvertCommand.class},
         description = "Convert")
 public class ConvertCommand {
 
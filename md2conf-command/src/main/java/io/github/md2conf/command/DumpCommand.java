@@ -1,20 +1,37 @@
 package io.github.md2conf.command;
 
+import io.github.md2conf.confluence.client.AttachmentSelector;
 import io.github.md2conf.confluence.client.ConfluenceClientFactory;
 import io.github.md2conf.confluence.client.DumpConfluenceClient;
+import io.github.md2conf.confluence.client.DumpConfluenceClientBuilder;
+import io.github.md2conf.confluence.client.DumpContentFormat;
+import io.github.md2conf.confluence.client.DumpFilter;
+import io.github.md2conf.confluence.client.DumpFilterBuilder;
+import io.github.md2conf.confluence.client.DumpListener;
+import io.github.md2conf.confluence.client.DumpStrategy;
 import io.github.md2conf.confluence.client.http.ApiInternalClient;
+import io.github.md2conf.converter.view2md.ReferencedAttachments;
 import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+import io.github.md2conf.model.util.ModelArchiveWriter;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
 import picocli.CommandLine;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 import static io.github.md2conf.command.PublishCommand.buildConfluenceClientConfigurationProperties;
 import static io.github.md2conf.model.util.ModelFilesystemUtil.saveConfluenceContentModelAtPath;
 
-@CommandLine.Command(name = "dump", description = "Dump content from Confluence instance and save as 'confluence-content-model' with files in Confluence VIEW format")
+@CommandLine.Command(name = "dump", description = "Dump content from Confluence instance and save as 'confluence-content-model' with files in Confluence VIEW or STORAGE format")
 @Slf4j
 public class DumpCommand implements Runnable {
     @CommandLine.Mixin
@@ -27,13 +44,25 @@ public class DumpCommand implements Runnable {
     @CommandLine.Option(names = {"-o", "--output-dir"}, description = "output directory")
     protected Path outputDirectory;
 
+    @CommandLine.ArgGroup(exclusive = false, heading = "Dump options:\n")
+    DumpOptions dumpOptions;
+
     @Override
     public void run() {
-        dump(confluenceOptions, outputDirectory);
+        DumpOptions dumpOptionsLocal = dumpOptions == null ? new DumpOptions() : dumpOptions;
+        dump(confluenceOptions, dumpOptionsLocal, outputDirectory);
     }
 
     public static void dump(PublishCommand.ConfluenceOptions confluenceOptions, Path outputDirectory) {
-        DumpConfluenceClient confluenceClient = prepareConfluenceClient(confluenceOptions, outputDirectory);
+        dump(confluenceOptions, new DumpOptions(), outputDirectory);
+    }
+
+    public static void dump(PublishCommand.ConfluenceOptions confluenceOptions, DumpOptions dumpOptions, Path outputDirectory) {
+        if (dumpOptions.dumpArchive) {
+            dumpToArchive(confluenceOptions, dumpOptions, outputDirectory);
+            return;
+        }
+        DumpConfluenceClient confluenceClient = prepareConfluenceClient(confluenceOptions, dumpOptions, outputDirectory);
         ConfluenceContentModel model = null;
         log.info("Dumping...");
         try {
@@ -45,10 +74,135 @@ public class DumpCommand implements Runnable {
         log.info("Confluence content model saved at file {}", contentModelFile);
     }
 
-    protected static DumpConfluenceClient prepareConfluenceClient(PublishCommand.ConfluenceOptions confluenceOptions, Path outputDir) {
+    /**
+     * Pages are dumped to a local staging directory and moved to the archive one by one, as soon as they are dumped.
+     */
+    private static void dumpToArchive(PublishCommand.ConfluenceOptions confluenceOptions, DumpOptions dumpOptions, Path archivePath) {
+        if (dumpOptions.incrementalDump || dumpOptions.conditionalAttachmentDownload) {
+            throw new IllegalArgumentException("Dump to archive doesn't keep previous dump and cannot be incremental or conditional");
+        }
+        Path stagingDir = null;
+        try {
+            stagingDir = Files.createTempDirectory("md2conf-dump");
+            try (ModelArchiveWriter archiveWriter = new ModelArchiveWriter(archivePath, stagingDir)) {
+                DumpConfluenceClient confluenceClient = prepareConfluenceClient(confluenceOptions, dumpOptions, stagingDir,
+                        (ancestorTitles, page) -> movePageToArchive(archiveWriter, page));
+                log.info("Dumping to archive...");
+                ConfluenceContentModel model = confluenceClient.dump(confluenceOptions.spaceKey, confluenceOptions.parentPageTitle);
+                archiveWriter.finish(model);
+            }
+            log.info("Confluence content model saved to archive {}", archivePath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (stagingDir != null) {
+                FileUtils.deleteQuietly(stagingDir.toFile());
+            }
+        }
+    }
+
+    private static void movePageToArchive(ModelArchiveWriter archiveWriter, ConfluencePage page) {
+        try {
+            archiveWriter.movePage(page);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write page " + page.getTitle() + " to archive", e);
+        }
+    }
+
+    protected static DumpConfluenceClient prepareConfluenceClient(PublishCommand.ConfluenceOptions confluenceOptions, DumpOptions dumpOptions, Path outputDir) {
+        return prepareConfluenceClient(confluenceOptions, dumpOptions, outputDir, DumpListener.NONE);
+    }
+
+    protected static DumpConfluenceClient prepareConfluenceClient(PublishCommand.ConfluenceOptions confluenceOptions, DumpOptions dumpOptions, Path outputDir,
+                                                                  DumpListener dumpListener) {
+        if (dumpOptions.deduplicateAttachments && dumpOptions.conditionalAttachmentDownload) {
+            throw new IllegalArgumentException("Deduplicated attachments are downloaded to new files in blob store and cannot be downloaded conditionally");
+        }
         var clientProps = buildConfluenceClientConfigurationProperties(confluenceOptions, new PublishCommand.PublishOptions()); //todo drop  PublishOptions
+        int dumpConnections = Math.max(1, dumpOptions.dumpParallelism) + Math.max(0, dumpOptions.attachmentDownloadConcurrency);
+        if (clientProps.getMaxConnections() == null && dumpConnections > 2) {
+            // every traversal and download thread needs own connection
+            clientProps.setMaxConnections(dumpConnections);
+        }
         ApiInternalClient apiInternalClient = ConfluenceClientFactory.createApiInternalClient(clientProps);
-        return new DumpConfluenceClient(apiInternalClient, outputDir);
+        return DumpConfluenceClientBuilder.aDumpConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withOutputDir(outputDir)
+                .withParallelism(dumpOptions.dumpParallelism)
+                .withAttachmentDownloadConcurrency(dumpOptions.attachmentDownloadConcurrency)
+                .withIncremental(dumpOptions.incrementalDump)
+                .withDumpStrategy(dumpOptions.dumpStrategy)
+                .withDeduplicateAttachments(dumpOptions.deduplicateAttachments)
+                .withContentFormat(dumpOptions.dumpContentFormat)
+                .withConditionalAttachmentDownload(dumpOptions.conditionalAttachmentDownload)
+                .withDumpListener(dumpListener)
+                .withFilter(dumpFilter(dumpOptions))
+                .withAttachmentSelector(attachmentSelector(dumpOptions))
+                .build();
+    }
+
+    private static AttachmentSelector attachmentSelector(DumpOptions dumpOptions) {
+        if (!dumpOptions.referencedAttachmentsOnly) {
+            return AttachmentSelector.ALL;
+        }
+        if (dumpOptions.dumpContentFormat == DumpContentFormat.STORAGE) {
+            throw new IllegalArgumentException("Referenced attachments are recognized in VIEW format only");
+        }
+        return contentFile -> {
+            Set<String> referenced = ReferencedAttachments.fileNames(contentFile);
+            return attachment -> referenced.contains(attachment.getTitle());
+        };
+    }
+
+    private static DumpFilter dumpFilter(DumpOptions dumpOptions) {
+        return DumpFilterBuilder.aDumpFilter()
+                .withMaxDepth(dumpOptions.dumpMaxDepth)
+                .withIncludeLabels(dumpOptions.dumpIncludeLabels != null ? Set.copyOf(dumpOptions.dumpIncludeLabels) : Set.of())
+                .withExcludeLabels(dumpOptions.dumpExcludeLabels != null ? Set.copyOf(dumpOptions.dumpExcludeLabels) : Set.of())
+                .withTitlePattern(dumpOptions.dumpTitlePattern != null ? Pattern.compile(dumpOptions.dumpTitlePattern) : null)
+                .withModifiedSince(dumpOptions.dumpModifiedSince)
+                .build();
+    }
+
+    public static class DumpOptions {
+        @CommandLine.Option(names = {"--dump-parallelism"}, description = "Number of pages dumped concurrently. Children of a page are dumped in parallel as soon as the page is listed",
+                defaultValue = "1", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 21)
+        public int dumpParallelism = 1;
+        @CommandLine.Option(names = {"--attachment-download-concurrency"}, description = "Number of concurrent attachment downloads. Attachments are downloaded by traversal threads if not greater than 1",
+                defaultValue = "1", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 22)
+        public int attachmentDownloadConcurrency = 1;
+        @CommandLine.Option(names = {"--incremental-dump"}, description = "Download only pages and attachments changed since previous dump to the same output directory",
+                defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 23)
+        public boolean incrementalDump = false;
+        @CommandLine.Option(names = {"--dump-strategy"}, description = "How pages are discovered. Valid values: ${COMPLETION-CANDIDATES}",
+                defaultValue = "CHILD_PAGES", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 24)
+        public DumpStrategy dumpStrategy = DumpStrategy.CHILD_PAGES;
+        @CommandLine.Option(names = {"--deduplicate-attachments"}, description = "Store attachments with identical content once, linked to every page they are attached to",
+                defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 25)
+        public boolean deduplicateAttachments = false;
+        @CommandLine.Option(names = {"--dump-content-format"}, description = "Format of dumped page content. STORAGE is not rendered by Confluence and is converted by STORAGE2MD converter. Valid values: ${COMPLETION-CANDIDATES}",
+                defaultValue = "VIEW", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 26)
+        public DumpContentFormat dumpContentFormat = DumpContentFormat.VIEW;
+        @CommandLine.Option(names = {"--conditional-attachment-download"}, description = "Download attachments with ETag and Last-Modified of previous dump to the same output directory and keep files not modified on the server",
+                defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 27)
+        public boolean conditionalAttachmentDownload = false;
+        @CommandLine.Option(names = {"--dump-archive"}, description = "Write dump to a single zip archive at output path instead of a directory tree",
+                defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 28)
+        public boolean dumpArchive = false;
+        @CommandLine.Option(names = {"--dump-max-depth"}, description = "Max depth of dumped pages, children of the parent page have depth 1. Negative value means no limit",
+                defaultValue = "-1", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 29)
+        public int dumpMaxDepth = -1;
+        @CommandLine.Option(names = {"--dump-include-labels"}, split = ",", description = "Dump only pages with any of the labels", order = 30)
+        public List<String> dumpIncludeLabels;
+        @CommandLine.Option(names = {"--dump-exclude-labels"}, split = ",", description = "Don't dump pages with any of the labels", order = 31)
+        public List<String> dumpExcludeLabels;
+        @CommandLine.Option(names = {"--dump-title-pattern"}, description = "Dump only pages with title matching the regular expression", order = 32)
+        public String dumpTitlePattern;
+        @CommandLine.Option(names = {"--dump-modified-since"}, description = "Dump only pages modified on or after the date, in format yyyy-MM-dd", order = 33)
+        public LocalDate dumpModifiedSince;
+        @CommandLine.Option(names = {"--referenced-attachments-only"}, description = "Download only attachments referenced by page content, other attachments are listed in the model as remote attachments",
+                defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 34)
+        public boolean referencedAttachmentsOnly = false;
     }
 
 }
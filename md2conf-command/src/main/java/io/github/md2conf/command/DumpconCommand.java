@@ -1,13 +1,26 @@
 package io.github.md2conf.command;
 
+import io.github.md2conf.command.subcommand.Storage2MdConvertCommand;
 import io.github.md2conf.command.subcommand.View2MdConvertCommand;
+import io.github.md2conf.confluence.client.DumpConfluenceClient;
+import io.github.md2conf.confluence.client.DumpContentFormat;
+import io.github.md2conf.converter.view2md.View2MdConverter;
+import io.github.md2conf.model.util.ModelFilesystemUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static io.github.md2conf.command.DumpCommand.dump;
+import static io.github.md2conf.command.DumpCommand.prepareConfluenceClient;
+import static io.github.md2conf.command.subcommand.View2MdConvertCommand.formatOptionsAsDataHolder;
 
-@CommandLine.Command(name = "dumpcon", aliases = "dump-and-convert", description = "Dump content from Confluence instance, convert using VIEW2MD converter to directory tree with markdown files and binary attachments")
+@CommandLine.Command(name = "dumpcon", aliases = "dump-and-convert", description = "Dump content from Confluence instance, convert using VIEW2MD or STORAGE2MD converter to directory tree with markdown files and binary attachments")
+@Slf4j
 public class DumpconCommand implements Runnable {
     @CommandLine.Mixin
     LoggingMixin loggingMixin;
@@ -18,24 +31,89 @@ public class DumpconCommand implements Runnable {
     @CommandLine.Option(names = {"-o", "--output-dir"}, description = "output directory")
     protected Path outputDirectory;
 
+    @CommandLine.ArgGroup(exclusive = false, heading = "Dump options:\n")
+    DumpCommand.DumpOptions dumpOptions;
+
     @CommandLine.ArgGroup(exclusive = false, heading = "Markdown format options:\n")
     View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions;
 
+    @CommandLine.Option(names = {"--pipelined"}, description = "Convert every page as soon as it's dumped, without intermediate dump directory and content model. Supported for VIEW content format only",
+            defaultValue = "false", showDefaultValue = CommandLine.Help.Visibility.ALWAYS)
+    protected boolean pipelined = false;
+
     @Override
     public void run() {
+        DumpCommand.DumpOptions dumpOptionsLocal = dumpOptions == null ? new DumpCommand.DumpOptions() : dumpOptions;
         View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptionsLocal = markdownFormatOptions == null ? new View2MdConvertCommand.MarkdownFormatOptions() : markdownFormatOptions;
-        dumpcon(confluenceOptions, outputDirectory, markdownFormatOptionsLocal);
+        dumpcon(confluenceOptions, dumpOptionsLocal, outputDirectory, markdownFormatOptionsLocal, pipelined);
+    }
+
+    public static void dumpcon(PublishCommand.ConfluenceOptions confluenceOptions,
+                               Path outputDirectory,
+                               View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions) {
+        dumpcon(confluenceOptions, new DumpCommand.DumpOptions(), outputDirectory, markdownFormatOptions);
     }
 
     public static void dumpcon(PublishCommand.ConfluenceOptions confluenceOptions,
+                               DumpCommand.DumpOptions dumpOptions,
                                Path outputDirectory,
                                View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions) {
-        var intermediateDir = outputDirectory.resolve(".dump");
-        dump(confluenceOptions, intermediateDir);
+        dumpcon(confluenceOptions, dumpOptions, outputDirectory, markdownFormatOptions, false);
+    }
+
+    public static void dumpcon(PublishCommand.ConfluenceOptions confluenceOptions,
+                               DumpCommand.DumpOptions dumpOptions,
+                               Path outputDirectory,
+                               View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions,
+                               boolean pipelined) {
+        if (pipelined) {
+            pipelinedDumpcon(confluenceOptions, dumpOptions, outputDirectory, markdownFormatOptions);
+            return;
+        }
+        var intermediateDir = outputDirectory.resolve(dumpOptions.dumpArchive ? ".dump" + ModelFilesystemUtil.ARCHIVE_EXTENSION : ".dump");
+        dump(confluenceOptions, dumpOptions, intermediateDir);
         View2MdConvertCommand.View2MdConvertOptions convertOptions = new View2MdConvertCommand.View2MdConvertOptions();
         convertOptions.modelPath = intermediateDir;
         convertOptions.outputDirectory = outputDirectory;
-        View2MdConvertCommand.convertView2Md(convertOptions, markdownFormatOptions);
+        if (dumpOptions.dumpContentFormat == DumpContentFormat.STORAGE) {
+            Storage2MdConvertCommand.convertStorage2Md(convertOptions, markdownFormatOptions);
+        } else {
+            View2MdConvertCommand.convertView2Md(convertOptions, markdownFormatOptions);
+        }
+    }
+
+    /**
+     * Every page is converted as soon as its content and attachments are dumped to a staging directory. Attachments
+     * are moved from the staging directory, only links to pages converted later are rewritten after the dump.
+     */
+    private static void pipelinedDumpcon(PublishCommand.ConfluenceOptions confluenceOptions,
+                                         DumpCommand.DumpOptions dumpOptions,
+                                         Path outputDirectory,
+                                         View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions) {
+        if (dumpOptions.dumpContentFormat != DumpContentFormat.VIEW) {
+            throw new IllegalArgumentException("Pipelined dumpcon supports VIEW content format only");
+        }
+        if (dumpOptions.incrementalDump || dumpOptions.dumpArchive) {
+            throw new IllegalArgumentException("Pipelined dumpcon doesn't keep dumped files and cannot be incremental or archived");
+        }
+        View2MdConverter converter = new View2MdConverter(outputDirectory, formatOptionsAsDataHolder(markdownFormatOptions));
+        Path stagingDir = null;
+        try {
+            Files.createDirectories(outputDirectory);
+            // in the output directory, so attachments are moved by rename
+            stagingDir = Files.createTempDirectory(outputDirectory, ".dump");
+            DumpConfluenceClient confluenceClient = prepareConfluenceClient(confluenceOptions, dumpOptions, stagingDir, converter::convertDumpedPage);
+            log.info("Dumping and converting...");
+            confluenceClient.dump(confluenceOptions.spaceKey, confluenceOptions.parentPageTitle);
+            converter.completeConversion();
+            log.info("Converting to markdown result saved to {}", outputDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (stagingDir != null) {
+                FileUtils.deleteQuietly(stagingDir.toFile());
+            }
+        }
     }
 
 }
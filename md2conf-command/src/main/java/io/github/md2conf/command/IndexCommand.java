@@ -6,6 +6,9 @@ import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static picocli.CommandLine.Option.NULL_VALUE;
 
@@ -22,11 +25,25 @@ public class IndexCommand implements Runnable{
     }
 
     public static PagesStructure indexInputDirectory(IndexerOptions indexerOptions) {
+        return indexInputDirectory(indexerOptions, page -> {});
+    }
+
+    /**
+     * Index input directory, passing top-level pages to the consumer as soon as they are indexed
+     *
+     * @return pages structure of all indexed pages
+     */
+    public static PagesStructure indexInputDirectory(IndexerOptions indexerOptions, Consumer<Page> pageConsumer) {
         logger.info("Indexing path {}", indexerOptions.inputDirectory);
         logger.info("Child relation established using {} layout", indexerOptions.indexerChildLayout);
         FileIndexerConfigurationProperties fileIndexerConfigurationProperties = createFileIndexerConfigurationProperties(indexerOptions);
         FileIndexer fileIndexer = new DelegatingFileIndexer(fileIndexerConfigurationProperties);
-        PagesStructure pagesStructure = fileIndexer.indexPath(indexerOptions.inputDirectory);
+        List<Page> pages = new ArrayList<>();
+        fileIndexer.indexPath(indexerOptions.inputDirectory, page -> {
+            pages.add(page);
+            pageConsumer.accept(page);
+        });
+        PagesStructure pagesStructure = () -> pages;
         if (pagesStructure.pages().isEmpty()) {
             logger.warn("No files found in input directory. Used file indexer options {}",
                     fileIndexerConfigurationProperties);
@@ -44,6 +61,8 @@ public class IndexCommand implements Runnable{
                 .rootPage(indexerOptions.indexerRootPage)
                 .childLayout(indexerOptions.indexerChildLayout)
                 .orphanFileAction(indexerOptions.indexerOrphanFileAction)
+                .indexCacheFile(indexerOptions.indexerCacheFile)
+                .collectFileMetadata(indexerOptions.indexerCollectFileMetadata)
                 .build();
     }
 
@@ -51,7 +70,7 @@ public class IndexCommand implements Runnable{
     public static class IndexerOptions {
         @CommandLine.Option(names = {"-i", "--input-dir", "--indexer-input-dir"}, required = true, description = "Input directory")
         public Path inputDirectory;
-        @CommandLine.Option(names = {"--indexer-file-extension"}, description = "File extension to index as confluence content pages", defaultValue = "md")
+        @CommandLine.Option(names = {"--indexer-file-extension"}, description = "File extension to index as confluence content pages, several extensions are separated by comma, like md,wiki", defaultValue = "md")
         public String indexerFileExtension = "md";
         @CommandLine.Option(names = {"--indexer-exclude-pattern"}, description = "Exclude pattern in format of glob:** or regexp:.*. For syntax see javadoc of java.nio.file.FileSystem.getPathMatcher method", defaultValue = "glob:**/.*")
         public String indexerExcludePattern = "glob:**/.*";
@@ -68,5 +87,9 @@ public class IndexCommand implements Runnable{
                 defaultValue = "IGNORE",
                 showDefaultValue = CommandLine.Help.Visibility.ALWAYS)
         public OrphanFileAction indexerOrphanFileAction = OrphanFileAction.IGNORE;
+        @CommandLine.Option(names = {"--indexer-cache-file"}, description = "File to cache directory listings between runs. Directories not modified since previous run are not listed again")
+        public Path indexerCacheFile;
+        @CommandLine.Option(names = {"--indexer-collect-file-metadata"}, description = "Read size and modification time of page files and attachments while indexing, so attachment hashes are computed once and reused by publishing")
+        public boolean indexerCollectFileMetadata = false;
     }
 }
@@ -5,12 +5,14 @@ import picocli.CommandLine;
 @CommandLine.Command(
         name = "md2conf",
         subcommands = {
+                BatchCommand.class,
                 ConpubCommand.class,
                 ConvertCommand.class,
                 DumpCommand.class,
                 DumpconCommand.class,
                 IndexCommand.class,
                 PublishCommand.class,
+                WatchCommand.class,
                 CommandLine.HelpCommand.class},
         description = "Set of tools to deal with markdown files and Confluence: publish, dump, convert"
 )
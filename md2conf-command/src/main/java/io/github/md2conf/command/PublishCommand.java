@@ -3,7 +3,9 @@ package io.github.md2conf.command;
 import io.github.md2conf.confluence.client.ConfluenceClientConfigurationProperties;
 import io.github.md2conf.confluence.client.ConfluenceClientFactory;
 import io.github.md2conf.confluence.client.OrphanRemovalStrategy;
+import io.github.md2conf.confluence.client.PublishScheduler;
 import io.github.md2conf.confluence.client.PublishingStrategy;
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
 import io.github.md2conf.model.util.ModelFilesystemUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,10 +39,17 @@ public class PublishCommand implements Runnable {
     }
 
     public static void publish(ConfluenceOptions confluenceOptions, PublishOptions publishOptions, Path confluenceContentModelPath) {
+        var clientProps = buildConfluenceClientConfigurationProperties(confluenceOptions, publishOptions);
+        publish(confluenceOptions, publishOptions, confluenceContentModelPath, ConfluenceClientFactory.createApiInternalClient(clientProps));
+    }
+
+    public static void publish(ConfluenceOptions confluenceOptions, PublishOptions publishOptions, Path confluenceContentModelPath, ApiInternalClient apiInternalClient) {
         var model = ModelFilesystemUtil.readModel(confluenceContentModelPath);
         var clientProps = buildConfluenceClientConfigurationProperties(confluenceOptions, publishOptions);
-        var publishConfluenceClient = ConfluenceClientFactory.publishConfluenceClient(clientProps, model, null);
-        publishConfluenceClient.publish(model, confluenceOptions.spaceKey, confluenceOptions.parentPageTitle);
+        try (PublishScheduler publishScheduler = ConfluenceClientFactory.createPublishScheduler(clientProps)) {
+            var publishConfluenceClient = ConfluenceClientFactory.publishConfluenceClient(clientProps, model, null, apiInternalClient, publishScheduler);
+            publishConfluenceClient.publish(model, confluenceOptions.spaceKey, confluenceOptions.parentPageTitle);
+        }
     }
 
 
@@ -53,11 +62,16 @@ public class PublishCommand implements Runnable {
                 .withUsername(confluenceOptions.username)
                 .withMaxRequestsPerSecond(confluenceOptions.maxRequestsPerSecond)
                 .withConnectionTTL(confluenceOptions.connectionTimeToLive)
+                .withMaxConnections(confluenceOptions.maxConnections)
                 .withVersionMessage(publishOptions.versionMessage)
                 .withSkipSslVerification(confluenceOptions.skipSslVerification)
                 .withNotifyWatchers(publishOptions.notifyWatchers)
                 .withOrphanRemovalStrategy(publishOptions.orphanRemovalStrategy)
                 .withPublishingStrategy(publishOptions.parentPagePublishingStrategy)
+                .withPublishConcurrency(publishOptions.publishConcurrency)
+                .withLargeAttachmentConcurrency(publishOptions.largeAttachmentConcurrency)
+                .withLargeAttachmentThreshold(publishOptions.largeAttachmentThreshold)
+                .withAttachmentBytesPerSecond(publishOptions.attachmentBytesPerSecond)
                 .build();
     }
 
@@ -79,6 +93,8 @@ public class PublishCommand implements Runnable {
         public Double maxRequestsPerSecond;
         @CommandLine.Option(names = {"--connection-time-to-live"}, description = "Connection TTL in milliseconds", order = 8)
         public Integer connectionTimeToLive;
+        @CommandLine.Option(names = {"--max-connections"}, description = "Max number of pooled HTTP connections to the Confluence instance", order = 9)
+        public Integer maxConnections;
     }
 
     public static class PublishOptions {
@@ -94,6 +110,14 @@ public class PublishCommand implements Runnable {
         public boolean notifyWatchers = false;
         @CommandLine.Option(names = {"--version-message"}, description = "Version message", defaultValue = "Published by md2conf", showDefaultValue = CommandLine.Help.Visibility.ALWAYS, order = 14)
         public String versionMessage = "Published by md2conf";
+        @CommandLine.Option(names = {"--publish-concurrency"}, description = "Number of concurrent page writes, metadata calls and small attachment uploads. Pages are published serially if not set", order = 15)
+        public Integer publishConcurrency;
+        @CommandLine.Option(names = {"--large-attachment-concurrency"}, description = "Number of concurrent large attachment uploads, used with --publish-concurrency", order = 16)
+        public Integer largeAttachmentConcurrency;
+        @CommandLine.Option(names = {"--large-attachment-threshold"}, description = "Size in bytes starting from which attachment is uploaded in the large attachment lane. Default is 10 MiB", order = 17)
+        public Long largeAttachmentThreshold;
+        @CommandLine.Option(names = {"--attachment-bytes-per-second"}, description = "Bandwidth cap shared by all attachment uploads, used with --publish-concurrency", order = 18)
+        public Double attachmentBytesPerSecond;
     }
 
 }
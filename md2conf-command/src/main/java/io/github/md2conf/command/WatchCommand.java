@@ -0,0 +1,247 @@
+package io.github.md2conf.command;
+
+import io.github.md2conf.command.subcommand.Md2WikiConvertCommand;
+import io.github.md2conf.confluence.client.ConfluenceClientConfigurationProperties;
+import io.github.md2conf.confluence.client.ConfluenceClientFactory;
+import io.github.md2conf.confluence.client.OrphanRemovalStrategy;
+import io.github.md2conf.confluence.client.PublishConfluenceClient;
+import io.github.md2conf.confluence.client.PublishScheduler;
+import io.github.md2conf.confluence.client.PublishingStrategy;
+import io.github.md2conf.confluence.client.http.ApiInternalClient;
+import io.github.md2conf.indexer.PathMatchers;
+import io.github.md2conf.indexer.ignore.IndexIgnore;
+import lombok.SneakyThrows;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static io.github.md2conf.confluence.client.PublishConfluenceClientBuilder.aConfluenceClient;
+import static io.github.md2conf.indexer.PathNameUtils.ATTACHMENTS_SUFFIX;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+@Command(name = "watch", description = "Convert and publish docs to a Confluence instance, then watch input directory and publish again pages affected by changes")
+public class WatchCommand implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(WatchCommand.class);
+
+    @CommandLine.Mixin
+    LoggingMixin loggingMixin;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Indexer options:\n")
+    IndexCommand.IndexerOptions indexerOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Title processing options:\n")
+    ConvertCommand.TitleProcessingOptions titleProcessingOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Convert options:\n")
+    Md2WikiConvertCommand.Md2WikiConvertOptions md2WikiConvertOptions;
+    @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", heading = "Confluence options:\n")
+    PublishCommand.ConfluenceOptions confluenceOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "Publish options:\n")
+    PublishCommand.PublishOptions publishOptions;
+    @CommandLine.Option(names = {"--watch-debounce"}, description = "Time in milliseconds without further changes of input files to wait before converting and publishing affected pages",
+            defaultValue = "500", showDefaultValue = CommandLine.Help.Visibility.ALWAYS)
+    public long watchDebounce = 500;
+
+    @Override
+    public void run() {
+        var convertOptionsLocal = md2WikiConvertOptions == null ? new Md2WikiConvertCommand.Md2WikiConvertOptions() : md2WikiConvertOptions;
+        var indexerOptionsLocal = indexerOptions == null ? new IndexCommand.IndexerOptions() : indexerOptions;
+        var publishOptionsLocal = publishOptions == null ? new PublishCommand.PublishOptions() : publishOptions;
+        var titleProcessingLocal = titleProcessingOptions == null ? new ConvertCommand.TitleProcessingOptions() : titleProcessingOptions;
+        watch(convertOptionsLocal, indexerOptionsLocal, confluenceOptions, publishOptionsLocal, titleProcessingLocal, watchDebounce);
+    }
+
+    /**
+     * Convert and publish all pages, then convert and publish pages affected by changes of input files until interrupted.
+     * <p>
+     * Converter and Confluence client are created once, so HTTP connections are reused between publications.
+     */
+    @SneakyThrows
+    public static void watch(Md2WikiConvertCommand.Md2WikiConvertOptions md2WikiConvertOptions,
+                             IndexCommand.IndexerOptions indexerOptions,
+                             PublishCommand.ConfluenceOptions confluenceOptions,
+                             PublishCommand.PublishOptions publishOptions,
+                             ConvertCommand.TitleProcessingOptions titleProcessingOptions,
+                             long debounceMillis) {
+        var clientProps = PublishCommand.buildConfluenceClientConfigurationProperties(confluenceOptions, publishOptions);
+        ApiInternalClient apiInternalClient = ConfluenceClientFactory.createApiInternalClient(clientProps);
+        try (PublishScheduler publishScheduler = ConfluenceClientFactory.createPublishScheduler(clientProps);
+             WatchService watchService = FileSystems.getDefault().newWatchService()) {
+            PublishConfluenceClient modelClient = publishConfluenceClient(clientProps, clientProps.getOrphanRemovalStrategy(), apiInternalClient, publishScheduler);
+            // pages are published without their children, so other pages under the parent must be kept
+            PublishConfluenceClient pageClient = publishConfluenceClient(clientProps, OrphanRemovalStrategy.KEEP_ORPHANS, apiInternalClient, publishScheduler);
+            WatchSession session = new WatchSession(indexerOptions, md2WikiConvertOptions.outputDirectory, confluenceOptions.parentPageTitle,
+                    Md2WikiConvertCommand.createConverter(md2WikiConvertOptions, titleProcessingOptions),
+                    (model, parentTitle) -> modelClient.publish(model, confluenceOptions.spaceKey, parentTitle),
+                    (model, parentTitle) -> pageClient.publish(model, confluenceOptions.spaceKey, parentTitle));
+            InputWatcher watcher = new InputWatcher(watchService, indexerOptions, md2WikiConvertOptions.outputDirectory);
+            watcher.registerTree(indexerOptions.inputDirectory);
+            session.convertAndPublishAll();
+            logger.info("Watching {} for changes", indexerOptions.inputDirectory);
+            while (!Thread.currentThread().isInterrupted()) {
+                watcher.awaitChanges(debounceMillis, session);
+                try {
+                    session.onChanges(watcher.modifiedFiles, watcher.structureChanged);
+                } catch (RuntimeException | IOException e) {
+                    logger.error("Cannot convert and publish changes of {}", watcher.modifiedFiles, e);
+                }
+            }
+        }
+    }
+
+    private static PublishConfluenceClient publishConfluenceClient(ConfluenceClientConfigurationProperties properties,
+                                                                   OrphanRemovalStrategy orphanRemovalStrategy,
+                                                                   ApiInternalClient apiInternalClient,
+                                                                   PublishScheduler publishScheduler) {
+        return aConfluenceClient()
+                .withInternalApiClient(apiInternalClient)
+                .withNotifyWatchers(properties.isNotifyWatchers())
+                .withOrphanRemovalStrategy(orphanRemovalStrategy)
+                .withPublishingStrategy(PublishingStrategy.APPEND_TO_ANCESTOR)
+                .withVersionMessage(properties.getVersionMessage())
+                .withPublishScheduler(publishScheduler)
+                .build();
+    }
+
+    /**
+     * Watch directories of the input tree not excluded by the indexer and collect changes until input files are quiet
+     * for the debounce time.
+     */
+    private static class InputWatcher {
+        private final WatchService watchService;
+        private final IndexCommand.IndexerOptions indexerOptions;
+        private final Path outputDirectory;
+        private final PathMatcher excludePathMatcher;
+        private final Predicate<Path> fileExtensionMatcher;
+        private final Map<WatchKey, Path> directories = new HashMap<>();
+        private final Set<Path> modifiedFiles = new HashSet<>();
+        private boolean structureChanged;
+
+        private InputWatcher(WatchService watchService, IndexCommand.IndexerOptions indexerOptions, Path outputDirectory) {
+            this.watchService = watchService;
+            this.indexerOptions = indexerOptions;
+            this.outputDirectory = outputDirectory.toAbsolutePath().normalize();
+            this.excludePathMatcher = PathMatchers.compile(indexerOptions.indexerExcludePattern);
+            this.fileExtensionMatcher = PathMatchers.fileExtensions(indexerOptions.indexerFileExtension);
+        }
+
+        private void registerTree(Path root) throws IOException {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    if (!dir.equals(indexerOptions.inputDirectory) && isNotWatched(dir)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        private boolean isNotWatched(Path dir) {
+            return excludePathMatcher.matches(dir) || dir.toAbsolutePath().normalize().startsWith(outputDirectory);
+        }
+
+        /**
+         * Block until a change, then collect changes until there are none for the debounce time
+         */
+        private void awaitChanges(long debounceMillis, WatchSession session) throws InterruptedException, IOException {
+            modifiedFiles.clear();
+            structureChanged = false;
+            Set<Path> createdOrDeleted = new HashSet<>();
+            WatchKey key = watchService.take();
+            while (key != null) {
+                Path directory = directories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        structureChanged = true;
+                    } else if (directory != null) {
+                        Path path = directory.resolve((Path) event.context());
+                        if (excludePathMatcher.matches(path)) {
+                            continue;
+                        }
+                        if (event.kind() == ENTRY_MODIFY) {
+                            modifiedFiles.add(path);
+                        } else {
+                            createdOrDeleted.add(path);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    directories.remove(key);
+                }
+                key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+            }
+            for (Path path : createdOrDeleted) {
+                if (!Files.exists(path)) {
+                    // temporary files of editors are created and deleted on every save
+                    if (isStructuralRemoval(path, session)) {
+                        structureChanged = true;
+                    }
+                } else if (Files.isDirectory(path)) {
+                    if (!isNotWatched(path)) {
+                        registerTree(path);
+                        structureChanged = true;
+                    }
+                } else if (isStructural(path, session)) {
+                    structureChanged = true;
+                } else {
+                    // editors often save a file by replacing it
+                    modifiedFiles.add(path);
+                }
+            }
+            modifiedFiles.removeIf(Files::isDirectory);
+        }
+
+        /**
+         * @return true if creation of the file changes the pages structure
+         */
+        private boolean isStructural(Path path, WatchSession session) {
+            if (session.isPage(path)) {
+                return false;
+            }
+            return fileExtensionMatcher.test(path) || isIgnoreFile(path) || isInAttachmentsDirectory(path);
+        }
+
+        /**
+         * @return true if the removed path was a page, an attachment or a directory of the pages structure
+         */
+        private boolean isStructuralRemoval(Path path, WatchSession session) {
+            Path fileName = path.getFileName();
+            return session.isPage(path)
+                    || session.isAttachment(path)
+                    || isIgnoreFile(path)
+                    || (fileName != null && fileName.toString().endsWith(ATTACHMENTS_SUFFIX))
+                    || directories.containsValue(path);
+        }
+
+        private static boolean isIgnoreFile(Path path) {
+            Path fileName = path.getFileName();
+            return fileName != null && fileName.toString().equals(IndexIgnore.DEFAULT_IGNORE_FILE);
+        }
+
+        private static boolean isInAttachmentsDirectory(Path path) {
+            Path parent = path.getParent();
+            return parent != null && parent.getFileName() != null && parent.getFileName().toString().endsWith(ATTACHMENTS_SUFFIX);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package io.github.md2conf.command;
+
+import io.github.md2conf.converter.md2wiki.Md2WikiConverter;
+import io.github.md2conf.indexer.Page;
+import io.github.md2conf.indexer.PagesStructure;
+import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static io.github.md2conf.model.util.ModelFilesystemUtil.saveConfluenceContentModelAtPath;
+
+/**
+ * Pages structure, title map and converter of the input directory kept between changes of input files, so only pages
+ * affected by a change are converted and published again.
+ * <p>
+ * A page is affected when its source file is modified, when an image or a file it links to is modified, or when title
+ * of a page it links to is changed. Title change of any page publishes the whole model, like {@link ConpubCommand},
+ * since published page is found by its title. Creation or removal of files indexes the input directory again.
+ */
+class WatchSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchSession.class);
+
+    /**
+     * Publish pages of the model under the page with the given title
+     */
+    interface ModelPublisher {
+        void publish(ConfluenceContentModel model, String parentTitle);
+    }
+
+    private final IndexCommand.IndexerOptions indexerOptions;
+    private final Path outputDirectory;
+    private final String parentPageTitle;
+    private final Md2WikiConverter converter;
+    private final ModelPublisher modelPublisher;
+    private final ModelPublisher pagePublisher;
+
+    private final Map<Path, Page> pages = new HashMap<>();
+    private final Map<Path, Path> parents = new HashMap<>();
+    private final Set<Path> attachments = new HashSet<>();
+    private final Map<Path, ConfluencePage> confluencePages = new HashMap<>();
+    private PagesStructure pagesStructure;
+    private Map<Path, String> titleMap;
+    private ConfluenceContentModel model;
+
+    /**
+     * @param modelPublisher publisher of the whole model
+     * @param pagePublisher  publisher of pages without children, which must keep other pages under the parent page
+     */
+    WatchSession(IndexCommand.IndexerOptions indexerOptions, Path outputDirectory, String parentPageTitle,
+                 Md2WikiConverter converter, ModelPublisher modelPublisher, ModelPublisher pagePublisher) {
+        this.indexerOptions = indexerOptions;
+        this.outputDirectory = outputDirectory;
+        this.parentPageTitle = parentPageTitle;
+        this.converter = converter;
+        this.modelPublisher = modelPublisher;
+        this.pagePublisher = pagePublisher;
+    }
+
+    void convertAndPublishAll() throws IOException {
+        pagesStructure = IndexCommand.indexInputDirectory(indexerOptions);
+        titleMap = converter.toTitleMap(pagesStructure);
+        model = converter.convert(pagesStructure, titleMap);
+        pages.clear();
+        parents.clear();
+        attachments.clear();
+        confluencePages.clear();
+        collectPages(pagesStructure.pages(), model.getPages(), null);
+        saveConfluenceContentModelAtPath(model, outputDirectory);
+        if (model.getPages().isEmpty()) {
+            logger.warn("No pages to publish");
+            return;
+        }
+        modelPublisher.publish(model, parentPageTitle);
+    }
+
+    /**
+     * @param modifiedFiles    files modified since the previous call
+     * @param structureChanged true if files or directories were created or removed
+     */
+    void onChanges(Set<Path> modifiedFiles, boolean structureChanged) throws IOException {
+        if (structureChanged) {
+            logger.info("Input files created or removed, converting and publishing all pages");
+            convertAndPublishAll();
+            return;
+        }
+        Set<Path> modified = modifiedFiles.stream().map(WatchSession::key).collect(Collectors.toSet());
+        Map<Path, String> previousTitleMap = titleMap;
+        titleMap = converter.toTitleMap(pagesStructure);
+        Set<Path> renamed = pages.keySet().stream()
+                .filter(path -> !Objects.equals(title(previousTitleMap, path), title(titleMap, path)))
+                .collect(Collectors.toSet());
+        Set<Path> affected = new LinkedHashSet<>();
+        for (Map.Entry<Path, Page> entry : pages.entrySet()) {
+            if (isAffected(entry.getKey(), entry.getValue(), modified, renamed)) {
+                affected.add(entry.getKey());
+            }
+        }
+        if (affected.isEmpty() && renamed.isEmpty()) {
+            logger.debug("No pages affected by changes of {}", modified);
+            return;
+        }
+        for (Path path : renamed) {
+            confluencePages.get(path).setTitle(title(titleMap, path));
+        }
+        for (Path path : affected) {
+            ConfluencePage confluencePage = confluencePages.get(path);
+            Path relativePart = outputDirectory.relativize(Path.of(confluencePage.getContentFilePath()).getParent());
+            ConfluencePage converted = converter.convertPage(pages.get(path), relativePart, titleMap);
+            confluencePage.setAttachments(converted.getAttachments());
+            confluencePage.setAttachmentMetadata(converted.getAttachmentMetadata());
+            logger.info("Converted {}", path);
+        }
+        saveConfluenceContentModelAtPath(model, outputDirectory);
+        if (!renamed.isEmpty()) {
+            logger.info("Titles of {} pages changed, publishing all pages", renamed.size());
+            modelPublisher.publish(model, parentPageTitle);
+            return;
+        }
+        Map<String, List<ConfluencePage>> pagesByParentTitle = new LinkedHashMap<>();
+        for (Path path : affected) {
+            Path parent = parents.get(path);
+            String parentTitle = parent == null ? parentPageTitle : confluencePages.get(parent).getTitle();
+            pagesByParentTitle.computeIfAbsent(parentTitle, title -> new ArrayList<>())
+                    .add(withoutChildren(confluencePages.get(path)));
+        }
+        pagesByParentTitle.forEach((parentTitle, pagesToPublish) ->
+                pagePublisher.publish(new ConfluenceContentModel(pagesToPublish), parentTitle));
+        logger.info("Published {} changed pages", affected.size());
+    }
+
+    /**
+     * @return true if the path is a source file of an indexed page
+     */
+    boolean isPage(Path path) {
+        return pages.containsKey(key(path));
+    }
+
+    /**
+     * @return true if the path is an attachment of an indexed page
+     */
+    boolean isAttachment(Path path) {
+        return attachments.contains(key(path));
+    }
+
+    private boolean isAffected(Path path, Page page, Set<Path> modified, Set<Path> renamed) {
+        if (modified.contains(path)) {
+            return true;
+        }
+        for (Path reference : converter.localReferences().getOrDefault(path, Set.of())) {
+            if (renamed.contains(reference) || (modified.contains(reference) && !pages.containsKey(reference))) {
+                return true;
+            }
+        }
+        return page.attachments().stream().map(WatchSession::key).anyMatch(modified::contains);
+    }
+
+    private void collectPages(List<? extends Page> sourcePages, List<ConfluencePage> convertedPages, Path parent) {
+        for (int i = 0; i < sourcePages.size(); i++) {
+            Page page = sourcePages.get(i);
+            Path path = key(page.path());
+            pages.put(path, page);
+            parents.put(path, parent);
+            page.attachments().forEach(attachment -> attachments.add(key(attachment)));
+            confluencePages.put(path, convertedPages.get(i));
+            if (page.children() != null) {
+                collectPages(page.children(), convertedPages.get(i).getChildren(), path);
+            }
+        }
+    }
+
+    private String title(Map<Path, String> titles, Path path) {
+        return titles.get(pages.get(path).path().toAbsolutePath());
+    }
+
+    private static ConfluencePage withoutChildren(ConfluencePage page) {
+        ConfluencePage res = new ConfluencePage();
+        res.setTitle(page.getTitle());
+        res.setContentFilePath(page.getContentFilePath());
+        res.setType(page.getType());
+        res.setAttachments(page.getAttachments());
+        res.setAttachmentMetadata(page.getAttachmentMetadata());
+        res.setLabels(page.getLabels());
+        res.setSkipUpdate(page.isSkipUpdate());
+        return res;
+    }
+
+    private static Path key(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
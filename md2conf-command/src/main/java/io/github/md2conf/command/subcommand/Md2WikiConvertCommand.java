@@ -3,8 +3,8 @@ package io.github.md2conf.command.subcommand;
 import io.github.md2conf.command.ConvertCommand;
 import io.github.md2conf.command.IndexCommand;
 import io.github.md2conf.command.LoggingMixin;
-import io.github.md2conf.converter.PageStructureConverter;
 import io.github.md2conf.converter.md2wiki.Md2WikiConverter;
+import io.github.md2conf.indexer.Page;
 import io.github.md2conf.indexer.PagesStructure;
 import io.github.md2conf.model.ConfluenceContentModel;
 import io.github.md2conf.title.processor.DefaultPageStructureTitleProcessor;
@@ -16,6 +16,10 @@ import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static io.github.md2conf.model.util.ModelFilesystemUtil.saveConfluenceContentModelAtPath;
 
@@ -44,16 +48,25 @@ public class Md2WikiConvertCommand implements Runnable {
     public static File convertMd2Wiki(Md2WikiConvertOptions md2WikiConvertOptions,
                                       IndexCommand.IndexerOptions indexerOptions,
                                       ConvertCommand.TitleProcessingOptions titleProcessingOptions) {
-        PagesStructure pagesStructure = IndexCommand.indexInputDirectory(indexerOptions);
-        PageStructureConverter converterService = createConverter(md2WikiConvertOptions, titleProcessingOptions);
-        ConfluenceContentModel model = converterService.convert(pagesStructure);
+        Md2WikiConverter converter = createConverter(md2WikiConvertOptions, titleProcessingOptions);
+        // titles are extracted while the rest of the input directory is indexed, pages are converted when all titles
+        // are known, since links to other pages are resolved to their titles
+        Map<Path, String> titleMap = new HashMap<>();
+        PagesStructure pagesStructure = IndexCommand.indexInputDirectory(indexerOptions,
+                page -> titleMap.putAll(toTitleMap(converter, page)));
+        ConfluenceContentModel model = converter.convert(pagesStructure, titleMap);
         File contentModelFile = saveConfluenceContentModelAtPath(model, md2WikiConvertOptions.outputDirectory);
         log.info("Confluence content model saved at file {}", contentModelFile);
         return contentModelFile;
     }
 
-    private static PageStructureConverter createConverter(Md2WikiConvertOptions md2WikiConvertOptions,
-                                                          ConvertCommand.TitleProcessingOptions titleProcessingOptions) {
+    @SneakyThrows
+    private static Map<Path, String> toTitleMap(Md2WikiConverter converter, Page topLevelPage) {
+        return converter.toTitleMap(() -> List.of(topLevelPage));
+    }
+
+    public static Md2WikiConverter createConverter(Md2WikiConvertOptions md2WikiConvertOptions,
+                                                   ConvertCommand.TitleProcessingOptions titleProcessingOptions) {
 
         PageStructureTitleProcessor pageStructureTitleProcessor =
                 new DefaultPageStructureTitleProcessor(TitleProcessorOptions.builder()
@@ -0,0 +1,39 @@
+package io.github.md2conf.command.subcommand;
+
+import io.github.md2conf.command.LoggingMixin;
+import io.github.md2conf.converter.storage2md.Storage2MdConverter;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+import static io.github.md2conf.command.subcommand.View2MdConvertCommand.formatOptionsAsDataHolder;
+import static io.github.md2conf.command.subcommand.View2MdConvertCommand.readModelAndConvert;
+
+
+@CommandLine.Command(name = "storage2md")
+@Slf4j
+public class Storage2MdConvertCommand implements Runnable {
+
+    @CommandLine.Mixin
+    LoggingMixin loggingMixin;
+
+    @CommandLine.ArgGroup(exclusive = false, multiplicity = "1", heading = "storage2md converting options:\n")
+    View2MdConvertCommand.View2MdConvertOptions convertOptions;
+    @CommandLine.ArgGroup(exclusive = false, heading = "markdown format options:\n")
+    View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions;
+
+
+    @Override
+    public void run() {
+        var localMarkdownFormatOptions = markdownFormatOptions == null ? new View2MdConvertCommand.MarkdownFormatOptions() : markdownFormatOptions;
+        convertStorage2Md(this.convertOptions, localMarkdownFormatOptions);
+    }
+
+    public static void convertStorage2Md(View2MdConvertCommand.View2MdConvertOptions convertOptions, View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions) {
+        readModelAndConvert(convertOptions.modelPath, (model, sourceRoot) -> {
+            Storage2MdConverter storage2MdConverter = new Storage2MdConverter(convertOptions.outputDirectory, formatOptionsAsDataHolder(markdownFormatOptions), sourceRoot);
+            storage2MdConverter.convert(model);
+        });
+        log.info("Converting to markdown result saved to {}", convertOptions.outputDirectory);
+    }
+
+}
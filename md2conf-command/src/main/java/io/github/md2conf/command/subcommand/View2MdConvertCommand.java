@@ -12,7 +12,11 @@ import io.github.md2conf.model.util.ModelFilesystemUtil;
 import lombok.extern.slf4j.Slf4j;
 import picocli.CommandLine;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
 import java.nio.file.Path;
+import java.util.function.BiConsumer;
 
 
 @CommandLine.Command(name = "view2md")
@@ -35,13 +39,31 @@ public class View2MdConvertCommand implements Runnable{
     }
 
     public static void convertView2Md(View2MdConvertOptions view2MdConvertOptions, MarkdownFormatOptions markdownFormatOptions) {
-        ConfluenceContentModel model = ModelFilesystemUtil.readModel(view2MdConvertOptions.modelPath);
-        View2MdConverter view2MdConverter = new View2MdConverter(view2MdConvertOptions.outputDirectory, formatOptionsAsDataHolder(markdownFormatOptions));
-        view2MdConverter.convert(model);
+        readModelAndConvert(view2MdConvertOptions.modelPath, (model, sourceRoot) -> {
+            View2MdConverter view2MdConverter = new View2MdConverter(view2MdConvertOptions.outputDirectory, formatOptionsAsDataHolder(markdownFormatOptions), sourceRoot);
+            view2MdConverter.convert(model);
+        });
         log.info("Converting to markdown result saved to {}", view2MdConvertOptions.outputDirectory);
     }
 
-    private static DataHolder formatOptionsAsDataHolder(MarkdownFormatOptions view2MdConvertOptions) {
+    /**
+     * Read model from directory, model file or dump archive and pass it to converter with the directory relative paths
+     * of the model are resolved against. Archive is read in place and closed after conversion.
+     */
+    public static void readModelAndConvert(Path modelPath, BiConsumer<ConfluenceContentModel, Path> converter) {
+        if (!ModelFilesystemUtil.isArchive(modelPath)) {
+            converter.accept(ModelFilesystemUtil.readModel(modelPath), Path.of(""));
+            return;
+        }
+        try (FileSystem archive = ModelFilesystemUtil.openArchive(modelPath)) {
+            Path root = archive.getPath("/");
+            converter.accept(ModelFilesystemUtil.readModel(root), root);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static DataHolder formatOptionsAsDataHolder(MarkdownFormatOptions view2MdConvertOptions) {
         MutableDataSet mutableDataSet = new MutableDataSet();
         if (view2MdConvertOptions !=null) {
             mutableDataSet.set(Formatter.RIGHT_MARGIN, view2MdConvertOptions.markdownRightMargin);
@@ -51,7 +73,7 @@ public class View2MdConvertCommand implements Runnable{
     }
 
     public static class View2MdConvertOptions extends ConvertCommand.ConvertOptions {
-        @CommandLine.Option(names = { "--model-path"}, required = true, description = "Model path directory")
+        @CommandLine.Option(names = { "--model-path"}, required = true, description = "Model path directory or dump archive")
         public Path modelPath;
     }
     public static class MarkdownFormatOptions {
@@ -0,0 +1,73 @@
+package io.github.md2conf.command;
+
+import io.github.md2conf.indexer.ChildLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import static io.github.md2conf.command.TestUtil.getCommandLine;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchCommandTest {
+
+    @TempDir
+    private Path outputPath;
+
+    @Test
+    void when_invokeNoParams_then_missingRequiredArgumentPrinted() {
+        StringWriter swOut = new StringWriter();
+        StringWriter swErr = new StringWriter();
+        CommandLine cmd = getCommandLine(swOut, swErr);
+        int exitCode = cmd.execute("batch");
+        assertThat(exitCode).isNotZero();
+        assertThat(swOut.toString()).isEmpty();
+        assertThat(swErr.toString()).isNotEmpty().doesNotContain("Exception")
+                .contains("Usage: md2conf")
+                .contains("Missing required argument");
+    }
+
+    @Test
+    void read_manifest() {
+        BatchManifest manifest = BatchManifest.readManifest(Path.of("src/test/resources/batch/batch-manifest.json"));
+        assertThat(manifest.getEntries()).hasSize(2);
+        assertThat(manifest.getEntries().get(1).getSpaceKey()).isEqualTo("DOCS");
+        assertThat(manifest.getEntries().get(1).getTitlePrefix()).isEqualTo("Docs: ");
+        assertThat(manifest.getEntries().get(0).getOrphanRemovalStrategy()).isNull();
+    }
+
+    @Test
+    void entry_indexer_options_keep_index_command_defaults_unless_set() {
+        BatchManifest.Entry entry = new BatchManifest.Entry();
+        entry.setIndexerChildLayout(ChildLayout.SAME_DIRECTORY);
+        BatchCommand.DefaultIndexerOptions defaults = new BatchCommand.DefaultIndexerOptions();
+        defaults.indexerFileExtension = "wiki";
+        defaults.indexerChildLayout = ChildLayout.SUB_DIRECTORY;
+
+        IndexCommand.IndexerOptions options = BatchCommand.entryIndexerOptions(entry, outputPath, defaults);
+
+        IndexCommand.IndexerOptions indexDefaults = new IndexCommand.IndexerOptions();
+        assertThat(options.inputDirectory).isEqualTo(outputPath);
+        assertThat(options.indexerFileExtension).isEqualTo("wiki");
+        assertThat(options.indexerChildLayout).isEqualTo(ChildLayout.SAME_DIRECTORY);
+        assertThat(options.indexerExcludePattern).isEqualTo(indexDefaults.indexerExcludePattern);
+        assertThat(options.indexerOrphanFileAction).isEqualTo(indexDefaults.indexerOrphanFileAction);
+        assertThat(options.indexerRootPage).isNull();
+    }
+
+    @Test
+    void invoke_with_manifest_and_non_reachable_server() {
+        StringWriter swOut = new StringWriter();
+        StringWriter swErr = new StringWriter();
+        CommandLine cmd = getCommandLine(swOut, swErr);
+        int exitCode = cmd.execute("batch", "-f", "src/test/resources/batch/batch-manifest.json",
+                "-o", outputPath.toString(), "-url", "http://localhost:6551");
+        assertThat(exitCode).isNotZero();
+        assertThat(swErr.toString()).contains("Batch entries failed: 1, 2");
+        assertThat(outputPath.resolve("entry-1").resolve("confluence-content-model.json")).exists();
+        assertThat(outputPath.resolve("entry-2").resolve("confluence-content-model.json")).exists();
+    }
+
+}
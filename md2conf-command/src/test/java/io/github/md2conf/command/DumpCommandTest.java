@@ -4,9 +4,11 @@ import org.junit.jupiter.api.Test;
 import picocli.CommandLine;
 
 import java.io.StringWriter;
+import java.nio.file.Path;
 
 import static io.github.md2conf.command.TestUtil.getCommandLine;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class DumpCommandTest {
 
@@ -23,4 +25,16 @@ class DumpCommandTest {
                 .contains("Missing required argument");
     }
 
+    @Test
+    void deduplicated_attachments_cannot_be_downloaded_conditionally() {
+        PublishCommand.ConfluenceOptions confluenceOptions = new PublishCommand.ConfluenceOptions();
+        confluenceOptions.confluenceUrl = "http://localhost";
+        DumpCommand.DumpOptions dumpOptions = new DumpCommand.DumpOptions();
+        dumpOptions.deduplicateAttachments = true;
+        dumpOptions.conditionalAttachmentDownload = true;
+
+        assertThatThrownBy(() -> DumpCommand.prepareConfluenceClient(confluenceOptions, dumpOptions, Path.of("out")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package io.github.md2conf.command;
+
+import io.github.md2conf.command.subcommand.Md2WikiConvertCommand;
+import io.github.md2conf.model.ConfluenceContentModel;
+import io.github.md2conf.model.ConfluencePage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WatchSessionTest {
+
+    @TempDir
+    private Path tmpDir;
+
+    private Path inputDir;
+    private Path outputDir;
+    private final List<String> publishedModels = new ArrayList<>();
+    private final List<String> publishedPages = new ArrayList<>();
+    private WatchSession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        inputDir = Files.createDirectories(tmpDir.resolve("docs"));
+        outputDir = tmpDir.resolve("out");
+        Files.writeString(inputDir.resolve("a.md"), "# Page A\n\n[b.md](b.md)");
+        Files.writeString(inputDir.resolve("b.md"), "# Page B\n\ntext");
+        Files.writeString(inputDir.resolve("c.md"), "# Page C\n\ntext");
+        IndexCommand.IndexerOptions indexerOptions = new IndexCommand.IndexerOptions();
+        indexerOptions.inputDirectory = inputDir;
+        Md2WikiConvertCommand.Md2WikiConvertOptions convertOptions = new Md2WikiConvertCommand.Md2WikiConvertOptions();
+        convertOptions.outputDirectory = outputDir;
+        session = new WatchSession(indexerOptions, outputDir, "Parent",
+                Md2WikiConvertCommand.createConverter(convertOptions, new ConvertCommand.TitleProcessingOptions()),
+                (model, parentTitle) -> publishedModels.add(describe(model, parentTitle)),
+                (model, parentTitle) -> publishedPages.add(describe(model, parentTitle)));
+        session.convertAndPublishAll();
+    }
+
+    @Test
+    void modified_page_is_published_alone() throws IOException {
+        Files.writeString(inputDir.resolve("c.md"), "# Page C\n\nchanged text");
+
+        session.onChanges(Set.of(inputDir.resolve("c.md")), false);
+
+        assertThat(publishedModels).containsExactly("Parent: Page A, Page B, Page C");
+        assertThat(publishedPages).containsExactly("Parent: Page C");
+        assertThat(outputDir.resolve("c.wiki")).content().contains("changed text");
+    }
+
+    @Test
+    void title_change_converts_linking_pages_and_publishes_all() throws IOException {
+        Files.writeString(inputDir.resolve("b.md"), "# Page B renamed\n\ntext");
+
+        session.onChanges(Set.of(inputDir.resolve("b.md")), false);
+
+        assertThat(publishedModels).containsExactly("Parent: Page A, Page B, Page C", "Parent: Page A, Page B renamed, Page C");
+        assertThat(publishedPages).isEmpty();
+        assertThat(outputDir.resolve("a.wiki")).content().contains("Page B renamed");
+    }
+
+    @Test
+    void not_referenced_file_changes_nothing() throws IOException {
+        Path notes = Files.writeString(inputDir.resolve("notes.txt"), "notes");
+
+        session.onChanges(Set.of(notes), false);
+
+        assertThat(publishedModels).hasSize(1);
+        assertThat(publishedPages).isEmpty();
+    }
+
+    @Test
+    void structure_change_publishes_all() throws IOException {
+        Files.writeString(inputDir.resolve("d.md"), "# Page D");
+
+        session.onChanges(Set.of(), true);
+
+        assertThat(publishedModels).containsExactly("Parent: Page A, Page B, Page C", "Parent: Page A, Page B, Page C, Page D");
+    }
+
+    @Test
+    void attachments_of_indexed_pages_are_known() throws IOException {
+        Path image = Files.createDirectories(inputDir.resolve("c_attachments")).resolve("image.png");
+        Files.writeString(image, "png");
+        session.onChanges(Set.of(), true);
+
+        assertThat(session.isPage(inputDir.resolve("c.md"))).isTrue();
+        assertThat(session.isAttachment(image)).isTrue();
+        assertThat(session.isAttachment(inputDir.resolve("4913"))).isFalse();
+    }
+
+    @Test
+    void modified_attachment_is_published_with_new_hash() throws IOException {
+        Path image = Files.createDirectories(inputDir.resolve("c_attachments")).resolve("image.png");
+        Files.writeString(image, "png");
+        IndexCommand.IndexerOptions indexerOptions = new IndexCommand.IndexerOptions();
+        indexerOptions.inputDirectory = inputDir;
+        indexerOptions.indexerCollectFileMetadata = true;
+        Md2WikiConvertCommand.Md2WikiConvertOptions convertOptions = new Md2WikiConvertCommand.Md2WikiConvertOptions();
+        convertOptions.outputDirectory = outputDir;
+        List<ConfluenceContentModel> publishedPageModels = new ArrayList<>();
+        WatchSession metadataSession = new WatchSession(indexerOptions, outputDir, "Parent",
+                Md2WikiConvertCommand.createConverter(convertOptions, new ConvertCommand.TitleProcessingOptions()),
+                (model, parentTitle) -> { },
+                (model, parentTitle) -> publishedPageModels.add(model));
+        metadataSession.convertAndPublishAll();
+        Files.writeString(image, "changed png");
+
+        metadataSession.onChanges(Set.of(image), false);
+
+        assertThat(publishedPageModels).hasSize(1);
+        ConfluencePage published = publishedPageModels.get(0).getPages().get(0);
+        assertThat(published.getTitle()).isEqualTo("Page C");
+        assertThat(published.getAttachmentMetadata().get("image.png").getSize()).isEqualTo("changed png".length());
+        assertThat(published.getAttachmentMetadata().get("image.png").getSha256())
+                .isEqualTo("ef0fc35ebc847c11295db2af2608b11f3aaee9f9cb0907ac437a85025562b662");
+    }
+
+    private static String describe(ConfluenceContentModel model, String parentTitle) {
+        return parentTitle + ": " + model.getPages().stream()
+                .map(ConfluencePage::getTitle)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -2,10 +2,13 @@ package io.github.md2conf.maven.plugin;
 
 import com.vladsch.flexmark.util.format.options.HeadingStyle;
 import io.github.md2conf.command.ConvertCommand;
+import io.github.md2conf.command.DumpCommand;
 import io.github.md2conf.command.IndexCommand;
 import io.github.md2conf.command.PublishCommand;
 import io.github.md2conf.command.subcommand.Md2WikiConvertCommand;
 import io.github.md2conf.command.subcommand.View2MdConvertCommand;
+import io.github.md2conf.confluence.client.DumpContentFormat;
+import io.github.md2conf.confluence.client.DumpStrategy;
 import io.github.md2conf.confluence.client.OrphanRemovalStrategy;
 import io.github.md2conf.confluence.client.PublishingStrategy;
 import io.github.md2conf.indexer.ChildLayout;
@@ -17,6 +20,8 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
 
 public abstract class AbstractMd2ConfMojo extends AbstractMojo {
 
@@ -42,6 +47,10 @@ public abstract class AbstractMd2ConfMojo extends AbstractMojo {
     protected ChildLayout indexerChildLayout = ChildLayout.SUB_DIRECTORY;
     @Parameter(property = PREFIX + "orphanFileAction")
     protected OrphanFileAction orphanFileAction = OrphanFileAction.IGNORE;
+    @Parameter(property = PREFIX + "indexerCacheFile")
+    protected File indexerCacheFile;
+    @Parameter(property = PREFIX + "indexerCollectFileMetadata")
+    protected boolean indexerCollectFileMetadata;
     @Parameter(property = PREFIX + "titleExtract")
     protected TitleExtractStrategy titleExtract = TitleExtractStrategy.FROM_FIRST_HEADER;
     @Parameter(property = PREFIX + "titlePrefix")
@@ -83,12 +92,53 @@ public abstract class AbstractMd2ConfMojo extends AbstractMojo {
     protected PublishingStrategy parentPagePublishingStrategy = PublishingStrategy.APPEND_TO_ANCESTOR;
     @Parameter(property = PREFIX + "notifyWatchers")
     protected boolean notifyWatchers = false;
+    @Parameter(property = PREFIX + "publishConcurrency")
+    protected Integer publishConcurrency;
+    @Parameter(property = PREFIX + "largeAttachmentConcurrency")
+    protected Integer largeAttachmentConcurrency;
+    @Parameter(property = PREFIX + "largeAttachmentThreshold")
+    protected Long largeAttachmentThreshold;
+    @Parameter(property = PREFIX + "attachmentBytesPerSecond")
+    protected Double attachmentBytesPerSecond;
     @Parameter(property = PREFIX + "skipSslVerification")
     protected boolean skipSslVerification = false;
     @Parameter(property = PREFIX + "maxRequestsPerSecond")
     protected Double maxRequestsPerSecond;
     @Parameter(property = PREFIX + "connectionTimeToLive")
     protected Integer connectionTimeToLive;
+    @Parameter(property = PREFIX + "maxConnections")
+    protected Integer maxConnections;
+    @Parameter(property = PREFIX + "dumpParallelism")
+    protected int dumpParallelism = 1;
+    @Parameter(property = PREFIX + "attachmentDownloadConcurrency")
+    protected int attachmentDownloadConcurrency = 1;
+    @Parameter(property = PREFIX + "incrementalDump")
+    protected boolean incrementalDump = false;
+    @Parameter(property = PREFIX + "dumpStrategy")
+    protected DumpStrategy dumpStrategy = DumpStrategy.CHILD_PAGES;
+    @Parameter(property = PREFIX + "deduplicateAttachments")
+    protected boolean deduplicateAttachments = false;
+    @Parameter(property = PREFIX + "dumpContentFormat")
+    protected DumpContentFormat dumpContentFormat = DumpContentFormat.VIEW;
+    @Parameter(property = PREFIX + "conditionalAttachmentDownload")
+    protected boolean conditionalAttachmentDownload = false;
+    @Parameter(property = PREFIX + "dumpArchive")
+    protected boolean dumpArchive = false;
+    @Parameter(property = PREFIX + "dumpMaxDepth")
+    protected int dumpMaxDepth = -1;
+    @Parameter(property = PREFIX + "dumpIncludeLabels")
+    protected List<String> dumpIncludeLabels;
+    @Parameter(property = PREFIX + "dumpExcludeLabels")
+    protected List<String> dumpExcludeLabels;
+    @Parameter(property = PREFIX + "dumpTitlePattern")
+    protected String dumpTitlePattern;
+    /**
+     * Date in format yyyy-MM-dd
+     */
+    @Parameter(property = PREFIX + "dumpModifiedSince")
+    protected String dumpModifiedSince;
+    @Parameter(property = PREFIX + "referencedAttachmentsOnly")
+    protected boolean referencedAttachmentsOnly = false;
 
 
     @NotNull
@@ -133,6 +183,8 @@ public abstract class AbstractMd2ConfMojo extends AbstractMojo {
         indexerOptions.indexerRootPage = this.indexerRootPage;
         indexerOptions.indexerChildLayout = this.indexerChildLayout;
         indexerOptions.indexerOrphanFileAction = this.orphanFileAction;
+        indexerOptions.indexerCacheFile = this.indexerCacheFile != null ? this.indexerCacheFile.toPath() : null;
+        indexerOptions.indexerCollectFileMetadata = this.indexerCollectFileMetadata;
         return indexerOptions;
     }
 
@@ -143,6 +195,29 @@ public abstract class AbstractMd2ConfMojo extends AbstractMojo {
         options.orphanRemovalStrategy = this.orphanRemovalStrategy;
         options.parentPagePublishingStrategy = this.parentPagePublishingStrategy;
         options.notifyWatchers  = this.notifyWatchers;
+        options.publishConcurrency = this.publishConcurrency;
+        options.largeAttachmentConcurrency = this.largeAttachmentConcurrency;
+        options.largeAttachmentThreshold = this.largeAttachmentThreshold;
+        options.attachmentBytesPerSecond = this.attachmentBytesPerSecond;
+        return options;
+    }
+
+    protected DumpCommand.DumpOptions getDumpOptions() {
+        DumpCommand.DumpOptions options = new DumpCommand.DumpOptions();
+        options.dumpParallelism = this.dumpParallelism;
+        options.attachmentDownloadConcurrency = this.attachmentDownloadConcurrency;
+        options.incrementalDump = this.incrementalDump;
+        options.dumpStrategy = this.dumpStrategy;
+        options.deduplicateAttachments = this.deduplicateAttachments;
+        options.dumpContentFormat = this.dumpContentFormat;
+        options.conditionalAttachmentDownload = this.conditionalAttachmentDownload;
+        options.dumpArchive = this.dumpArchive;
+        options.dumpMaxDepth = this.dumpMaxDepth;
+        options.dumpIncludeLabels = this.dumpIncludeLabels;
+        options.dumpExcludeLabels = this.dumpExcludeLabels;
+        options.dumpTitlePattern = this.dumpTitlePattern;
+        options.dumpModifiedSince = this.dumpModifiedSince != null ? LocalDate.parse(this.dumpModifiedSince) : null;
+        options.referencedAttachmentsOnly = this.referencedAttachmentsOnly;
         return options;
     }
 
@@ -156,6 +231,7 @@ public abstract class AbstractMd2ConfMojo extends AbstractMojo {
         options.skipSslVerification = this.skipSslVerification;
         options.maxRequestsPerSecond = this.maxRequestsPerSecond;
         options.connectionTimeToLive = this.connectionTimeToLive;
+        options.maxConnections = this.maxConnections;
         return options;
     }
 
@@ -0,0 +1,56 @@
+package io.github.md2conf.maven.plugin;
+
+import io.github.md2conf.command.BatchCommand;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import java.io.File;
+
+@Mojo(name = "batch")
+public class BatchMojo extends AbstractMd2ConfMojo {
+
+    @Parameter(property = PREFIX + "batchManifest", required = true)
+    protected File batchManifest;
+    @Parameter(property = PREFIX + "batchParallelism")
+    protected int batchParallelism = 4;
+
+    @Override
+    public void execute() {
+        if (this.skip) {
+            getLog().info("md2conf plugin batch skipped ('skip' is enabled)");
+            return;
+        }
+        BatchCommand.batch(getBatchOptions(), getConnectionOptions(), getDefaultIndexerOptions(), getTitleProcessingOptions(), getPublishOptions());
+    }
+
+    private BatchCommand.BatchOptions getBatchOptions() {
+        BatchCommand.BatchOptions options = new BatchCommand.BatchOptions();
+        options.batchManifest = this.batchManifest.toPath();
+        options.outputDirectory = this.outputDirectory.toPath();
+        options.batchParallelism = this.batchParallelism;
+        return options;
+    }
+
+    private BatchCommand.ConnectionOptions getConnectionOptions() {
+        BatchCommand.ConnectionOptions options = new BatchCommand.ConnectionOptions();
+        options.confluenceUrl = this.confluenceUrl;
+        options.username = this.username;
+        options.password = this.password;
+        options.skipSslVerification = this.skipSslVerification;
+        options.maxRequestsPerSecond = this.maxRequestsPerSecond;
+        options.connectionTimeToLive = this.connectionTimeToLive;
+        options.maxConnections = this.maxConnections;
+        return options;
+    }
+
+    private BatchCommand.DefaultIndexerOptions getDefaultIndexerOptions() {
+        BatchCommand.DefaultIndexerOptions options = new BatchCommand.DefaultIndexerOptions();
+        options.indexerFileExtension = this.indexerFileExtension;
+        options.indexerExcludePattern = this.indexerExcludePattern;
+        options.indexerRootPage = this.indexerRootPage;
+        options.indexerChildLayout = this.indexerChildLayout;
+        options.indexerOrphanFileAction = this.orphanFileAction;
+        return options;
+    }
+
+}
@@ -0,0 +1,20 @@
+package io.github.md2conf.maven.plugin;
+
+import io.github.md2conf.command.subcommand.Storage2MdConvertCommand;
+import io.github.md2conf.command.subcommand.View2MdConvertCommand;
+import org.apache.maven.plugins.annotations.Mojo;
+
+@Mojo(name = "convert-storage2md")
+public class ConvertStorage2MdMojo extends AbstractMd2ConfMojo {
+
+    @Override
+    public void execute() {
+        if (this.skip) {
+            getLog().info("md2conf plugin convert-storage2md skipped ('skip' is enabled)");
+            return;
+        }
+        View2MdConvertCommand.View2MdConvertOptions convertOptions = getFormatOptions();
+        View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions = getMarkdownFormatOptions();
+        Storage2MdConvertCommand.convertStorage2Md(convertOptions, markdownFormatOptions);
+    }
+}
@@ -3,9 +3,14 @@ package io.github.md2conf.maven.plugin;
 import io.github.md2conf.command.DumpconCommand;
 import io.github.md2conf.command.subcommand.View2MdConvertCommand;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 
 @Mojo(name = "dumpcon")
 public class DumpConMojo extends AbstractMd2ConfMojo{
+
+    @Parameter(property = PREFIX + "pipelined")
+    protected boolean pipelined = false;
+
     @Override
     public void execute() {
         if (this.skip) {
@@ -13,7 +18,7 @@ public class DumpConMojo extends AbstractMd2ConfMojo{
             return;
         }
         View2MdConvertCommand.MarkdownFormatOptions markdownFormatOptions = getMarkdownFormatOptions();
-        DumpconCommand.dumpcon(getConfluenceOptions(), getOutputDirectoryAsPath(), markdownFormatOptions);
+        DumpconCommand.dumpcon(getConfluenceOptions(), getDumpOptions(), getOutputDirectoryAsPath(), markdownFormatOptions, pipelined);
     }
 
 }
@@ -11,7 +11,7 @@ public class DumpMojo extends AbstractMd2ConfMojo{
             getLog().info("md2conf plugin dump skipped ('skip' is enabled)");
             return;
         }
-        DumpCommand.dump(getConfluenceOptions(),  getOutputDirectoryAsPath());
+        DumpCommand.dump(getConfluenceOptions(), getDumpOptions(), getOutputDirectoryAsPath());
     }
 
 }